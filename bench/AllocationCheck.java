@@ -0,0 +1,145 @@
+// Imports (libraries and utilities)
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Allocation Check class
+ * Checks that the simulation loop allocates nothing once it's in its steady state, with the JVM's count of the bytes each thread has allocated
+ * Each run streams in a long generated workload, and the bytes allocated are counted between two arrivals well into the run (after everything has warmed up)
+ * (The processes are streamed in because the classic jobs are all done within a few dozen events, long before anything is warm)
+ * Every memory algorithm is checked on its own, with each CPU scheduler, with several cores, and on the discrete-event engine (with each event queue)
+ *
+ * Usage (with src and bench compiled into the same output directory):
+ *   java -cp bin:lib/* AllocationCheck [FILTER]
+ *
+ * It exits with a 1 if any run allocated in its steady state, so it can be used as a check
+ * (Allocating something on every event would be at least 16 bytes an event, so a run passes if it allocated less than a tenth of a byte an event:
+ *  what's left is only a store growing to a new high-water mark of live processes, like a new process or a page table of a new size, which gets rarer the longer the run goes)
+ */
+public class AllocationCheck {
+	// Declare final variables (constants)
+	private static final String[] MEMORY_ALGORITHMS = {"Best", "Worst", "First", "Next", "Buddy", "Paged"};
+	private static final String[] SCHEDULERS = {"RR", "SJF", "SRTF", "Priority", "MLFQ"};
+	private static final String[] EVENT_QUEUES = {"Heap", "Calendar"};
+	private static final int CORE_COUNT = 4;
+	private static final long WARMUP_JOBS = 50000; // The number of jobs to let arrive before counting
+	private static final long MEASURED_JOBS = 20000; // The number of jobs to count the allocations over
+	private static final long TOTAL_JOBS = WARMUP_JOBS + MEASURED_JOBS + 10000; // (With some left over, so the system's still busy when the counting stops)
+	private static final double MAX_BYTES_PER_EVENT = 0.1;
+	private static final long SEED = 1;
+
+	// Class wide objects
+	private static com.sun.management.ThreadMXBean threads;
+	private static long counterOverhead; // The bytes that reading the counter allocates itself
+	private static String filter;
+
+	// Private function to get the number of bytes the current thread has allocated
+	private static long allocatedBytes() {
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	// Private function to create a simulation context for one run (a null scheduler or queue for none, one core for a single CPU)
+	private static SimulationContext createContext(String memoryAlgorithm, String scheduler, int coreCount, String queueType) {
+		SimulationContext context = new SimulationContext(SEED, new MemoryManager(memoryAlgorithm));
+		context.setQuiet(true);
+
+		if (queueType != null) {
+			context.setDiscreteEngine(new DiscreteEventEngine(context, queueType));
+		}
+		if (scheduler != null) {
+			context.setScheduler(CpuScheduler.create(scheduler, context));
+		}
+		if (coreCount > 1) {
+			context.setCores(new CpuCores(coreCount));
+		}
+
+		return context;
+	}
+
+	// Private function to run one simulation and report what it allocated per event in its steady state (returns false if it allocated as it went)
+	private static boolean check(String name, SimulationContext context) {
+		if (filter != null && name.contains(filter) != true) {
+			return true;
+		}
+
+		MeasuredWorkload workload = new MeasuredWorkload(TOTAL_JOBS, WARMUP_JOBS, MEASURED_JOBS, threads);
+		context.setWorkload(workload);
+
+		Simulation.simulate(context);
+
+		// If the run stopped before the last measured job arrived, there's nothing to go on
+		if (workload.isMeasured() != true || workload.getEventCount() <= 0) {
+			System.out.format("%-32s%14s%16s  %s\r\n", name, "-", "-", "FAILED (stopped before the measured jobs arrived)");
+			return false;
+		}
+
+		// Reading the counter may allocate a little itself, so that isn't counted against the loop
+		long bytes = Math.max(0, workload.getAllocatedBytes() - counterOverhead);
+		double bytesPerEvent = (double) bytes / workload.getEventCount();
+		boolean passed = (bytesPerEvent < MAX_BYTES_PER_EVENT);
+
+		System.out.format("%-32s%14d%16.3f  %s\r\n", name, workload.getEventCount(), bytesPerEvent, passed ? "OK" : "FAILED (" + bytes + " bytes)");
+
+		return passed;
+	}
+
+	// Main function
+	public static void main(String[] args) {
+		if (args.length > 0) {
+			filter = args[0];
+		}
+
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		// Let's find out what reading the counter allocates on its own (once it's warmed up), so it isn't counted against the loop
+		for (int i = 0; i < 10000; i++) {
+			allocatedBytes();
+		}
+
+		long beforeBytes = allocatedBytes();
+		counterOverhead = allocatedBytes() - beforeBytes;
+
+		List<String> failures = Lists.newArrayList();
+
+		System.out.format("%-32s%14s%16s  %s\r\n", "Run", "Events", "Bytes/Event", "Result");
+
+		for (String memoryAlgorithm : MEMORY_ALGORITHMS) {
+			// Let's build every run for the algorithm: on its own, with each scheduler, with several cores, and on each event queue
+			List<String> names = Lists.newArrayList();
+			List<SimulationContext> contexts = Lists.newArrayList();
+
+			names.add(memoryAlgorithm);
+			contexts.add(createContext(memoryAlgorithm, null, 1, null));
+
+			for (String scheduler : SCHEDULERS) {
+				names.add(memoryAlgorithm + "/" + scheduler);
+				contexts.add(createContext(memoryAlgorithm, scheduler, 1, null));
+			}
+
+			names.add(memoryAlgorithm + "/" + CORE_COUNT + "-core");
+			contexts.add(createContext(memoryAlgorithm, null, CORE_COUNT, null));
+
+			for (String queueType : EVENT_QUEUES) {
+				names.add(memoryAlgorithm + "/Discrete-" + queueType);
+				contexts.add(createContext(memoryAlgorithm, null, 1, queueType));
+			}
+
+			for (int i = 0; i < names.size(); i++) {
+				if (check(names.get(i), contexts.get(i)) != true) {
+					failures.add(names.get(i));
+				}
+			}
+		}
+
+		if (failures.isEmpty() != true) {
+			System.out.println(failures.size() + " runs allocated in their steady state: " + failures);
+			System.exit(1);
+		}
+
+		System.out.println("No run allocated in its steady state");
+	}
+}
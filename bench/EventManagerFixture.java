@@ -0,0 +1,39 @@
+// External imports
+import benchmark.StateFixture;
+
+/*
+ * Event Manager Fixture class
+ * The event manager the event manager benchmark moves processes around and searches in, with a given number of processes in the Hold state
+ */
+public class EventManagerFixture implements StateFixture {
+	// Declare final variables (constants)
+	private static final Event OUT_EVENT = new Event("Hold", "Suspend_User"); // Neither state has a limit, so the moves never fail
+	private static final Event BACK_EVENT = new Event("Suspend_User", "Hold");
+
+	// Declare properties
+	private EventManager states;
+
+	// Public function to fill the Hold state with processes (of a spread of sizes, like the simulation's)
+	public void setUp(int processCount) {
+		this.states = new EventManager();
+
+		for (int id = 0; id < processCount; id++) {
+			this.states.addProcess(new Process(id, 256 + ((id * 7) % 13) * 64, 3, 0, -1), ProcessState.HOLD);
+		}
+	}
+
+	// Public function to move the first process out of Hold
+	public boolean moveOut() {
+		return this.states.changeProcessState(OUT_EVENT);
+	}
+
+	// Public function to move the process back into Hold, at the back of it
+	public boolean moveBack() {
+		return this.states.changeProcessState(BACK_EVENT);
+	}
+
+	// Public function to find the largest process in Hold
+	public Object getLargestProcess() {
+		return this.states.getLargestProcess("Hold");
+	}
+}
@@ -0,0 +1,61 @@
+// Imports (libraries and utilities)
+import java.util.Random;
+
+// External imports
+import benchmark.QueueFixture;
+
+/*
+ * Event Queue Fixture class
+ * The event queue the event queue benchmark holds events in, with a given number of events pending
+ * Each hold takes the earliest event out, and schedules it again a random (exponentially distributed) time later
+ */
+public class EventQueueFixture implements QueueFixture {
+	// Declare final variables (constants)
+	private static final int GAP_COUNT = 4096; // The number of random gaps worked out ahead of time (so the random numbers aren't part of the measurement)
+	private static final double MEAN_GAP = 100;
+
+	// Declare properties
+	private EventQueue queue;
+	private long[] gaps;
+	private int nextGap;
+	private long nextSequence;
+
+	// Public function to fill the given kind of event queue with the given number of pending events
+	public void setUp(String queueType, int pendingCount) {
+		Random random = new Random(1);
+
+		this.gaps = new long[GAP_COUNT];
+		for (int i = 0; i < GAP_COUNT; i++) {
+			this.gaps[i] = (long) Math.ceil(-MEAN_GAP * Math.log(1.0 - random.nextDouble()));
+		}
+
+		this.queue = ("Calendar".equals(queueType)) ? new CalendarEventQueue() : new HeapEventQueue();
+
+		for (int i = 0; i < pendingCount; i++) {
+			ScheduledEvent event = new ScheduledEvent();
+			event.time = this.nextGap();
+			event.sequence = this.nextSequence++;
+
+			this.queue.add(event);
+		}
+	}
+
+	// Private function to get the next of the random gaps
+	private long nextGap() {
+		long gap = this.gaps[this.nextGap];
+		this.nextGap = (this.nextGap + 1) & (GAP_COUNT - 1);
+
+		return gap;
+	}
+
+	// Public function to take the earliest event out, and schedule it again
+	public long hold() {
+		ScheduledEvent event = this.queue.poll();
+
+		event.time += this.nextGap();
+		event.sequence = this.nextSequence++;
+		this.queue.add(event);
+
+		return event.time;
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Measured Workload class
+ * A generated workload that reads the current thread's allocated bytes (and the number of generated events) as the first and last of its measured jobs arrive
+ * It's read from inside the simulation loop, so only what the loop allocates between those two arrivals is counted
+ */
+class MeasuredWorkload implements WorkloadSource {
+	// Declare properties
+	private GeneratedWorkload workload;
+	private com.sun.management.ThreadMXBean threads;
+	private long warmupJobs; // The number of jobs to let arrive before counting
+	private long measuredJobs; // The number of jobs to count over
+	private long startBytes = -1;
+	private long endBytes = -1;
+	private int startEvents;
+	private int endEvents;
+
+	// Constructor
+	public MeasuredWorkload(long processCount, long warmupJobs, long measuredJobs, com.sun.management.ThreadMXBean threads) {
+		// Every job arrives at the start, so the system stays as busy as it can be
+		this.workload = new GeneratedWorkload(processCount, WorkloadDistribution.UNIFORM, 0);
+
+		// Set the properties
+		this.warmupJobs = warmupJobs;
+		this.measuredJobs = measuredJobs;
+		this.threads = threads;
+	}
+
+	// Public function to check if the workload has another process
+	public boolean hasNext() {
+		return this.workload.hasNext();
+	}
+
+	// Public function to get the time the next process arrives
+	public long peekArrivalTime() {
+		return this.workload.peekArrivalTime();
+	}
+
+	// Public function to create the next process, reading the counters if it's the first or last of the measured jobs
+	public Process nextProcess(SimulationContext context) {
+		long createdCount = this.workload.getCreatedCount();
+
+		if (createdCount == this.warmupJobs) {
+			this.startEvents = context.getGeneratedEventCount();
+			this.startBytes = this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		else if (createdCount == this.warmupJobs + this.measuredJobs) {
+			this.endBytes = this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			this.endEvents = context.getGeneratedEventCount();
+		}
+
+		return this.workload.nextProcess(context);
+	}
+
+	// Public function to get the number of processes the workload has created
+	public long getCreatedCount() {
+		return this.workload.getCreatedCount();
+	}
+
+	// Public function to let go of anything the workload has open
+	public void close() {
+		this.workload.close();
+	}
+
+	// Public function to describe the workload
+	public String getDescription() {
+		return this.workload.getDescription();
+	}
+
+	// Public function to check if both counters were read (the run may have stopped before the last measured job arrived)
+	public boolean isMeasured() {
+		return this.startBytes != -1 && this.endBytes != -1;
+	}
+
+	// Public function to get the bytes allocated between the first and last measured jobs
+	public long getAllocatedBytes() {
+		return this.endBytes - this.startBytes;
+	}
+
+	// Public function to get the number of events generated between the first and last measured jobs
+	public int getEventCount() {
+		return this.endEvents - this.startEvents;
+	}
+}
@@ -0,0 +1,62 @@
+// External imports
+import benchmark.MemoryFixture;
+
+/*
+ * Memory Manager Fixture class
+ * The memory manager the memory manager benchmark adds a process to and removes it from, for one memory algorithm and backend,
+ * with the memory filled to a given level by a given number of equal blocks (the empty ones left scattered between the full ones)
+ */
+public class MemoryManagerFixture implements MemoryFixture {
+	// Declare properties
+	private MemoryManager memory;
+	private Process process; // The process being added and removed
+
+	// Public function to fill the memory, for the given memory algorithm (with its backend after a "/", if it uses one), fill level and number of blocks
+	public void setUp(String memory, int fillPercent, int blockCount) {
+		// (The memory manager compares algorithm names by identity, so they have to be interned, like the ones from the command line)
+		String[] algorithmAndBackend = memory.split("/");
+		String memoryBackend = (algorithmAndBackend.length > 1) ? algorithmAndBackend[1] : "List";
+
+		this.memory = new MemoryManager(algorithmAndBackend[0].intern(), memoryBackend.intern());
+
+		// Let's fill the memory right up with blocks
+		int blockSize = Simulation.MAX_MEMORY / blockCount;
+		Process[] blocks = new Process[blockCount];
+
+		for (int id = 0; id < blockCount; id++) {
+			blocks[id] = new Process(id, blockSize, 3, 0, -1);
+
+			if (this.memory.addProcess(blocks[id]) != true) {
+				throw new IllegalStateException("Couldn't fill the memory for " + memory + " with " + blockCount + " blocks");
+			}
+		}
+
+		// Then empty every other block (and then every other one of the rest, and so on) until it's only as full as we want
+		int usedBlocks = blockCount;
+
+		for (int step = 2; step <= blockCount && (usedBlocks * 100) > (fillPercent * blockCount); step *= 2) {
+			for (int id = (step / 2) - 1; id < blockCount && (usedBlocks * 100) > (fillPercent * blockCount); id += step) {
+				if (this.memory.removeProcess(blocks[id])) {
+					usedBlocks--;
+				}
+			}
+		}
+
+		// The process being added and removed fits in exactly one of the empty blocks
+		this.process = new Process(blockCount, blockSize, 3, 0, -1);
+
+		if (this.memory.addProcess(this.process) != true || this.memory.removeProcess(this.process) != true) {
+			throw new IllegalStateException("The process doesn't fit for " + memory + " with " + blockCount + " blocks");
+		}
+	}
+
+	// Public function to add the process to memory
+	public boolean addProcess() {
+		return this.memory.addProcess(this.process);
+	}
+
+	// Public function to remove the process from memory
+	public boolean removeProcess() {
+		return this.memory.removeProcess(this.process);
+	}
+}
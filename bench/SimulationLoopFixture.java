@@ -0,0 +1,34 @@
+// External imports
+import benchmark.LoopFixture;
+
+/*
+ * Simulation Loop Fixture class
+ * The whole, quiet simulation (with every bit of output turned off) the simulation benchmark runs, for one memory algorithm
+ * Each simulation is on the next of a fixed sequence of seeds, so every fork runs the same simulations
+ */
+public class SimulationLoopFixture implements LoopFixture {
+	// Declare properties
+	private String memoryAlgorithm;
+	private long nextSeed;
+	private SimulationContext context;
+
+	// Public function to set the memory algorithm, and start the seeds over
+	public void setUp(String memoryAlgorithm) {
+		// (The memory manager compares algorithm names by identity, so it has to be interned, like the ones from the command line)
+		this.memoryAlgorithm = memoryAlgorithm.intern();
+		this.nextSeed = 1;
+	}
+
+	// Public function to create a fresh, quiet simulation, on the next seed
+	public void createSimulation() {
+		this.context = new SimulationContext(this.nextSeed++, new MemoryManager(this.memoryAlgorithm));
+		this.context.setQuiet(true);
+	}
+
+	// Public function to run the simulation to the end, returning the number of events it generated
+	public int simulate() {
+		Simulation.simulate(this.context);
+
+		return this.context.getGeneratedEventCount();
+	}
+}
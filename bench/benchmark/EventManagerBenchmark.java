@@ -0,0 +1,47 @@
+package benchmark;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Event Manager Benchmark class
+ * Measures the event manager with more and more processes in a state:
+ *  - "changeProcessState": moving the first process out of the state and back in again (to the back of it)
+ *  - "getLargestProcess": finding the largest process in the state
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class EventManagerBenchmark {
+	@Param({"16", "256", "4096"})
+	public int processCount;
+
+	private StateFixture fixture;
+
+	// Public function to fill the state with processes (once per trial)
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.fixture = Fixtures.create("EventManagerFixture", StateFixture.class);
+		this.fixture.setUp(this.processCount);
+	}
+
+	// Public function to move the first process out of the state and back in again
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public void changeProcessState(Blackhole blackhole) {
+		blackhole.consume(this.fixture.moveOut());
+		blackhole.consume(this.fixture.moveBack());
+	}
+
+	// Public function to find the largest process in the state
+	@Benchmark
+	public Object getLargestProcess() {
+		return this.fixture.getLargestProcess();
+	}
+}
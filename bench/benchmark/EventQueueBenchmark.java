@@ -0,0 +1,40 @@
+package benchmark;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Event Queue Benchmark class
+ * Measures an event queue with more and more events pending, using the classic "hold" model:
+ * each invocation takes the earliest event out, and schedules it again a random (exponentially distributed) time later
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class EventQueueBenchmark {
+	@Param({"Heap", "Calendar"})
+	public String queueType;
+
+	@Param({"1024", "65536", "1048576"})
+	public int pendingCount;
+
+	private QueueFixture fixture;
+
+	// Public function to fill the queue with its pending events (once per trial)
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.fixture = Fixtures.create("EventQueueFixture", QueueFixture.class);
+		this.fixture.setUp(this.queueType, this.pendingCount);
+	}
+
+	// Public function to take the earliest event out, and schedule it again
+	@Benchmark
+	public long hold() {
+		return this.fixture.hold();
+	}
+}
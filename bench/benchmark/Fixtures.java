@@ -0,0 +1,27 @@
+package benchmark;
+
+/*
+ * Fixtures class
+ * JMH won't generate benchmarks for classes in the default package, and a class in a package can't name the simulation's classes (which are all in the default package),
+ * so each benchmark works through a small fixture interface, implemented by a class in the default package (next to the simulation's), and created here by its name
+ * The fixture is only created and set up in a @Setup method, so the look-up is never part of what's measured, and its calls are simple enough for the JIT to inline
+ *
+ * Usage (with src and bench compiled into the same output directory, with lib/* on the class path so javac runs JMH's annotation processor):
+ *   javac -cp "lib/*" -d bin src/*.java bench/*.java bench/benchmark/*.java
+ *   java -cp "bin:lib/*" org.openjdk.jmh.Main [REGEX] [JMH OPTIONS]
+ */
+final class Fixtures {
+	// Constructor (nothing to construct)
+	private Fixtures() {
+	}
+
+	// Static function to create the fixture with the given class name, as the given fixture interface
+	static <T> T create(String className, Class<T> type) {
+		try {
+			return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+		}
+		catch (ReflectiveOperationException exception) {
+			throw new IllegalStateException("Couldn't create the benchmark fixture " + className, exception);
+		}
+	}
+}
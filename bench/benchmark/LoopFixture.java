@@ -0,0 +1,16 @@
+package benchmark;
+
+/*
+ * Loop Fixture interface
+ * One whole, quiet simulation, for a given memory algorithm
+ */
+public interface LoopFixture {
+	// Public function to set the memory algorithm, and start the seeds over
+	public void setUp(String memoryAlgorithm);
+
+	// Public function to create a fresh simulation, on the next of a fixed sequence of seeds
+	public void createSimulation();
+
+	// Public function to run the simulation to the end, returning the number of events it generated
+	public int simulate();
+}
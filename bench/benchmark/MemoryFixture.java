@@ -0,0 +1,16 @@
+package benchmark;
+
+/*
+ * Memory Fixture interface
+ * A memory manager filled to a given level by blocks of one size, with a process (of the same size) to add and remove
+ */
+public interface MemoryFixture {
+	// Public function to fill the memory, for the given memory algorithm (with its backend after a "/", if it uses one), fill level and number of blocks
+	public void setUp(String memory, int fillPercent, int blockCount);
+
+	// Public function to add the process to memory (returns true if it was added)
+	public boolean addProcess();
+
+	// Public function to remove the process from memory (returns true if it was removed)
+	public boolean removeProcess();
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Memory Manager Benchmark class
+ * Measures adding a process to memory and removing it again, for every memory algorithm (and every backend, where the algorithm uses one),
+ * with the memory filled to a given level by a given number of equal blocks (the empty ones left scattered between the full ones)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class MemoryManagerBenchmark {
+	// The memory algorithm, with its backend after a "/" (the buddy system and paging don't use one)
+	@Param({"Best/List", "Best/Array", "Best/Tree", "Best/Bitmap", "Worst/List", "Worst/Array", "Worst/Tree", "Worst/Bitmap",
+		"First/List", "First/Array", "First/Tree", "First/Bitmap", "Next/List", "Next/Array", "Next/Tree", "Next/Bitmap", "Buddy", "Paged"})
+	public String memory;
+
+	// How full the memory is (roughly, since it's filled a whole block at a time)
+	@Param({"25", "50", "75"})
+	public int fillPercent;
+
+	// The number of blocks the memory is split into (many small ones, or a few larger ones)
+	@Param({"32", "8"})
+	public int blockCount;
+
+	private MemoryFixture fixture;
+
+	// Public function to fill the memory (once per trial)
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.fixture = Fixtures.create("MemoryManagerFixture", MemoryFixture.class);
+		this.fixture.setUp(this.memory, this.fillPercent, this.blockCount);
+	}
+
+	// Public function to add the process to memory and remove it again
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public void addRemove(Blackhole blackhole) {
+		blackhole.consume(this.fixture.addProcess());
+		blackhole.consume(this.fixture.removeProcess());
+	}
+}
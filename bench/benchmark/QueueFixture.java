@@ -0,0 +1,13 @@
+package benchmark;
+
+/*
+ * Queue Fixture interface
+ * An event queue with a given number of events pending
+ */
+public interface QueueFixture {
+	// Public function to fill the given kind of event queue with the given number of pending events
+	public void setUp(String queueType, int pendingCount);
+
+	// Public function to take the earliest event out, and schedule it again a random time later (returns its new time)
+	public long hold();
+}
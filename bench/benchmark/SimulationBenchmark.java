@@ -0,0 +1,44 @@
+package benchmark;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Simulation Benchmark class
+ * Measures the whole, quiet simulation loop (Simulation.startSystem) for every memory algorithm, as the average time of one whole run
+ * Each invocation is a whole run, on the next of a fixed sequence of seeds (so every fork measures the same runs),
+ * and its simulation is created before the invocation, so only the loop is measured (a run is long enough that the per-invocation set-up doesn't skew it)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class SimulationBenchmark {
+	@Param({"Best", "Worst", "First", "Next", "Buddy", "Paged"})
+	public String memoryAlgorithm;
+
+	private LoopFixture fixture;
+
+	// Public function to set the memory algorithm, and start the seeds over (once per trial)
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.fixture = Fixtures.create("SimulationLoopFixture", LoopFixture.class);
+		this.fixture.setUp(this.memoryAlgorithm);
+	}
+
+	// Public function to create the next run's simulation (before every invocation, outside of the measurement)
+	@Setup(Level.Invocation)
+	public void createSimulation() {
+		this.fixture.createSimulation();
+	}
+
+	// Public function to run one whole simulation, returning the number of events it generated
+	@Benchmark
+	public int startSystem() {
+		return this.fixture.simulate();
+	}
+}
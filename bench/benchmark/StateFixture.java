@@ -0,0 +1,19 @@
+package benchmark;
+
+/*
+ * State Fixture interface
+ * An event manager with a given number of processes in the Hold state
+ */
+public interface StateFixture {
+	// Public function to fill the Hold state with the given number of processes
+	public void setUp(int processCount);
+
+	// Public function to move the first process out of Hold (returns true if it was moved)
+	public boolean moveOut();
+
+	// Public function to move the process back into Hold, at the back of it (returns true if it was moved)
+	public boolean moveBack();
+
+	// Public function to find the largest process in Hold
+	public Object getLargestProcess();
+}
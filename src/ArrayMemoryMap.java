@@ -0,0 +1,444 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Array Memory Map class
+ * A struct-of-arrays memory map: each block is a "slot" whose start, size and owner process id live in primitive int arrays
+ * The slots are doubly linked in address order, so splitting and merging blocks never shifts anything around
+ * Its block handles are the slot numbers
+ */
+class ArrayMemoryMap implements MemoryMap {
+	// Declare final variables (constants)
+	private static final int NONE = -1; // The "null" slot reference, and the owner of an empty block
+	private static final int INITIAL_CAPACITY = 16; // The initial number of slots to allocate room for
+
+	// Declare properties
+	private int[] blockStart;
+	private int[] blockSize;
+	private int[] blockOwner; // The id of the process that owns the block (NONE for empty blocks)
+	private int[] previousSlot;
+	private int[] nextSlot;
+	private int headSlot; // The slot of the lowest addressed block
+	private int roverSlot; // The "next fit" roving pointer: the slot right after the last allocation
+	private int freeSlot; // The head of the list of reusable slots (linked through the "nextSlot" array)
+	private int slotCount; // The number of slots that have ever been used
+	private int freeMemory; // The total amount of empty memory
+	private int[] slotsById; // The slot each process id occupies
+	private Process[] processesById; // The processes in memory, by id (only used to build the array list view)
+	private FreeBlockIndex freeBlocks; // The empty blocks, indexed by size and address
+	private ArrayList<Process> memoryView; // The lazily built array list view
+	private boolean memoryViewStale;
+	private long nextFitProbes; // The number of slots looked at by next fit (the index counts the other fits)
+	private long merges;
+
+	// Constructor
+	public ArrayMemoryMap(int memorySize) {
+		// Let's allocate our initial arrays
+		this.blockStart = new int[INITIAL_CAPACITY];
+		this.blockSize = new int[INITIAL_CAPACITY];
+		this.blockOwner = new int[INITIAL_CAPACITY];
+		this.previousSlot = new int[INITIAL_CAPACITY];
+		this.nextSlot = new int[INITIAL_CAPACITY];
+		this.slotsById = new int[INITIAL_CAPACITY];
+		this.processesById = new Process[INITIAL_CAPACITY];
+		this.freeBlocks = new FreeBlockIndex();
+		this.freeSlot = NONE;
+
+		// Let's start out with one completely empty block
+		this.headSlot = this.createSlot(0, memorySize, NONE);
+		this.freeBlocks.insert(memorySize, 0, this.headSlot);
+		this.roverSlot = this.headSlot;
+		this.freeMemory = memorySize;
+
+		this.memoryViewStale = true;
+	}
+
+	// Public function to get the slot of the smallest empty block the given size fits into
+	public int findBestFit(int size) {
+		return this.freeBlocks.findBest(size);
+	}
+
+	// Public function to get the slot of the largest empty block, if the given size fits into it
+	public int findWorstFit(int size) {
+		return this.freeBlocks.findWorst(size);
+	}
+
+	// Public function to get the slot of the lowest addressed empty block the given size fits into
+	public int findFirstFit(int size) {
+		return this.freeBlocks.findFirst(size);
+	}
+
+	// Public function to get the slot of the next empty block the given size fits into, starting from the roving pointer
+	public int findNextFit(int size) {
+		int slot = this.roverSlot;
+
+		// Let's walk forward through every slot once, wrapping around at the end
+		do {
+			this.nextFitProbes++;
+
+			// If we find an empty block AND the block is large enough for the given size
+			if (this.blockOwner[slot] == NONE && this.blockSize[slot] >= size) {
+				return slot;
+			}
+
+			slot = this.nextSlot[slot];
+
+			if (slot == NONE) {
+				slot = this.headSlot;
+			}
+		} while (slot != this.roverSlot);
+
+		// Ok, for a "hey we didn't find one" scenario, let's return a -1
+		return -1;
+	}
+
+	// Public function to place a process at the start of the given empty slot
+	public boolean allocate(int slot, Process process) {
+		// Make sure we were given an empty block that's large enough
+		if (slot < 0 || this.blockOwner[slot] != NONE || this.blockSize[slot] < process.getSize()) {
+			return false;
+		}
+
+		// The empty block is about to change, so let's take it out of the index
+		int address = this.blockStart[slot];
+		this.freeBlocks.remove(this.blockSize[slot], address);
+
+		// If the process fills the whole block, the process can just take the slot over
+		int processSlot = slot;
+
+		if (process.getSize() < this.blockSize[slot]) {
+			// Otherwise, let's make a new slot for the process right in front of the empty block
+			processSlot = this.createSlot(address, process.getSize(), NONE);
+			this.linkBefore(processSlot, slot);
+
+			// And shrink the empty block, which now starts right after the process
+			this.blockStart[slot] += process.getSize();
+			this.blockSize[slot] -= process.getSize();
+			this.freeBlocks.insert(this.blockSize[slot], this.blockStart[slot], slot);
+		}
+
+		// Let's move the roving pointer to the block right after the process
+		this.roverSlot = this.nextSlot[processSlot];
+
+		if (this.roverSlot == NONE) {
+			this.roverSlot = this.headSlot;
+		}
+
+		// Let's mark the slot as owned by the process
+		this.freeMemory -= process.getSize();
+		this.blockOwner[processSlot] = process.getId();
+		this.setProcessSlot(process, processSlot);
+		process.setAddress(address);
+
+		this.memoryViewStale = true;
+
+		return true;
+	}
+
+	// Public function to free a process's block
+	public boolean free(Process process) {
+		// Let's find the process's slot, and make sure it's really the process's
+		int slot = this.getProcessSlot(process);
+
+		if (slot == NONE || this.blockOwner[slot] != process.getId() || this.blockStart[slot] != process.getAddress()) {
+			return false;
+		}
+
+		// Let's mark the block as empty
+		this.freeMemory += process.getSize();
+		this.blockOwner[slot] = NONE;
+		this.slotsById[process.getId()] = NONE;
+		this.processesById[process.getId()] = null;
+		process.setAddress(-1);
+
+		// Now let's merge it with its right neighbor, if that's empty too
+		int neighbor = this.nextSlot[slot];
+
+		if (neighbor != NONE && this.blockOwner[neighbor] == NONE) {
+			this.freeBlocks.remove(this.blockSize[neighbor], this.blockStart[neighbor]);
+			this.blockSize[slot] += this.blockSize[neighbor];
+			this.releaseSlot(neighbor);
+			this.merges++;
+		}
+
+		// And merge it into its left neighbor, if that's empty too
+		neighbor = this.previousSlot[slot];
+
+		if (neighbor != NONE && this.blockOwner[neighbor] == NONE) {
+			this.freeBlocks.remove(this.blockSize[neighbor], this.blockStart[neighbor]);
+			this.blockSize[neighbor] += this.blockSize[slot];
+			this.releaseSlot(slot);
+			this.merges++;
+			slot = neighbor;
+		}
+
+		// Finally, let's put the (possibly merged) empty block in the index
+		this.freeBlocks.insert(this.blockSize[slot], this.blockStart[slot], slot);
+
+		this.memoryViewStale = true;
+
+		return true;
+	}
+
+	// Public function to slide every process down to the lowest addresses, leaving a single empty block at the end
+	public int compact() {
+		// Let's keep track of how much memory has to be copied
+		int movedMemory = 0;
+		int address = 0;
+		int lastSlot = NONE;
+		int slot = this.headSlot;
+
+		// Let's walk through the slots, dropping the empty ones and packing the rest together
+		while (slot != NONE) {
+			int next = this.nextSlot[slot];
+
+			if (this.blockOwner[slot] == NONE) {
+				this.releaseSlot(slot);
+			}
+			else {
+				// If the process has to move, its memory has to be copied
+				if (this.blockStart[slot] != address) {
+					movedMemory += this.blockSize[slot];
+					this.blockStart[slot] = address;
+					this.processesById[this.blockOwner[slot]].setAddress(address);
+				}
+
+				address += this.blockSize[slot];
+				lastSlot = slot;
+			}
+
+			slot = next;
+		}
+
+		// Now, all of the empty memory becomes one block at the end
+		this.freeBlocks.clear();
+		this.roverSlot = this.headSlot;
+
+		if (this.freeMemory > 0) {
+			int emptySlot = this.createSlot(address, this.freeMemory, NONE);
+
+			// Let's link it in after the last process
+			if (lastSlot == NONE) {
+				this.headSlot = emptySlot;
+			}
+			else {
+				this.nextSlot[lastSlot] = emptySlot;
+				this.previousSlot[emptySlot] = lastSlot;
+			}
+
+			this.freeBlocks.insert(this.freeMemory, address, emptySlot);
+
+			// The next allocation should start at the one empty block
+			this.roverSlot = emptySlot;
+		}
+
+		this.memoryViewStale = true;
+
+		return movedMemory;
+	}
+
+	// Public function to get the total amount of empty memory
+	public int getFreeMemory() {
+		return this.freeMemory;
+	}
+
+	// Public function to get the size of the largest empty block
+	public int getLargestFreeBlock() {
+		return this.freeBlocks.getLargestSize();
+	}
+
+	// Public function to get the number of empty blocks
+	public int getFreeBlockCount() {
+		return this.freeBlocks.size();
+	}
+
+	// Public function to get the total number of slots (and index nodes) the find functions have looked at
+	public long getProbeCount() {
+		return this.freeBlocks.getProbeCount() + this.nextFitProbes;
+	}
+
+	// Public function to get the total number of empty block merges
+	public long getMergeCount() {
+		return this.merges;
+	}
+
+	// Public function to get the internal fragmentation (variable partitions are always exactly the size of their process)
+	public int getInternalFragmentation() {
+		return 0;
+	}
+
+	// Public function to get an array list representation of the memory blocks, built only when the memory has changed
+	public ArrayList<Process> getMemoryArrayList() {
+		if (this.memoryViewStale) {
+			this.memoryView = Lists.newArrayList();
+
+			// Let's walk through the slots in address order
+			for (int slot = this.headSlot; slot != NONE; slot = this.nextSlot[slot]) {
+				if (this.blockOwner[slot] == NONE) {
+					// Empty blocks are shown as dead processes
+					Process deadProcess = new Process(this.blockSize[slot], true);
+					deadProcess.setAddress(this.blockStart[slot]);
+
+					this.memoryView.add(deadProcess);
+				}
+				else {
+					this.memoryView.add(this.processesById[this.blockOwner[slot]]);
+				}
+			}
+
+			this.memoryViewStale = false;
+		}
+
+		return this.memoryView;
+	}
+
+	// Private function to get the slot a process occupies
+	private int getProcessSlot(Process process) {
+		if (process.getId() < 0 || process.getId() >= this.slotsById.length || this.processesById[process.getId()] != process) {
+			return NONE;
+		}
+
+		return this.slotsById[process.getId()];
+	}
+
+	// Private function to remember the slot a process occupies
+	private void setProcessSlot(Process process, int slot) {
+		// Make sure our id tables are large enough for the process id
+		if (process.getId() >= this.slotsById.length) {
+			int capacity = Math.max(process.getId() + 1, this.slotsById.length * 2);
+
+			this.slotsById = Arrays.copyOf(this.slotsById, capacity);
+			this.processesById = Arrays.copyOf(this.processesById, capacity);
+		}
+
+		this.slotsById[process.getId()] = slot;
+		this.processesById[process.getId()] = process;
+	}
+
+	// Private function to get a fresh, unlinked slot
+	private int createSlot(int start, int size, int owner) {
+		int slot;
+
+		// Let's reuse a released slot if we have one
+		if (this.freeSlot != NONE) {
+			slot = this.freeSlot;
+			this.freeSlot = this.nextSlot[slot];
+		}
+		else {
+			// Make sure we have room for another slot
+			if (this.slotCount == this.blockStart.length) {
+				this.grow();
+			}
+
+			slot = this.slotCount++;
+		}
+
+		this.blockStart[slot] = start;
+		this.blockSize[slot] = size;
+		this.blockOwner[slot] = owner;
+		this.previousSlot[slot] = NONE;
+		this.nextSlot[slot] = NONE;
+
+		return slot;
+	}
+
+	// Private function to link a new slot in front of an existing one
+	private void linkBefore(int slot, int existingSlot) {
+		int previous = this.previousSlot[existingSlot];
+
+		this.previousSlot[slot] = previous;
+		this.nextSlot[slot] = existingSlot;
+		this.previousSlot[existingSlot] = slot;
+
+		if (previous == NONE) {
+			this.headSlot = slot;
+		}
+		else {
+			this.nextSlot[previous] = slot;
+		}
+	}
+
+	// Private function to unlink a slot and give it back for reuse
+	private void releaseSlot(int slot) {
+		int previous = this.previousSlot[slot];
+		int next = this.nextSlot[slot];
+
+		if (previous == NONE) {
+			this.headSlot = next;
+		}
+		else {
+			this.nextSlot[previous] = next;
+		}
+
+		if (next != NONE) {
+			this.previousSlot[next] = previous;
+		}
+
+		// If the roving pointer was on this slot, its block has been merged into the previous one, so let's follow it there
+		if (this.roverSlot == slot) {
+			this.roverSlot = (previous == NONE) ? this.headSlot : previous;
+		}
+
+		this.nextSlot[slot] = this.freeSlot;
+		this.freeSlot = slot;
+	}
+
+	// Private function to double the capacity of the slot arrays
+	private void grow() {
+		int capacity = this.blockStart.length * 2;
+
+		this.blockStart = Arrays.copyOf(this.blockStart, capacity);
+		this.blockSize = Arrays.copyOf(this.blockSize, capacity);
+		this.blockOwner = Arrays.copyOf(this.blockOwner, capacity);
+		this.previousSlot = Arrays.copyOf(this.previousSlot, capacity);
+		this.nextSlot = Arrays.copyOf(this.nextSlot, capacity);
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		Checkpoint.writeInts(out, this.blockStart);
+		Checkpoint.writeInts(out, this.blockSize);
+		Checkpoint.writeInts(out, this.blockOwner);
+		Checkpoint.writeInts(out, this.previousSlot);
+		Checkpoint.writeInts(out, this.nextSlot);
+		out.writeInt(this.headSlot);
+		out.writeInt(this.roverSlot);
+		out.writeInt(this.freeSlot);
+		out.writeInt(this.slotCount);
+		out.writeInt(this.freeMemory);
+		Checkpoint.writeInts(out, this.slotsById);
+		Checkpoint.writeProcesses(out, this.processesById);
+		this.freeBlocks.writeState(out);
+		out.writeLong(this.nextFitProbes);
+		out.writeLong(this.merges);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.blockStart = Checkpoint.readInts(in);
+		this.blockSize = Checkpoint.readInts(in);
+		this.blockOwner = Checkpoint.readInts(in);
+		this.previousSlot = Checkpoint.readInts(in);
+		this.nextSlot = Checkpoint.readInts(in);
+		this.headSlot = in.readInt();
+		this.roverSlot = in.readInt();
+		this.freeSlot = in.readInt();
+		this.slotCount = in.readInt();
+		this.freeMemory = in.readInt();
+		this.slotsById = Checkpoint.readInts(in);
+		this.processesById = Checkpoint.readProcesses(in, processesById);
+		this.freeBlocks.readState(in);
+		this.nextFitProbes = in.readLong();
+		this.merges = in.readLong();
+
+		// The array list view will have to be built again
+		this.memoryViewStale = true;
+	}
+}
@@ -0,0 +1,329 @@
+// Imports (libraries and utilities)
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Batch Simulation class
+ * Runs every memory algorithm (with each CPU scheduler, if it's been given any, on each number of cores) on a whole batch of seeds (a Monte Carlo run), splitting the seeds up across a fork/join pool
+ * Every seed in the batch is drawn, in order, from a single master seed, and each result is kept by its seed's position,
+ * so the same master seed always gives the same report, no matter how many threads ran it or what order they finished in
+ */
+class BatchSimulation {
+	// Declare final variables (constants)
+	private static final double CONFIDENCE_Z = 1.96; // The normal quantile for a 95% confidence interval
+
+	// Declare properties
+	private String[] memoryAlgorithms;
+	private String[] schedulers; // The CPU schedulers to run each memory algorithm with (null to run it without one)
+	private int[] coreCounts; // The numbers of cores to run each memory algorithm on
+	private long masterSeed;
+	private long[] seeds; // The seed of each run in the batch
+	private int[][] generatedEvents; // The number of events each run generated, by combination (number of cores, then scheduler, then algorithm) then seed
+	private boolean[][] completed; // Whether each run got every job "Done" before the maximum number of events, by combination then seed
+	private long[][] finishTimes; // The time on each run's clock when it stopped, by combination then seed
+	private double[][] throughputs; // The number of processes each run finished per 100 time units, by combination then seed
+	private double[][] turnarounds; // The average turnaround of each run's finished processes, by combination then seed
+	private double[][] waitingTimes; // The average time each run's finished processes spent waiting (their turnaround, less their CPU time), by combination then seed
+	private int[][] preemptions; // The number of times each run's running process was preempted, by combination then seed
+	private double[][] utilizations; // The share of each run's core time spent running a process, by combination then seed
+	private double[][] admissionStarvation; // The share of each run's core time spent idle waiting on memory to admit a process, by combination then seed
+	private int[][] steals; // The number of processes each run's idle cores stole, by combination then seed
+	private int threads;
+	private long elapsedTime; // How long the batch took to run (in milliseconds)
+
+	// Constructor
+	public BatchSimulation(String[] memoryAlgorithms, String[] schedulers, int[] coreCounts, int runs, long masterSeed) {
+		// Set the properties
+		this.memoryAlgorithms = memoryAlgorithms;
+		this.schedulers = schedulers;
+		this.coreCounts = coreCounts;
+		this.masterSeed = masterSeed;
+
+		// Every memory algorithm is run with every scheduler (or just once, if there aren't any), on every number of cores
+		int combinations = memoryAlgorithms.length * this.getSchedulerCount() * coreCounts.length;
+
+		this.generatedEvents = new int[combinations][runs];
+		this.completed = new boolean[combinations][runs];
+		this.finishTimes = new long[combinations][runs];
+		this.throughputs = new double[combinations][runs];
+		this.turnarounds = new double[combinations][runs];
+		this.waitingTimes = new double[combinations][runs];
+		this.preemptions = new int[combinations][runs];
+		this.utilizations = new double[combinations][runs];
+		this.admissionStarvation = new double[combinations][runs];
+		this.steals = new int[combinations][runs];
+
+		// Let's draw every run's seed from the master seed up front, so they never depend on which thread gets to them first
+		Random random = new Random(masterSeed);
+		this.seeds = new long[runs];
+
+		for (int i = 0; i < runs; i++) {
+			this.seeds[i] = random.nextLong();
+		}
+	}
+
+	// Public function to run the whole batch on the given number of threads
+	public void run(int threads) {
+		this.threads = threads;
+
+		long startTime = System.currentTimeMillis();
+
+		// Let's hand the whole range of seeds to the pool, and let it split them up
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		try {
+			pool.invoke(new BatchTask(this, 0, this.seeds.length));
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		this.elapsedTime = System.currentTimeMillis() - startTime;
+	}
+
+	// Public function to run every memory algorithm (with every scheduler, on every number of cores) on the seed at the given position in the batch
+	public void runSeed(int index) {
+		for (int i = 0; i < this.generatedEvents.length; i++) {
+			// Let's create a fresh, quiet simulation for the combination
+			SimulationContext context = Simulation.createContext(this.getMemoryAlgorithm(i), this.getScheduler(i), this.getCoreCount(i), this.seeds[index]);
+			context.setQuiet(true);
+
+			// Ok. Let's run it
+			Simulation.simulate(context);
+
+			// And keep how it went (each run has its own slot, so no two threads ever write to the same one)
+			this.generatedEvents[i][index] = context.getGeneratedEventCount();
+			this.completed[i][index] = context.isCompleted();
+			this.finishTimes[i][index] = context.getTime();
+
+			CpuScheduler scheduler = context.getScheduler();
+			if (scheduler != null) {
+				this.throughputs[i][index] = scheduler.getThroughput();
+				this.turnarounds[i][index] = scheduler.getMeanTurnaround();
+				this.waitingTimes[i][index] = scheduler.getMeanWaiting();
+				this.preemptions[i][index] = scheduler.getPreemptionCount();
+			}
+
+			CpuCores cores = context.getCores();
+			if (cores != null) {
+				this.utilizations[i][index] = cores.getUtilization();
+				this.admissionStarvation[i][index] = cores.getAdmissionStarvation();
+				this.steals[i][index] = cores.getStealCount();
+			}
+		}
+	}
+
+	// Private function to get the number of schedulers each memory algorithm is run with (1, if it's only run without one)
+	private int getSchedulerCount() {
+		if (this.schedulers == null) {
+			return 1;
+		}
+
+		return this.schedulers.length;
+	}
+
+	// Private function to get the memory algorithm of a combination
+	private String getMemoryAlgorithm(int combination) {
+		return this.memoryAlgorithms[combination % this.memoryAlgorithms.length];
+	}
+
+	// Private function to get the CPU scheduler of a combination (or null, if there aren't any)
+	private String getScheduler(int combination) {
+		if (this.schedulers == null) {
+			return null;
+		}
+
+		return this.schedulers[(combination / this.memoryAlgorithms.length) % this.schedulers.length];
+	}
+
+	// Private function to get the number of cores of a combination
+	private int getCoreCount(int combination) {
+		return this.coreCounts[combination / (this.memoryAlgorithms.length * this.getSchedulerCount())];
+	}
+
+	// Private function to check if any combination has more than one core
+	private boolean hasMultipleCores() {
+		for (int coreCount : this.coreCounts) {
+			if (coreCount > 1) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// Private function to get the name a combination is reported by (just the memory algorithm, if there aren't any schedulers or cores)
+	private String getCombinationName(int combination) {
+		String name = this.getMemoryAlgorithm(combination);
+
+		if (this.schedulers != null) {
+			name = this.getScheduler(combination) + "/" + name;
+		}
+		if (this.hasMultipleCores()) {
+			name = this.getCoreCount(combination) + "-core/" + name;
+		}
+
+		return name;
+	}
+
+	// Public function to get the number of runs in the batch
+	public int getRunCount() {
+		return this.seeds.length;
+	}
+
+	// Public function to get the seed of the run at the given position in the batch
+	public long getSeed(int index) {
+		return this.seeds[index];
+	}
+
+	// Public function to print out how each memory algorithm (with each scheduler, on each number of cores) did over the batch
+	public void printReport() {
+		// The scheduler, cores and algorithm names together may need a wider column
+		int nameWidth = 12;
+		for (int i = 0; i < this.generatedEvents.length; i++) {
+			nameWidth = Math.max(nameWidth, this.getCombinationName(i).length() + 2);
+		}
+		String nameColumn = "%-" + nameWidth + "s";
+
+		System.out.println("Batch of " + this.seeds.length + " seeds from master seed " + this.masterSeed + ", run on " + this.threads + " threads in " + this.elapsedTime + "ms");
+		System.out.format(nameColumn + "%-28s%-26s%-10s%-10s%-10s\r\n", "Algorithm", "Completed (95% CI)", "Events (95% CI)", "Median", "p95", "p99");
+
+		for (int i = 0; i < this.generatedEvents.length; i++) {
+			// Let's collect the number of events it took each completed run to finish
+			int[] finishedEvents = new int[this.seeds.length];
+			int completedRuns = 0;
+
+			for (int j = 0; j < this.seeds.length; j++) {
+				if (this.completed[i][j]) {
+					finishedEvents[completedRuns++] = this.generatedEvents[i][j];
+				}
+			}
+
+			finishedEvents = Arrays.copyOf(finishedEvents, completedRuns);
+			Arrays.sort(finishedEvents);
+
+			// Let's work out the completion rate, with its Wilson score interval (which holds up when the rate is close to 0 or 100%)
+			double runs = this.seeds.length;
+			double rate = completedRuns / runs;
+			double zSquared = CONFIDENCE_Z * CONFIDENCE_Z;
+			double centre = (rate + (zSquared / (2 * runs))) / (1 + (zSquared / runs));
+			double halfWidth = (CONFIDENCE_Z / (1 + (zSquared / runs))) * Math.sqrt((rate * (1 - rate) / runs) + (zSquared / (4 * runs * runs)));
+			String completion = String.format("%.2f%% (%.2f-%.2f%%)", 100 * rate, 100 * (centre - halfWidth), 100 * (centre + halfWidth));
+
+			// If no run completed, there's nothing else to say
+			if (completedRuns == 0) {
+				System.out.format(nameColumn + "%-28s%-26s%-10s%-10s%-10s\r\n", this.getCombinationName(i), completion, "-", "-", "-", "-");
+				continue;
+			}
+
+			// Let's work out the mean number of events to finish, with its confidence interval
+			double sum = 0;
+			for (int events : finishedEvents) {
+				sum += events;
+			}
+			double mean = sum / completedRuns;
+
+			double squaredDeviations = 0;
+			for (int events : finishedEvents) {
+				squaredDeviations += (events - mean) * (events - mean);
+			}
+
+			double margin = 0;
+			if (completedRuns > 1) {
+				margin = CONFIDENCE_Z * Math.sqrt(squaredDeviations / (completedRuns - 1)) / Math.sqrt(completedRuns);
+			}
+			String events = String.format("%.2f (%.2f-%.2f)", mean, mean - margin, mean + margin);
+
+			System.out.format(nameColumn + "%-28s%-26s%-10d%-10d%-10d\r\n", this.getCombinationName(i), completion, events, percentile(finishedEvents, 50), percentile(finishedEvents, 95), percentile(finishedEvents, 99));
+		}
+
+		System.out.println("Events are the number of generated events it took the completed runs to get every job \"Done\" (runs stop at " + Simulation.MAX_EVENTS + ")");
+
+		// If there were schedulers, let's show how well each one served the processes
+		if (this.schedulers != null) {
+			this.printSchedulingReport(nameColumn);
+		}
+
+		// If there were several cores, let's show how busy they were kept
+		if (this.hasMultipleCores()) {
+			this.printCoresReport(nameColumn);
+		}
+	}
+
+	// Private function to print out how busy the cores of each combination were, on average over the batch, and how often they were left waiting on memory
+	private void printCoresReport(String nameColumn) {
+		System.out.println();
+		System.out.format(nameColumn + "%-14s%-18s%-14s\r\n", "Cores", "Busy", "Memory-starved", "Steals");
+
+		for (int i = 0; i < this.generatedEvents.length; i++) {
+			// A single core isn't simulated by the cores, so there's nothing to say about it
+			if (this.getCoreCount(i) == 1) {
+				System.out.format(nameColumn + "%-14s%-18s%-14s\r\n", this.getCombinationName(i), "-", "-", "-");
+				continue;
+			}
+
+			double utilization = 0;
+			double starvation = 0;
+			double stealCount = 0;
+
+			for (int j = 0; j < this.seeds.length; j++) {
+				utilization += this.utilizations[i][j];
+				starvation += this.admissionStarvation[i][j];
+				stealCount += this.steals[i][j];
+			}
+
+			double runs = this.seeds.length;
+
+			System.out.format(nameColumn + "%-14s%-18s%-14.2f\r\n", this.getCombinationName(i), String.format("%.2f%%", 100 * utilization / runs), String.format("%.2f%%", 100 * starvation / runs), stealCount / runs);
+		}
+
+		System.out.println("Busy is the share of core time spent running a process, and memory-starved the share spent idle while processes waited in Hold for memory (all averaged over the runs)");
+	}
+
+	// Private function to print out how each scheduler (with each memory algorithm) served the processes, on average over the batch, and which was fastest
+	private void printSchedulingReport(String nameColumn) {
+		int fastest = -1;
+		double fastestFinishTime = 0;
+
+		System.out.println();
+		System.out.format(nameColumn + "%-14s%-14s%-14s%-14s%-14s\r\n", "Scheduler", "Finish time", "Throughput", "Turnaround", "Waiting", "Preemptions");
+
+		for (int i = 0; i < this.generatedEvents.length; i++) {
+			double finishTime = 0;
+			double throughput = 0;
+			double turnaround = 0;
+			double waiting = 0;
+			double preemptionCount = 0;
+
+			for (int j = 0; j < this.seeds.length; j++) {
+				finishTime += this.finishTimes[i][j];
+				throughput += this.throughputs[i][j];
+				turnaround += this.turnarounds[i][j];
+				waiting += this.waitingTimes[i][j];
+				preemptionCount += this.preemptions[i][j];
+			}
+
+			double runs = this.seeds.length;
+			finishTime /= runs;
+
+			System.out.format(nameColumn + "%-14.2f%-14.2f%-14.2f%-14.2f%-14.2f\r\n", this.getCombinationName(i), finishTime, throughput / runs, turnaround / runs, waiting / runs, preemptionCount / runs);
+
+			if (fastest == -1 || finishTime < fastestFinishTime) {
+				fastest = i;
+				fastestFinishTime = finishTime;
+			}
+		}
+
+		System.out.println("Finish time is when the run stopped, throughput is the processes finished per 100 time units, and turnaround and waiting are per finished process (all averaged over the runs)");
+		System.out.println("Waiting is a process's turnaround less the CPU time it used, so it counts its time in Hold as well as in Ready");
+		System.out.println("Fastest: " + this.getCombinationName(fastest) + " (average finish time " + String.format("%.2f", fastestFinishTime) + ")");
+	}
+
+	// Private function to get the given percentile of a sorted array of values (by the nearest rank)
+	private static int percentile(int[] sortedValues, int percent) {
+		int rank = (int) Math.ceil((percent / 100.0) * sortedValues.length);
+
+		return sortedValues[Math.max(rank, 1) - 1];
+	}
+}
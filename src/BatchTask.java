@@ -0,0 +1,42 @@
+// Imports (libraries and utilities)
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Batch Task class
+ * A fork/join task that runs a range of a batch's seeds, splitting the range in half until it's small enough to just run
+ */
+class BatchTask extends RecursiveAction {
+	// Declare final variables (constants)
+	private static final long serialVersionUID = 1L; // (Fork/join tasks are serializable, though a batch's never are)
+	private static final int SEEDS_PER_TASK = 4; // The most seeds a task will run itself, instead of splitting them up
+
+	// Declare properties
+	private BatchSimulation batch;
+	private int start; // The position of the first seed to run
+	private int end; // The position after the last seed to run
+
+	// Constructor
+	public BatchTask(BatchSimulation batch, int start, int end) {
+		// Set the properties
+		this.batch = batch;
+		this.start = start;
+		this.end = end;
+	}
+
+	// Protected function to run the task's seeds (or split them between two more tasks)
+	protected void compute() {
+		// If the range is small enough, let's just run it
+		if (this.end - this.start <= SEEDS_PER_TASK) {
+			for (int i = this.start; i < this.end; i++) {
+				this.batch.runSeed(i);
+			}
+
+			return;
+		}
+
+		// Otherwise, let's split it in half
+		int middle = (this.start + this.end) >>> 1;
+
+		invokeAll(new BatchTask(this.batch, this.start, middle), new BatchTask(this.batch, middle, this.end));
+	}
+}
@@ -0,0 +1,493 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Bitmap Memory Map class
+ * A bitmap memory map: the memory is split into fixed size units, and each unit is one bit in an array of longs (set if it's in use)
+ * Empty blocks are just the runs of clear bits, so they're found a whole word at a time with Long.numberOfTrailingZeros
+ * Freeing only clears the process's bits (the runs merge on their own), so it never has to search anything
+ * Its block handles are unit numbers (address / UNIT_SIZE)
+ */
+class BitmapMemoryMap implements MemoryMap {
+	// Declare final variables (constants)
+	private static final int UNIT_SIZE = 64; // The size of one unit/bit (the same as the process size stepping)
+	private static final int NONE = -1; // The "null" unit reference
+
+	// Declare properties
+	private int totalUnits;
+	private long[] usedUnits; // One bit per unit, set if the unit is in use (the bits past the end of memory are always set)
+	private Process[] unitOwner; // The process whose block starts at each unit
+	private int freeMemory; // The total amount of empty memory
+	private int freeBlockCount; // The number of runs of empty units
+	private int largestFreeUnits; // The length of the longest run of empty units (only valid while it isn't stale)
+	private boolean largestFreeStale;
+	private int roverUnit; // The "next fit" roving pointer: the unit right after the last allocation
+	private int internalFragmentation; // The space processes don't use in their last unit
+	private long probes; // The number of runs of empty units looked at by the find functions
+	private long merges;
+	private ArrayList<Process> memoryView; // The lazily built array list view
+	private boolean memoryViewStale;
+
+	// Constructor
+	public BitmapMemoryMap(int memorySize) {
+		// Let's figure out how many units (and words of units) we have
+		this.totalUnits = memorySize / UNIT_SIZE;
+		this.usedUnits = new long[(this.totalUnits + 63) >>> 6];
+		this.unitOwner = new Process[this.totalUnits];
+
+		// The bits past the end of memory are marked as in use, so they never look like an empty run
+		if ((this.totalUnits & 63) != 0) {
+			this.usedUnits[this.usedUnits.length - 1] = -1L << (this.totalUnits & 63);
+		}
+
+		// Let's start out with one completely empty block
+		this.freeMemory = this.totalUnits * UNIT_SIZE;
+		this.freeBlockCount = (this.totalUnits > 0) ? 1 : 0;
+		this.largestFreeStale = true;
+		this.memoryViewStale = true;
+	}
+
+	// Public function to get the unit of the smallest empty run the given size fits into
+	public int findBestFit(int size) {
+		int units = this.getUnits(size);
+		int found = NONE;
+		int foundUnits = Integer.MAX_VALUE;
+
+		// Let's look at every empty run, keeping the smallest one that fits (the lowest addressed one on ties)
+		for (int start = this.nextFreeUnit(0); start < this.totalUnits; ) {
+			int end = this.nextUsedUnit(start);
+			this.probes++;
+
+			if (end - start >= units && end - start < foundUnits) {
+				found = start;
+				foundUnits = end - start;
+
+				// Nothing can fit better than an exact fit
+				if (foundUnits == units) {
+					break;
+				}
+			}
+
+			start = this.nextFreeUnit(end);
+		}
+
+		return found;
+	}
+
+	// Public function to get the unit of the largest empty run, if the given size fits into it
+	public int findWorstFit(int size) {
+		int units = this.getUnits(size);
+		int found = NONE;
+		int foundUnits = 0;
+
+		// Let's look at every empty run, keeping the largest one (the lowest addressed one on ties)
+		for (int start = this.nextFreeUnit(0); start < this.totalUnits; ) {
+			int end = this.nextUsedUnit(start);
+			this.probes++;
+
+			if (end - start > foundUnits) {
+				found = start;
+				foundUnits = end - start;
+			}
+
+			start = this.nextFreeUnit(end);
+		}
+
+		// If the largest run is too small, nothing will fit
+		if (foundUnits < units) {
+			return -1;
+		}
+
+		return found;
+	}
+
+	// Public function to get the unit of the lowest addressed empty run the given size fits into
+	public int findFirstFit(int size) {
+		return this.findFitFrom(0, this.getUnits(size));
+	}
+
+	// Public function to get the unit of the next empty run the given size fits into, starting from the roving pointer
+	public int findNextFit(int size) {
+		int units = this.getUnits(size);
+		int startUnit = this.roverUnit;
+
+		// If the roving pointer is in the middle of an empty run (it may have been merged since), let's start at the run's beginning
+		if (startUnit < this.totalUnits && this.isUnitUsed(startUnit) != true) {
+			startUnit = this.previousUsedUnit(startUnit) + 1;
+		}
+
+		int found = this.findFitFrom(startUnit, units);
+
+		// If there's nothing after the roving pointer, let's wrap around to the beginning
+		if (found == NONE && startUnit > 0) {
+			found = this.findFitFrom(0, units);
+		}
+
+		return found;
+	}
+
+	// Public function to place a process at the start of the empty run at the given unit
+	public boolean allocate(int unit, Process process) {
+		int units = this.getUnits(process.getSize());
+
+		// Make sure we were given the start of an empty run that's large enough
+		if (unit < 0 || unit >= this.totalUnits || units <= 0 || this.isUnitUsed(unit) || (unit > 0 && this.isUnitUsed(unit - 1) != true) || this.nextUsedUnit(unit) - unit < units) {
+			return false;
+		}
+
+		// If the process fills the whole run, that empty block is gone
+		if (this.nextUsedUnit(unit) - unit == units) {
+			this.freeBlockCount--;
+		}
+
+		// Let's mark the units as used by the process
+		this.setUnits(unit, unit + units);
+		this.unitOwner[unit] = process;
+		this.freeMemory -= units * UNIT_SIZE;
+		this.internalFragmentation += (units * UNIT_SIZE) - process.getSize();
+		process.setAddress(unit * UNIT_SIZE);
+
+		// Let's move the roving pointer to just after the process
+		this.roverUnit = unit + units;
+
+		this.largestFreeStale = true;
+		this.memoryViewStale = true;
+
+		return true;
+	}
+
+	// Public function to free a process's units (the empty runs on either side merge with it on their own)
+	public boolean free(Process process) {
+		int unit = process.getAddress() / UNIT_SIZE;
+
+		// Make sure the block really is the process's
+		if (process.getAddress() < 0 || unit >= this.totalUnits || this.unitOwner[unit] != process) {
+			return false;
+		}
+
+		int units = this.getUnits(process.getSize());
+		int end = unit + units;
+
+		// Let's clear the units out
+		this.clearUnits(unit, end);
+		this.unitOwner[unit] = null;
+		this.freeMemory += units * UNIT_SIZE;
+		this.internalFragmentation -= (units * UNIT_SIZE) - process.getSize();
+		process.setAddress(-1);
+
+		// The freed run is a new empty block, unless it joins up with the empty runs next to it
+		this.freeBlockCount++;
+
+		if (unit > 0 && this.isUnitUsed(unit - 1) != true) {
+			this.freeBlockCount--;
+			this.merges++;
+		}
+
+		if (end < this.totalUnits && this.isUnitUsed(end) != true) {
+			this.freeBlockCount--;
+			this.merges++;
+		}
+
+		this.largestFreeStale = true;
+		this.memoryViewStale = true;
+
+		return true;
+	}
+
+	// Public function to slide every process down to the lowest addresses, leaving a single empty run at the end
+	public int compact() {
+		// Let's keep track of how much memory has to be copied
+		int movedMemory = 0;
+		int address = 0;
+
+		// Let's walk through the processes in address order, packing them together
+		Process[] owners = this.unitOwner;
+
+		this.unitOwner = new Process[this.totalUnits];
+		Arrays.fill(this.usedUnits, 0);
+
+		if ((this.totalUnits & 63) != 0) {
+			this.usedUnits[this.usedUnits.length - 1] = -1L << (this.totalUnits & 63);
+		}
+
+		int unit = 0;
+
+		while (unit < this.totalUnits) {
+			Process process = owners[unit];
+
+			if (process == null) {
+				unit++;
+				continue;
+			}
+
+			int units = this.getUnits(process.getSize());
+			int newUnit = address / UNIT_SIZE;
+
+			// If the process has to move, its memory has to be copied
+			if (process.getAddress() != address) {
+				movedMemory += process.getSize();
+				process.setAddress(address);
+			}
+
+			this.setUnits(newUnit, newUnit + units);
+			this.unitOwner[newUnit] = process;
+			address += units * UNIT_SIZE;
+			unit += units;
+		}
+
+		// All of the empty memory is now one run at the end
+		this.freeBlockCount = (this.freeMemory > 0) ? 1 : 0;
+
+		// The next allocation should start at the one empty run
+		this.roverUnit = address / UNIT_SIZE;
+
+		this.largestFreeStale = true;
+		this.memoryViewStale = true;
+
+		return movedMemory;
+	}
+
+	// Public function to get the total amount of empty memory
+	public int getFreeMemory() {
+		return this.freeMemory;
+	}
+
+	// Public function to get the size of the largest empty run (only rescanned when the memory has changed)
+	public int getLargestFreeBlock() {
+		if (this.largestFreeStale) {
+			this.largestFreeUnits = 0;
+
+			for (int start = this.nextFreeUnit(0); start < this.totalUnits; ) {
+				int end = this.nextUsedUnit(start);
+
+				this.largestFreeUnits = Math.max(this.largestFreeUnits, end - start);
+				start = this.nextFreeUnit(end);
+			}
+
+			this.largestFreeStale = false;
+		}
+
+		return this.largestFreeUnits * UNIT_SIZE;
+	}
+
+	// Public function to get the number of empty runs
+	public int getFreeBlockCount() {
+		return this.freeBlockCount;
+	}
+
+	// Public function to get the total number of empty runs the find functions have looked at
+	public long getProbeCount() {
+		return this.probes;
+	}
+
+	// Public function to get the total number of times a freed block joined up with an empty run next to it
+	public long getMergeCount() {
+		return this.merges;
+	}
+
+	// Public function to get the space processes don't use in their last unit (none, as long as sizes are multiples of UNIT_SIZE)
+	public int getInternalFragmentation() {
+		return this.internalFragmentation;
+	}
+
+	// Public function to get an array list representation of the memory blocks, built only when the memory has changed
+	public ArrayList<Process> getMemoryArrayList() {
+		if (this.memoryViewStale) {
+			this.memoryView = Lists.newArrayList();
+
+			// Let's walk through the memory, alternating between processes and empty runs
+			int unit = 0;
+
+			while (unit < this.totalUnits) {
+				if (this.isUnitUsed(unit)) {
+					Process process = this.unitOwner[unit];
+
+					this.memoryView.add(process);
+					unit += this.getUnits(process.getSize());
+				}
+				else {
+					// Empty runs are shown as dead processes
+					int end = this.nextUsedUnit(unit);
+
+					Process deadProcess = new Process((end - unit) * UNIT_SIZE, true);
+					deadProcess.setAddress(unit * UNIT_SIZE);
+
+					this.memoryView.add(deadProcess);
+					unit = end;
+				}
+			}
+
+			this.memoryViewStale = false;
+		}
+
+		return this.memoryView;
+	}
+
+	// Public function to get a copy of the bitmap words (one bit per unit, set if it's in use)
+	public long[] getBitmap() {
+		return this.usedUnits.clone();
+	}
+
+	// Private function to find the lowest addressed empty run, starting at or after the given unit, that's at least the given length
+	private int findFitFrom(int fromUnit, int units) {
+		for (int start = this.nextFreeUnit(fromUnit); start < this.totalUnits; ) {
+			int end = this.nextUsedUnit(start);
+			this.probes++;
+
+			if (end - start >= units) {
+				return start;
+			}
+
+			start = this.nextFreeUnit(end);
+		}
+
+		// Ok, for a "hey we didn't find one" scenario, let's return a -1
+		return NONE;
+	}
+
+	// Private function to get the number of units needed to hold the given size
+	private int getUnits(int size) {
+		return (size + UNIT_SIZE - 1) / UNIT_SIZE;
+	}
+
+	// Private function to check if a unit is in use
+	private boolean isUnitUsed(int unit) {
+		return (this.usedUnits[unit >>> 6] & (1L << unit)) != 0;
+	}
+
+	// Private function to get the first empty unit at or after the given unit (or totalUnits if there isn't one)
+	private int nextFreeUnit(int unit) {
+		int word = unit >>> 6;
+
+		if (word >= this.usedUnits.length) {
+			return this.totalUnits;
+		}
+
+		// Let's ignore the units before the given one in its word, then skip over any completely used words
+		long bits = ~this.usedUnits[word] & (-1L << unit);
+
+		while (bits == 0) {
+			if (++word == this.usedUnits.length) {
+				return this.totalUnits;
+			}
+
+			bits = ~this.usedUnits[word];
+		}
+
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	// Private function to get the first used unit at or after the given unit (or totalUnits if there isn't one)
+	private int nextUsedUnit(int unit) {
+		int word = unit >>> 6;
+
+		if (word >= this.usedUnits.length) {
+			return this.totalUnits;
+		}
+
+		// Let's ignore the units before the given one in its word, then skip over any completely empty words
+		long bits = this.usedUnits[word] & (-1L << unit);
+
+		while (bits == 0) {
+			if (++word == this.usedUnits.length) {
+				return this.totalUnits;
+			}
+
+			bits = this.usedUnits[word];
+		}
+
+		// The bits past the end of memory are set, so let's make sure we don't go past it
+		return Math.min((word << 6) + Long.numberOfTrailingZeros(bits), this.totalUnits);
+	}
+
+	// Private function to get the last used unit before the given unit (or -1 if there isn't one)
+	private int previousUsedUnit(int unit) {
+		int word = (unit - 1) >> 6;
+
+		if (word < 0) {
+			return NONE;
+		}
+
+		// Let's ignore the units at and after the given one in its word, then skip back over any completely empty words
+		long bits = this.usedUnits[word] & (-1L >>> (63 - ((unit - 1) & 63)));
+
+		while (bits == 0) {
+			if (--word < 0) {
+				return NONE;
+			}
+
+			bits = this.usedUnits[word];
+		}
+
+		return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+	}
+
+	// Private function to mark the units from start (inclusive) to end (exclusive) as used, a word at a time
+	private void setUnits(int start, int end) {
+		for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+			this.usedUnits[word] |= this.getWordMask(word, start, end);
+		}
+	}
+
+	// Private function to mark the units from start (inclusive) to end (exclusive) as empty, a word at a time
+	private void clearUnits(int start, int end) {
+		for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+			this.usedUnits[word] &= ~this.getWordMask(word, start, end);
+		}
+	}
+
+	// Private function to get the bits of a word that fall between start (inclusive) and end (exclusive)
+	private long getWordMask(int word, int start, int end) {
+		long mask = -1L;
+
+		if (word == start >>> 6) {
+			mask &= -1L << start;
+		}
+
+		if (word == (end - 1) >>> 6) {
+			mask &= -1L >>> (63 - ((end - 1) & 63));
+		}
+
+		return mask;
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(this.totalUnits);
+		Checkpoint.writeLongs(out, this.usedUnits);
+		Checkpoint.writeProcesses(out, this.unitOwner);
+		out.writeInt(this.freeMemory);
+		out.writeInt(this.freeBlockCount);
+		out.writeInt(this.largestFreeUnits);
+		out.writeBoolean(this.largestFreeStale);
+		out.writeInt(this.roverUnit);
+		out.writeInt(this.internalFragmentation);
+		out.writeLong(this.probes);
+		out.writeLong(this.merges);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.totalUnits = in.readInt();
+		this.usedUnits = Checkpoint.readLongs(in);
+		this.unitOwner = Checkpoint.readProcesses(in, processesById);
+		this.freeMemory = in.readInt();
+		this.freeBlockCount = in.readInt();
+		this.largestFreeUnits = in.readInt();
+		this.largestFreeStale = in.readBoolean();
+		this.roverUnit = in.readInt();
+		this.internalFragmentation = in.readInt();
+		this.probes = in.readLong();
+		this.merges = in.readLong();
+
+		// The array list view will have to be built again
+		this.memoryViewStale = true;
+	}
+}
@@ -0,0 +1,333 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Buddy Memory Map class
+ * A buddy-system allocator: memory is carved into power-of-two sized blocks (of MIN_BLOCK_SIZE << order)
+ * Allocating splits a larger block in halves until it's just big enough, freeing merges a block with its "buddy" half again
+ * Each order keeps a doubly linked free list, linked through per-unit arrays, so both paths are O(log n)
+ * Its block handles are unit numbers (address / MIN_BLOCK_SIZE)
+ */
+class BuddyMemoryMap implements MemoryMap {
+	// Declare final variables (constants)
+	private static final int MIN_BLOCK_SIZE = 64; // The smallest block size (the same as the process size stepping)
+	private static final int NONE = -1; // The "null" unit reference, and the order of units that don't start a block
+
+	// Declare properties
+	private int totalUnits;
+	private int[] blockOrder; // The order of the block starting at each unit (NONE if no block starts there)
+	private boolean[] blockFree; // Whether the block starting at each unit is free
+	private Process[] blockOwner; // The process in the block starting at each unit
+	private int[] freeHead; // The first free block of each order
+	private int[] freeNext;
+	private int[] freePrevious;
+	private int freeMemory; // The total amount of memory in free blocks
+	private int internalFragmentation; // The total amount of allocated, but unused, block space
+	private int freeBlockCount;
+	private long probes; // The number of free lists looked at by the find functions
+	private long merges;
+
+	// Constructor
+	public BuddyMemoryMap(int memorySize) {
+		// Let's figure out how many units we have, and how many orders we need
+		this.totalUnits = memorySize / MIN_BLOCK_SIZE;
+
+		int orders = 32 - Integer.numberOfLeadingZeros(Math.max(this.totalUnits, 1));
+
+		// Let's allocate our arrays
+		this.blockOrder = new int[this.totalUnits];
+		this.blockFree = new boolean[this.totalUnits];
+		this.blockOwner = new Process[this.totalUnits];
+		this.freeNext = new int[this.totalUnits];
+		this.freePrevious = new int[this.totalUnits];
+		this.freeHead = new int[orders];
+
+		Arrays.fill(this.blockOrder, NONE);
+		Arrays.fill(this.freeHead, NONE);
+
+		// If the memory isn't a power of two, let's carve it into descending power-of-two blocks (which keeps each one aligned)
+		int unit = 0;
+
+		for (int order = orders - 1; order >= 0; order--) {
+			if ((this.totalUnits & (1 << order)) != 0) {
+				this.addFreeBlock(unit, order);
+				this.freeMemory += (MIN_BLOCK_SIZE << order);
+				unit += (1 << order);
+			}
+		}
+	}
+
+	// Public function to get the unit of the smallest free block the given size fits into
+	public int findBestFit(int size) {
+		// Let's look for a free block of the needed order, or the next larger one that we can split
+		for (int order = this.getOrder(size); order >= 0 && order < this.freeHead.length; order++) {
+			this.probes++;
+
+			if (this.freeHead[order] != NONE) {
+				return this.freeHead[order];
+			}
+		}
+
+		// Ok, for a "hey we didn't find one" scenario, let's return a -1
+		return -1;
+	}
+
+	// Public function to get a fitting block (in a buddy system every fit is the smallest fitting block)
+	public int findWorstFit(int size) {
+		return this.findBestFit(size);
+	}
+
+	// Public function to get a fitting block (in a buddy system every fit is the smallest fitting block)
+	public int findFirstFit(int size) {
+		return this.findBestFit(size);
+	}
+
+	// Public function to get a fitting block (in a buddy system every fit is the smallest fitting block)
+	public int findNextFit(int size) {
+		return this.findBestFit(size);
+	}
+
+	// Public function to place a process in the given free block, splitting it down to size
+	public boolean allocate(int unit, Process process) {
+		int neededOrder = this.getOrder(process.getSize());
+
+		// Make sure we were given a free block that's large enough
+		if (unit < 0 || unit >= this.totalUnits || this.blockOrder[unit] == NONE || this.blockFree[unit] != true || neededOrder < 0 || this.blockOrder[unit] < neededOrder) {
+			return false;
+		}
+
+		// Let's take the block off of its free list
+		int order = this.blockOrder[unit];
+		this.removeFreeBlock(unit);
+
+		// Now let's split it in half until it's just big enough, freeing the upper half each time
+		while (order > neededOrder) {
+			order--;
+			this.addFreeBlock(unit + (1 << order), order);
+		}
+
+		// Let's mark the block as used by the process
+		this.freeMemory -= (MIN_BLOCK_SIZE << order);
+		this.blockOrder[unit] = order;
+		this.blockFree[unit] = false;
+		this.blockOwner[unit] = process;
+		this.internalFragmentation += (MIN_BLOCK_SIZE << order) - process.getSize();
+		process.setAddress(unit * MIN_BLOCK_SIZE);
+
+		return true;
+	}
+
+	// Public function to free a process's block, merging it with its buddy for as long as the buddy is free
+	public boolean free(Process process) {
+		int unit = process.getAddress() / MIN_BLOCK_SIZE;
+
+		// Make sure the block really is the process's
+		if (process.getAddress() < 0 || unit >= this.totalUnits || this.blockOwner[unit] != process) {
+			return false;
+		}
+
+		int order = this.blockOrder[unit];
+		int maxOrder = this.getRegionOrder(unit);
+
+		// Let's clear the block out
+		this.freeMemory += (MIN_BLOCK_SIZE << order);
+		this.internalFragmentation -= (MIN_BLOCK_SIZE << order) - process.getSize();
+		this.blockOwner[unit] = null;
+		this.blockOrder[unit] = NONE;
+		process.setAddress(-1);
+
+		// Now let's keep merging with our buddy, as long as it's a free block of the same order
+		while (order < maxOrder) {
+			int buddy = unit ^ (1 << order);
+
+			if (this.blockOrder[buddy] != order || this.blockFree[buddy] != true) {
+				break;
+			}
+
+			// Ok, let's pull the buddy off its free list and merge
+			this.removeFreeBlock(buddy);
+			this.blockOrder[buddy] = NONE;
+
+			unit = Math.min(unit, buddy);
+			order++;
+			this.merges++;
+		}
+
+		// Finally, let's put the (possibly merged) block on its free list
+		this.addFreeBlock(unit, order);
+
+		return true;
+	}
+
+	// Public function to get an array list representation of the memory blocks
+	public ArrayList<Process> getMemoryArrayList() {
+		ArrayList<Process> memoryList = Lists.newArrayList();
+
+		// Let's walk through the blocks in address order
+		int unit = 0;
+
+		while (unit < this.totalUnits && this.blockOrder[unit] != NONE) {
+			if (this.blockFree[unit]) {
+				// Free blocks are shown as dead processes
+				Process deadProcess = new Process(MIN_BLOCK_SIZE << this.blockOrder[unit], true);
+				deadProcess.setAddress(unit * MIN_BLOCK_SIZE);
+
+				memoryList.add(deadProcess);
+			}
+			else {
+				memoryList.add(this.blockOwner[unit]);
+			}
+
+			unit += (1 << this.blockOrder[unit]);
+		}
+
+		return memoryList;
+	}
+
+	// Public function to compact the memory (buddy blocks have fixed positions, so this can't move anything)
+	public int compact() {
+		return 0;
+	}
+
+	// Public function to get the total amount of memory in free blocks
+	public int getFreeMemory() {
+		return this.freeMemory;
+	}
+
+	// Public function to get the size of the largest free block
+	public int getLargestFreeBlock() {
+		// Let's find the highest order that has a free block
+		for (int order = this.freeHead.length - 1; order >= 0; order--) {
+			if (this.freeHead[order] != NONE) {
+				return (MIN_BLOCK_SIZE << order);
+			}
+		}
+
+		return 0;
+	}
+
+	// Public function to get the number of free blocks
+	public int getFreeBlockCount() {
+		return this.freeBlockCount;
+	}
+
+	// Public function to get the total number of free lists the find functions have looked at
+	public long getProbeCount() {
+		return this.probes;
+	}
+
+	// Public function to get the total number of times a block was merged with its buddy
+	public long getMergeCount() {
+		return this.merges;
+	}
+
+	// Public function to get the total amount of allocated, but unused, block space
+	public int getInternalFragmentation() {
+		return this.internalFragmentation;
+	}
+
+	// Private function to get the smallest order whose blocks fit the given size (or -1 if no block ever could)
+	private int getOrder(int size) {
+		int units = (size + MIN_BLOCK_SIZE - 1) / MIN_BLOCK_SIZE;
+		int order = 32 - Integer.numberOfLeadingZeros(Math.max(units - 1, 0));
+
+		if (order >= this.freeHead.length) {
+			return -1;
+		}
+
+		return order;
+	}
+
+	// Private function to get the order of the top level (power-of-two) region the given unit is in
+	private int getRegionOrder(int unit) {
+		int regionStart = 0;
+
+		for (int order = this.freeHead.length - 1; order >= 0; order--) {
+			if ((this.totalUnits & (1 << order)) != 0) {
+				// If the unit is in this region, we're done
+				if (unit < regionStart + (1 << order)) {
+					return order;
+				}
+
+				regionStart += (1 << order);
+			}
+		}
+
+		return 0;
+	}
+
+	// Private function to put a free block on the front of its order's free list
+	private void addFreeBlock(int unit, int order) {
+		this.blockOrder[unit] = order;
+		this.blockFree[unit] = true;
+
+		this.freePrevious[unit] = NONE;
+		this.freeNext[unit] = this.freeHead[order];
+
+		if (this.freeHead[order] != NONE) {
+			this.freePrevious[this.freeHead[order]] = unit;
+		}
+
+		this.freeHead[order] = unit;
+		this.freeBlockCount++;
+	}
+
+	// Private function to take a free block off of its order's free list
+	private void removeFreeBlock(int unit) {
+		int previous = this.freePrevious[unit];
+		int next = this.freeNext[unit];
+
+		if (previous == NONE) {
+			this.freeHead[this.blockOrder[unit]] = next;
+		}
+		else {
+			this.freeNext[previous] = next;
+		}
+
+		if (next != NONE) {
+			this.freePrevious[next] = previous;
+		}
+
+		this.blockFree[unit] = false;
+		this.freeBlockCount--;
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(this.totalUnits);
+		Checkpoint.writeInts(out, this.blockOrder);
+		Checkpoint.writeBooleans(out, this.blockFree);
+		Checkpoint.writeProcesses(out, this.blockOwner);
+		Checkpoint.writeInts(out, this.freeHead);
+		Checkpoint.writeInts(out, this.freeNext);
+		Checkpoint.writeInts(out, this.freePrevious);
+		out.writeInt(this.freeMemory);
+		out.writeInt(this.internalFragmentation);
+		out.writeInt(this.freeBlockCount);
+		out.writeLong(this.probes);
+		out.writeLong(this.merges);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.totalUnits = in.readInt();
+		this.blockOrder = Checkpoint.readInts(in);
+		this.blockFree = Checkpoint.readBooleans(in);
+		this.blockOwner = Checkpoint.readProcesses(in, processesById);
+		this.freeHead = Checkpoint.readInts(in);
+		this.freeNext = Checkpoint.readInts(in);
+		this.freePrevious = Checkpoint.readInts(in);
+		this.freeMemory = in.readInt();
+		this.internalFragmentation = in.readInt();
+		this.freeBlockCount = in.readInt();
+		this.probes = in.readLong();
+		this.merges = in.readLong();
+	}
+}
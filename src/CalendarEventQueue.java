@@ -0,0 +1,231 @@
+/*
+ * Calendar Event Queue class
+ * The pending events kept in a calendar queue (R. Brown, 1988): a "year" of equally long "days", each holding its events in order
+ * An event goes in the day its time falls on (wrapping around the year), and events are taken out a day at a time, starting from the current one
+ * As long as the days are about as long as the gap between events, adding an event and taking the earliest one are both O(1) on average
+ * So the calendar re-sizes itself as the number of events grows and shrinks, re-measuring the length of a day from the earliest events each time
+ */
+class CalendarEventQueue implements EventQueue {
+	// Declare final variables (constants)
+	private static final int MIN_DAYS = 16; // The fewest days a year ever has
+	private static final int SAMPLE_SIZE = 25; // The number of earliest events a day's length is measured from
+
+	// Declare properties
+	private ScheduledEvent[] days; // Each day's first event (the rest follow on from it, in order)
+	private ScheduledEvent[] lastEvents; // Each day's last event (events are mostly added in order, so they mostly go right after it)
+	private int dayMask; // The number of days in a year, less one (there's always a power of two of them)
+	private long dayWidth = 1; // How long a day is
+	private int size;
+	private int currentDay; // The day that the earliest event is on (or after)
+	private long currentDayEnd; // The time the current day ends, in the current year
+	private long lastTime; // The time of the last event taken out
+	private boolean resizing; // Whether the calendar is being re-sized (so taking the sample out and putting it back doesn't re-size it again)
+	private ScheduledEvent[] sample = new ScheduledEvent[SAMPLE_SIZE];
+
+	// Constructor
+	public CalendarEventQueue() {
+		this.days = new ScheduledEvent[MIN_DAYS];
+		this.lastEvents = new ScheduledEvent[MIN_DAYS];
+		this.dayMask = MIN_DAYS - 1;
+		this.currentDayEnd = this.dayWidth;
+	}
+
+	// Public function to add an event to the queue
+	public void add(ScheduledEvent event) {
+		this.insert(event);
+		this.size++;
+
+		// If the days are getting crowded, let's double the number of them
+		if (this.resizing != true && this.size > this.days.length * 2) {
+			this.resize(this.days.length * 2);
+		}
+	}
+
+	// Private function to put an event into its day (after every event that happens before it)
+	private void insert(ScheduledEvent event) {
+		int day = (int) ((event.time / this.dayWidth) & this.dayMask);
+		ScheduledEvent earlier = this.days[day];
+
+		if (earlier == null) {
+			event.next = null;
+			this.days[day] = event;
+			this.lastEvents[day] = event;
+		}
+		else if (event.isBefore(earlier)) {
+			event.next = earlier;
+			this.days[day] = event;
+		}
+		// (Events at the same time go in the order they were scheduled, so with a lot of them at once, this is where nearly all of them go)
+		else if (event.isBefore(this.lastEvents[day]) != true) {
+			event.next = null;
+			this.lastEvents[day].next = event;
+			this.lastEvents[day] = event;
+		}
+		else {
+			while (earlier.next != null && event.isBefore(earlier.next) != true) {
+				earlier = earlier.next;
+			}
+
+			event.next = earlier.next;
+			earlier.next = event;
+		}
+
+		// If it happens before the last event we took out, the calendar has to go back to it
+		if (event.time < this.lastTime) {
+			this.lastTime = event.time;
+			this.currentDay = day;
+			this.currentDayEnd = ((event.time / this.dayWidth) + 1) * this.dayWidth;
+		}
+	}
+
+	// Public function to take the earliest event out of the queue (or null, if it's empty)
+	public ScheduledEvent poll() {
+		if (this.size == 0) {
+			return null;
+		}
+
+		// Let's go through the days of the year, starting with the current one, until one has an event that's in this year
+		int day = this.currentDay;
+		long dayEnd = this.currentDayEnd;
+
+		for (int i = 0; i < this.days.length; i++) {
+			ScheduledEvent first = this.days[day];
+
+			if (first != null && first.time < dayEnd) {
+				this.currentDay = day;
+				this.currentDayEnd = dayEnd;
+
+				return this.take(day);
+			}
+
+			day = (day + 1) & this.dayMask;
+			dayEnd += this.dayWidth;
+		}
+
+		// A whole year went by without an event, so let's just look for the earliest one, and jump to its day
+		int earliestDay = -1;
+
+		for (int i = 0; i < this.days.length; i++) {
+			if (this.days[i] != null && (earliestDay == -1 || this.days[i].isBefore(this.days[earliestDay]))) {
+				earliestDay = i;
+			}
+		}
+
+		this.currentDay = earliestDay;
+		this.currentDayEnd = ((this.days[earliestDay].time / this.dayWidth) + 1) * this.dayWidth;
+
+		return this.take(earliestDay);
+	}
+
+	// Private function to take the first event out of a day
+	private ScheduledEvent take(int day) {
+		ScheduledEvent event = this.days[day];
+
+		this.days[day] = event.next;
+		if (event.next == null) {
+			this.lastEvents[day] = null;
+		}
+		event.next = null;
+		this.size--;
+		this.lastTime = event.time;
+
+		// If the days are getting empty, let's halve the number of them
+		if (this.resizing != true && this.days.length > MIN_DAYS && this.size < this.days.length / 2) {
+			this.resize(this.days.length / 2);
+		}
+
+		return event;
+	}
+
+	// Private function to re-size the calendar to the given number of days (measuring how long a day should now be)
+	private void resize(int dayCount) {
+		this.resizing = true;
+
+		long dayWidth = this.measureDayWidth();
+		ScheduledEvent[] oldDays = this.days;
+
+		this.days = new ScheduledEvent[dayCount];
+		this.lastEvents = new ScheduledEvent[dayCount];
+		this.dayMask = dayCount - 1;
+		this.dayWidth = dayWidth;
+
+		// Let's move every event into its day in the new calendar
+		for (ScheduledEvent event : oldDays) {
+			while (event != null) {
+				ScheduledEvent next = event.next;
+
+				event.next = null;
+				this.insert(event);
+				event = next;
+			}
+		}
+
+		// And pick up from the last event we took out
+		this.currentDay = (int) ((this.lastTime / this.dayWidth) & this.dayMask);
+		this.currentDayEnd = ((this.lastTime / this.dayWidth) + 1) * this.dayWidth;
+
+		this.resizing = false;
+	}
+
+	/*
+	 * Private function to measure how long a day should be: three times the average gap between the earliest events
+	 * The gaps more than twice the average are left out, so a few far-off events don't make the days too long
+	 */
+	private long measureDayWidth() {
+		int sampleCount = Math.min(this.size, SAMPLE_SIZE);
+
+		if (sampleCount < 2) {
+			return this.dayWidth;
+		}
+
+		// Let's take the earliest events out (remembering where the calendar was up to)
+		long lastTime = this.lastTime;
+		int currentDay = this.currentDay;
+		long currentDayEnd = this.currentDayEnd;
+
+		for (int i = 0; i < sampleCount; i++) {
+			this.sample[i] = this.poll();
+		}
+
+		double averageGap = (double) (this.sample[sampleCount - 1].time - this.sample[0].time) / (sampleCount - 1);
+		long gapTotal = 0;
+		int gapCount = 0;
+
+		for (int i = 1; i < sampleCount; i++) {
+			long gap = this.sample[i].time - this.sample[i - 1].time;
+
+			if (gap <= averageGap * 2) {
+				gapTotal += gap;
+				gapCount++;
+			}
+		}
+
+		// And put them back
+		for (int i = 0; i < sampleCount; i++) {
+			this.insert(this.sample[i]);
+			this.size++;
+			this.sample[i] = null;
+		}
+
+		this.lastTime = lastTime;
+		this.currentDay = currentDay;
+		this.currentDayEnd = currentDayEnd;
+
+		// If they (nearly) all happen at the same time, the days can't be too short (the clock doesn't go any finer than a day of one time unit)
+		if (gapTotal == 0) {
+			return 1;
+		}
+
+		return Math.max(1, Math.round(3.0 * gapTotal / gapCount));
+	}
+
+	// Public function to get the number of events in the queue
+	public int size() {
+		return this.size;
+	}
+
+	// Public function to check if the queue is empty
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+}
@@ -0,0 +1,203 @@
+// Imports (libraries and utilities)
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/*
+ * Checkpoint class
+ * Saves everything about a running simulation into a compact binary checkpoint, and restores a brand new simulation from one
+ * A checkpoint holds the simulation's counters and random number position, every process, each state's processes (in order),
+ * the memory manager's counters and its memory map's own arrays (so the block layout, and even the block handles, come back exactly)
+ * Every restore makes a new, independent simulation, so one checkpoint can be resumed (or forked into "what-ifs") any number of times
+ */
+class Checkpoint {
+	// Declare final variables (constants)
+	private static final int MAGIC = 0x4F534350; // "OSCP", at the start of every checkpoint
+	private static final int VERSION = 1;
+
+	// Public function to save the given simulation as a checkpoint
+	public static byte[] save(SimulationContext context) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		// Let's write what the memory manager has to be built with, so it can be built again before anything else is read
+		MemoryManager memory = context.getMemory();
+		out.writeUTF(memory.getMemoryAlgorithm());
+		out.writeUTF(memory.getMemoryBackend());
+		out.writeUTF(memory.getReplacementPolicy());
+
+		// Let's write the simulation's own state (its counters and random number position)
+		context.writeState(out);
+
+		// Every process is always in exactly one state, so let's gather them all up by id, and write them first
+		Process[] processesById = gatherProcesses(context);
+
+		out.writeInt(processesById.length);
+		for (Process process : processesById) {
+			out.writeInt(process.getSize());
+			out.writeInt(process.getReqTime());
+			out.writeInt(process.getUsedTime());
+			out.writeInt(process.getAddress());
+		}
+
+		// Now, everything that holds on to the processes
+		context.getStates().writeState(out);
+		context.getCascade().writeState(out);
+		memory.writeState(out);
+
+		out.flush();
+
+		return bytes.toByteArray();
+	}
+
+	// Public function to restore a new simulation from a checkpoint
+	public static SimulationContext restore(byte[] checkpoint) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(checkpoint));
+
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a simulation checkpoint");
+		}
+		if (in.readInt() != VERSION) {
+			throw new IOException("Unsupported simulation checkpoint version");
+		}
+
+		// Let's build the memory manager the same way it was built (the algorithm is compared by reference, so it's interned)
+		String memoryAlgorithm = in.readUTF().intern();
+		String memoryBackend = in.readUTF();
+		String replacementPolicy = in.readUTF();
+
+		MemoryManager memory = new MemoryManager(memoryAlgorithm, memoryBackend, replacementPolicy);
+
+		// Let's read the simulation's own state
+		SimulationContext context = new SimulationContext(0, memory);
+		context.readState(in);
+
+		// Let's bring back every process
+		Process[] processesById = new Process[in.readInt()];
+
+		for (int id = 0; id < processesById.length; id++) {
+			processesById[id] = new Process(id, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		}
+
+		// And put them back where they were
+		context.getStates().readState(in, processesById);
+		context.getCascade().readState(in);
+		memory.readState(in, processesById);
+
+		return context;
+	}
+
+	// Public function to save the given simulation as a checkpoint file
+	public static void saveFile(SimulationContext context, String fileName) throws IOException {
+		Files.write(Paths.get(fileName), save(context));
+	}
+
+	// Public function to restore a new simulation from a checkpoint file
+	public static SimulationContext restoreFile(String fileName) throws IOException {
+		return restore(Files.readAllBytes(Paths.get(fileName)));
+	}
+
+	// Private function to gather up every process in the simulation, by id
+	private static Process[] gatherProcesses(SimulationContext context) {
+		Process[] processesById = new Process[context.getNumOfProcesses()];
+
+		for (ProcessState state : ProcessState.values()) {
+			for (int i = 0; i < context.getStates().getProcessCount(state); i++) {
+				Process process = context.getStates().getProcessAtIndex(state, i);
+				processesById[process.getId()] = process;
+			}
+		}
+
+		return processesById;
+	}
+
+	// Public function to write an array of ints (with its length)
+	public static void writeInts(DataOutput out, int[] values) throws IOException {
+		out.writeInt(values.length);
+
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	// Public function to read an array of ints (with its length)
+	public static int[] readInts(DataInput in) throws IOException {
+		int[] values = new int[in.readInt()];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+
+		return values;
+	}
+
+	// Public function to write an array of longs (with its length)
+	public static void writeLongs(DataOutput out, long[] values) throws IOException {
+		out.writeInt(values.length);
+
+		for (long value : values) {
+			out.writeLong(value);
+		}
+	}
+
+	// Public function to read an array of longs (with its length)
+	public static long[] readLongs(DataInput in) throws IOException {
+		long[] values = new long[in.readInt()];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readLong();
+		}
+
+		return values;
+	}
+
+	// Public function to write an array of booleans (with its length)
+	public static void writeBooleans(DataOutput out, boolean[] values) throws IOException {
+		out.writeInt(values.length);
+
+		for (boolean value : values) {
+			out.writeBoolean(value);
+		}
+	}
+
+	// Public function to read an array of booleans (with its length)
+	public static boolean[] readBooleans(DataInput in) throws IOException {
+		boolean[] values = new boolean[in.readInt()];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readBoolean();
+		}
+
+		return values;
+	}
+
+	// Public function to write an array of processes as their ids (-1 for each empty spot), with its length
+	public static void writeProcesses(DataOutput out, Process[] processes) throws IOException {
+		out.writeInt(processes.length);
+
+		for (Process process : processes) {
+			out.writeInt((process != null) ? process.getId() : -1);
+		}
+	}
+
+	// Public function to read an array of processes, looking each one up by its id
+	public static Process[] readProcesses(DataInput in, Process[] processesById) throws IOException {
+		Process[] processes = new Process[in.readInt()];
+
+		for (int i = 0; i < processes.length; i++) {
+			int id = in.readInt();
+			processes[i] = (id != -1) ? processesById[id] : null;
+		}
+
+		return processes;
+	}
+}
@@ -0,0 +1,252 @@
+// Imports (libraries and utilities)
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * CPU Cores class
+ * The cores of a multi-core machine: each core has its own Run slot, and its own local deque of ready processes
+ * A process that gets ready goes back on the deque of the core it last ran on (or, if it's new, the core with the fewest waiting),
+ * an idle core takes the oldest process off of its own deque, and if that's empty, it steals the newest process off of the longest deque
+ * The event manager tells it as processes come into Ready and Run and leave them, so the cores always hold exactly those states' processes
+ * It also keeps the run's core figures: how busy each core was, how often work was stolen, and how often a core sat idle waiting on memory to admit a process
+ */
+class CpuCores {
+	// Declare properties
+	private Process[] running; // The process running on each core (null if the core is idle)
+	private List<Deque<Process>> localReady; // The ready processes waiting on each core, oldest first
+	private int[] coresById; // The core each process last ran (or waited) on, by id (-1 if it hasn't been on one)
+	private int selectedCore = -1; // The core the next event out of Run applies to (-1 for the process that's been running longest)
+	private Process[] tickProcesses; // The process each core started the tick with
+	private long tickCount;
+	private long[] busyTicks; // The number of ticks each core spent running a process
+	private long admissionStarvedTicks; // The number of core ticks spent idle while Hold had processes that couldn't get into memory
+	private int stealCount;
+
+	// Constructor
+	public CpuCores(int coreCount) {
+		this.running = new Process[coreCount];
+		this.tickProcesses = new Process[coreCount];
+		this.busyTicks = new long[coreCount];
+		this.localReady = Lists.newArrayListWithCapacity(coreCount);
+
+		for (int i = 0; i < coreCount; i++) {
+			this.localReady.add(new ArrayDeque<Process>());
+		}
+
+		this.coresById = new int[16];
+		Arrays.fill(this.coresById, -1);
+	}
+
+	// Public function to get the number of cores
+	public int getCoreCount() {
+		return this.running.length;
+	}
+
+	// Public function to get the process running on a core (or null if it's idle)
+	public Process getRunningProcess(int core) {
+		return this.running[core];
+	}
+
+	// Public function to choose the core the next event out of Run applies to (or -1 for the process that's been running longest)
+	public void selectCore(int core) {
+		this.selectedCore = core;
+	}
+
+	// Public function to get the process on the selected core (or null, if no core is selected, so it's the process that's been running longest)
+	public Process getSelectedProcess() {
+		if (this.selectedCore == -1) {
+			return null;
+		}
+
+		return this.running[this.selectedCore];
+	}
+
+	// Private function to get the core a process last ran (or waited) on, or -1 if it hasn't been on one
+	private int getCore(Process process) {
+		int id = process.getId();
+
+		if (id >= this.coresById.length) {
+			return -1;
+		}
+
+		return this.coresById[id];
+	}
+
+	// Private function to set the core a process is on
+	private void setCore(Process process, int core) {
+		int id = process.getId();
+
+		// Make sure our id table is large enough for the process id
+		if (id >= this.coresById.length) {
+			int oldCapacity = this.coresById.length;
+			int capacity = Math.max(id + 1, oldCapacity * 2);
+
+			this.coresById = Arrays.copyOf(this.coresById, capacity);
+			Arrays.fill(this.coresById, oldCapacity, capacity, -1);
+		}
+
+		this.coresById[id] = core;
+	}
+
+	// Private function to get the first idle core, or -1 if every core is busy
+	private int getIdleCore() {
+		for (int i = 0; i < this.running.length; i++) {
+			if (this.running[i] == null) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/*
+	 * Public function to get the process that should run next (or null, if nothing is ready)
+	 * It's for the first idle core, or if every core is busy, for the core of the given process (the one that will be suspended to make room)
+	 */
+	public Process getNextProcess(Process displacedProcess) {
+		int core = this.getIdleCore();
+
+		if (core == -1 && displacedProcess != null) {
+			core = this.getCore(displacedProcess);
+		}
+
+		if (core == -1) {
+			return null;
+		}
+
+		// If the core has its own work, it takes the oldest of it
+		Deque<Process> ownReady = this.localReady.get(core);
+
+		if (ownReady.isEmpty() != true) {
+			return ownReady.peekFirst();
+		}
+
+		// Otherwise, let's steal the newest process off of the core with the most waiting (the first of them, if there's a tie)
+		Deque<Process> victimReady = null;
+
+		for (int i = 0; i < this.localReady.size(); i++) {
+			Deque<Process> ready = this.localReady.get(i);
+
+			if (ready.isEmpty() != true && (victimReady == null || ready.size() > victimReady.size())) {
+				victimReady = ready;
+			}
+		}
+
+		if (victimReady == null) {
+			return null;
+		}
+
+		return victimReady.peekLast();
+	}
+
+	// Public function to hear that a process has come into the Ready state
+	public void processReady(Process process) {
+		int core = this.getCore(process);
+
+		// A new process goes on the core with the fewest processes waiting (the first of them, if there's a tie)
+		if (core == -1) {
+			core = 0;
+
+			for (int i = 1; i < this.localReady.size(); i++) {
+				if (this.localReady.get(i).size() < this.localReady.get(core).size()) {
+					core = i;
+				}
+			}
+
+			this.setCore(process, core);
+		}
+
+		this.localReady.get(core).addLast(process);
+	}
+
+	// Public function to hear that a process has left the Ready state
+	public void processLeftReady(Process process) {
+		this.localReady.get(this.getCore(process)).remove(process);
+	}
+
+	// Public function to hear that a process has come into the Run state (it's always on the first idle core)
+	public void processStarted(Process process) {
+		int core = this.getIdleCore();
+
+		// If it was waiting on another core, it's been stolen
+		if (this.getCore(process) != core) {
+			this.stealCount++;
+		}
+
+		this.running[core] = process;
+		this.setCore(process, core);
+	}
+
+	// Public function to hear that a process has left the Run state
+	public void processStopped(Process process) {
+		this.running[this.getCore(process)] = null;
+	}
+
+	// Public function to start a tick: the processes the cores start it with are the ones that get to run in it
+	public void beginTick() {
+		this.tickCount++;
+		System.arraycopy(this.running, 0, this.tickProcesses, 0, this.running.length);
+	}
+
+	// Public function to get the process a core started the tick with (or null if it started it idle)
+	public Process getTickProcess(int core) {
+		return this.tickProcesses[core];
+	}
+
+	// Public function to count a core running a process for a tick
+	public void countBusyTick(int core) {
+		this.busyTicks[core]++;
+	}
+
+	// Public function to count a core spending a tick idle because memory couldn't admit a process
+	public void countAdmissionStarvedTick() {
+		this.admissionStarvedTicks++;
+	}
+
+	// Public function to get the number of ticks the cores ran for
+	public long getTickCount() {
+		return this.tickCount;
+	}
+
+	// Public function to get the share of a core's ticks it spent running a process (0 to 1)
+	public double getUtilization(int core) {
+		if (this.tickCount == 0) {
+			return 0;
+		}
+
+		return (double) this.busyTicks[core] / this.tickCount;
+	}
+
+	// Public function to get the share of every core's ticks spent running a process (0 to 1)
+	public double getUtilization() {
+		if (this.tickCount == 0) {
+			return 0;
+		}
+
+		long busyTotal = 0;
+		for (long ticks : this.busyTicks) {
+			busyTotal += ticks;
+		}
+
+		return (double) busyTotal / (this.tickCount * this.running.length);
+	}
+
+	// Public function to get the share of every core's ticks spent idle because memory couldn't admit a process (0 to 1)
+	public double getAdmissionStarvation() {
+		if (this.tickCount == 0) {
+			return 0;
+		}
+
+		return (double) this.admissionStarvedTicks / (this.tickCount * this.running.length);
+	}
+
+	// Public function to get the number of processes an idle core took from another core's deque
+	public int getStealCount() {
+		return this.stealCount;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * CPU Scheduler class
+ * Decides which ready process runs next (whenever a Ready->Run event fires), how long it may run for, and whether a newly ready one should take over
+ * The event manager tells it as processes come into Ready, leave it, and finish, so its ready heap always holds exactly the Ready state's processes
+ * Each scheduler orders its heap by its own key, so picking the next process is O(1), and adding or taking one out is O(log n)
+ * It also keeps the run's scheduling figures: how many processes finished, how long they took (turnaround), and how much of that they spent waiting
+ * (Waiting is everything but running: mostly in Hold, since Ready only holds a few processes at a time, so the time in Ready is kept on its own too)
+ */
+abstract class CpuScheduler {
+	// Declare final variables (constants)
+	public static final String[] SCHEDULERS = {"RR", "SJF", "SRTF", "Priority", "MLFQ"}; // Every scheduler there is
+	public static final int NO_TIME_SLICE = Integer.MAX_VALUE; // The time slice of a process that runs until it's done (or something else stops it)
+
+	// Declare properties
+	protected SimulationContext context; // The simulation the scheduler belongs to
+	protected ReadyHeap ready = new ReadyHeap();
+	private String name;
+	private int finishedCount; // The number of processes that got "Done" by using all of their required time
+	private int killedCount; // The number of processes that got "Done" before that
+	private int preemptionCount;
+	private long turnaroundTotal;
+	private long waitingTotal;
+	private long readyWaitingTotal;
+
+	// Constructor
+	protected CpuScheduler(String name, SimulationContext context) {
+		// Set the properties
+		this.name = name;
+		this.context = context;
+	}
+
+	// Public function to create the scheduler with the given name, for the given simulation
+	public static CpuScheduler create(String name, SimulationContext context) {
+		if ("RR".equals(name)) {
+			return new RoundRobinScheduler(context);
+		}
+		else if ("SJF".equals(name)) {
+			return new ShortestJobScheduler(context);
+		}
+		else if ("SRTF".equals(name)) {
+			return new ShortestRemainingScheduler(context);
+		}
+		else if ("Priority".equals(name)) {
+			return new PriorityScheduler(context);
+		}
+		else if ("MLFQ".equals(name)) {
+			return new FeedbackScheduler(context);
+		}
+
+		throw new IllegalArgumentException("Unknown CPU scheduler: " + name);
+	}
+
+	// Protected function to get the key a ready process is ordered by (the lowest runs first)
+	protected abstract long getKey(Process process);
+
+	// Public function to get how long a process may run before it has to make way for the next one
+	public int getTimeSlice(Process process) {
+		return NO_TIME_SLICE;
+	}
+
+	// Public function to check if the next ready process should take the CPU from the running one (which has the given time left to run)
+	public boolean shouldPreempt(Process running, int remainingTime) {
+		return false;
+	}
+
+	// Public function to hear that a process has stopped running (and whether it used up its whole time slice)
+	public void processDescheduled(Process process, boolean usedTimeSlice) {
+	}
+
+	// Public function to get the process that should run next (or null, if nothing is ready)
+	public Process getNextProcess() {
+		return this.ready.peek();
+	}
+
+	// Public function to hear that a process has come into the Ready state
+	public void processReady(Process process) {
+		process.setReadySince(this.context.getTime());
+		this.ready.add(process, this.getKey(process));
+	}
+
+	// Public function to hear that a process has left the Ready state
+	public void processLeftReady(Process process) {
+		this.ready.remove(process);
+		process.addWaitingTime(this.context.getTime() - process.getReadySince());
+	}
+
+	// Public function to hear that a process has gone into the "Done" state
+	public void processDone(Process process) {
+		// Only the processes that used all of their required time actually finished (the rest were killed)
+		if (process.isDone()) {
+			long turnaround = this.context.getTime() - process.getArrivalTime();
+
+			this.finishedCount++;
+			this.turnaroundTotal += turnaround;
+			this.waitingTotal += turnaround - process.getUsedTime();
+			this.readyWaitingTotal += process.getWaitingTime();
+		}
+		else {
+			this.killedCount++;
+		}
+	}
+
+	// Public function to count a process being preempted
+	public void countPreemption() {
+		this.preemptionCount++;
+	}
+
+	// Public function to get the scheduler's name
+	public String getName() {
+		return this.name;
+	}
+
+	// Public function to get the number of processes that finished
+	public int getFinishedCount() {
+		return this.finishedCount;
+	}
+
+	// Public function to get the number of processes that were killed before they finished
+	public int getKilledCount() {
+		return this.killedCount;
+	}
+
+	// Public function to get the number of times a running process was preempted
+	public int getPreemptionCount() {
+		return this.preemptionCount;
+	}
+
+	// Public function to get the number of processes that finished per 100 time units (so far)
+	public double getThroughput() {
+		long time = this.context.getTime();
+
+		// If no time has passed, nothing can have finished
+		if (time == 0) {
+			return 0;
+		}
+
+		return 100.0 * this.finishedCount / time;
+	}
+
+	// Public function to get the average time from a finished process's creation to its finish
+	public double getMeanTurnaround() {
+		if (this.finishedCount == 0) {
+			return 0;
+		}
+
+		return (double) this.turnaroundTotal / this.finishedCount;
+	}
+
+	// Public function to get the average time a finished process spent waiting (its turnaround, less the CPU time it used), wherever it waited
+	public double getMeanWaiting() {
+		if (this.finishedCount == 0) {
+			return 0;
+		}
+
+		return (double) this.waitingTotal / this.finishedCount;
+	}
+
+	// Public function to get the average time a finished process spent waiting in Ready (part of its waiting)
+	public double getMeanReadyWaiting() {
+		if (this.finishedCount == 0) {
+			return 0;
+		}
+
+		return (double) this.readyWaitingTotal / this.finishedCount;
+	}
+}
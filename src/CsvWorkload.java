@@ -0,0 +1,159 @@
+// Imports (libraries and utilities)
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/*
+ * CSV Workload class
+ * A workload read from a job trace: a CSV file with a process on each line, as "arrival time,size,CPU time" (sizes in k)
+ * Blank lines, lines starting with a "#", and a header line (a first line that starts with a letter) are skipped
+ * The file is read a line at a time, one process ahead of the simulation, so a trace of any length takes the same memory to run
+ */
+class CsvWorkload implements WorkloadSource {
+	// Declare properties
+	private String fileName;
+	private BufferedReader reader; // Null once the file has run out (or been closed)
+	private int lineNumber;
+	private boolean pastHeader; // Whether the first line (the only one that can be a header) has been read
+	private long nextArrivalTime; // The next process's line, already read
+	private int nextSize;
+	private int nextTime;
+	private long createdCount;
+
+	// Constructor
+	public CsvWorkload(String fileName) throws IOException {
+		this.fileName = fileName;
+		this.reader = new BufferedReader(new FileReader(fileName));
+
+		// Let's read the first process, so we know when it arrives
+		this.readNext();
+	}
+
+	// Public function to read a whole job file through once, to make sure it can be read and that every line of it is a job (throwing just what running it would)
+	public static void checkFile(String fileName) throws IOException {
+		CsvWorkload workload = new CsvWorkload(fileName);
+
+		try {
+			while (workload.hasNext()) {
+				workload.readNext();
+			}
+		}
+		catch (UncheckedIOException exception) {
+			throw exception.getCause();
+		}
+		finally {
+			workload.close();
+		}
+	}
+
+	// Private function to read the next process's line (closing the file, if there isn't one)
+	private void readNext() {
+		try {
+			String line;
+
+			while ((line = this.reader.readLine()) != null) {
+				this.lineNumber++;
+				line = line.trim();
+
+				// Let's skip anything that isn't a process
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+
+				// The first line can be a header (it starts with a letter), but any other line has to be a job
+				if (this.pastHeader != true) {
+					this.pastHeader = true;
+
+					if (Character.isLetter(line.charAt(0))) {
+						continue;
+					}
+				}
+
+				this.parseLine(line);
+
+				return;
+			}
+
+			this.close();
+		}
+		catch (IOException exception) {
+			throw new UncheckedIOException("Couldn't read line " + (this.lineNumber + 1) + " of the job file " + this.fileName, exception);
+		}
+	}
+
+	// Private function to parse a process's line (making sure the process could ever fit in memory, and has something to run)
+	private void parseLine(String line) {
+		String[] fields = line.split(",");
+
+		try {
+			if (fields.length < 3) {
+				throw new NumberFormatException("expected \"arrival time,size,CPU time\"");
+			}
+
+			this.nextArrivalTime = Long.parseLong(fields[0].trim());
+			this.nextSize = Integer.parseInt(fields[1].trim());
+			this.nextTime = Integer.parseInt(fields[2].trim());
+		}
+		catch (NumberFormatException exception) {
+			throw new IllegalArgumentException("Line " + this.lineNumber + " of the job file " + this.fileName + " isn't a job: " + exception.getMessage());
+		}
+
+		if (this.nextArrivalTime < 0 || this.nextSize <= 0 || this.nextSize > Simulation.MAX_MEMORY || this.nextTime <= 0) {
+			throw new IllegalArgumentException("Line " + this.lineNumber + " of the job file " + this.fileName + " has a negative arrival time, a size that can't fit in " + Simulation.MAX_MEMORY + "k, or no CPU time");
+		}
+	}
+
+	// Public function to check if the trace has another process
+	public boolean hasNext() {
+		return this.reader != null;
+	}
+
+	// Public function to get the time the next process arrives
+	public long peekArrivalTime() {
+		return this.nextArrivalTime;
+	}
+
+	// Public function to create the next process, in the given simulation (or null, if there are no more)
+	public Process nextProcess(SimulationContext context) {
+		if (this.hasNext() != true) {
+			return null;
+		}
+
+		Process process = context.createProcess(this.nextSize, this.nextTime);
+
+		process.setArrivalTime(this.nextArrivalTime);
+		this.createdCount++;
+
+		// Let's read the one after it
+		this.readNext();
+
+		return process;
+	}
+
+	// Public function to get the number of processes the trace has created
+	public long getCreatedCount() {
+		return this.createdCount;
+	}
+
+	// Public function to let go of the file
+	public void close() {
+		if (this.reader == null) {
+			return;
+		}
+
+		try {
+			this.reader.close();
+		}
+		catch (IOException exception) {
+			// We've got everything we needed from it, so there's nothing else to do
+		}
+
+		this.reader = null;
+	}
+
+	// Public function to describe the workload
+	public String getDescription() {
+		return "processes from the job file " + this.fileName;
+	}
+}
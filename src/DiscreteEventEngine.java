@@ -0,0 +1,349 @@
+// Imports (libraries and utilities)
+import java.util.List;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Discrete Event Engine class
+ * A clock for one simulation that jumps straight from one scheduled event to the next, instead of ticking along a unit at a time
+ * Whatever is going to happen is scheduled at the time it happens, in an event queue (a binary heap, or a calendar queue for very many events):
+ *  - the running process's CPU burst finishing (or its time slice running out first)
+ *  - a blocked process's I/O finishing
+ *  - the next event from outside of the system (the tick engine's random events, arriving at random times instead of one per tick)
+ * Scheduled events are never taken back out of the queue: an event that no longer applies (its process has moved on) is just skipped when it comes up
+ * If the simulation has a CPU scheduler, it decides each process's time slice, and whether a newly ready process should take over the CPU
+ */
+class DiscreteEventEngine {
+	// Declare final variables (constants)
+	public static final int TIME_SLICE = 6; // The most CPU time a process gets before it's suspended for the next one (without a CPU scheduler)
+	public static final int IO_TIME = 9; // How long a process's I/O takes (the same for every process, so I/O finishes in the order it started)
+	public static final double GENERATED_EVENT_GAP = 3; // The average time between events from outside (the tick engine has one per 3-unit tick)
+
+	// Declare properties
+	private SimulationContext context; // The simulation the clock belongs to
+	private String queueType;
+	private EventQueue queue;
+	private Event[] generatedEvents; // The events that can happen from outside of the system
+	private long time; // The time of the event being handled
+	private long nextSequence;
+	private ScheduledEvent unusedEvents; // Events that have been handled, ready to be scheduled again
+	private Process running; // The process whose CPU burst is scheduled (null if nothing is running)
+	private long runningSince; // When the running process started using the CPU (after any time the CPU owed for compacting)
+	private long handledEventCount;
+	private long staleEventCount; // The number of events skipped because their process had moved on
+	private long burstCount;
+	private long timerExpiryCount;
+	private long ioCount;
+	private long compactionDelayCount; // The number of bursts pushed back by the CPU compacting memory
+	private int peakPendingCount;
+
+	// Constructor
+	public DiscreteEventEngine(SimulationContext context, String queueType) {
+		// Let's set some properties
+		this.context = context;
+		this.queueType = queueType;
+
+		// Let's create the event queue
+		this.queue = createQueue(queueType);
+	}
+
+	// Public function to create the event queue with the given name
+	public static EventQueue createQueue(String queueType) {
+		if ("Heap".equals(queueType)) {
+			return new HeapEventQueue();
+		}
+		else if ("Calendar".equals(queueType)) {
+			return new CalendarEventQueue();
+		}
+
+		throw new IllegalArgumentException("Unknown event queue: " + queueType);
+	}
+
+	// Public function to get the clock started: the first event from outside, the I/O of any process that starts out blocked, and whatever's running
+	public void start() {
+		// Everything the tick engine randomly generates can happen from outside, except for what's now scheduled (I/O finishing and time slices running out)
+		List<Event> events = Lists.newArrayList();
+
+		for (Event event : this.context.getEvents()) {
+			boolean ioDone = (event.fromState == ProcessState.BLOCKED && event.toState == ProcessState.READY);
+			boolean timerExpired = (event.fromState == ProcessState.RUN && event.toState == ProcessState.SUSPEND_SYSTEM);
+
+			if (ioDone != true && timerExpired != true) {
+				events.add(event);
+			}
+		}
+
+		this.generatedEvents = events.toArray(new Event[events.size()]);
+
+		this.scheduleGeneratedEvent();
+
+		EventManager states = this.context.getStates();
+		for (int i = 0; i < states.getProcessCount(ProcessState.BLOCKED); i++) {
+			this.scheduleIo(states.getProcessAtIndex(ProcessState.BLOCKED, i));
+		}
+
+		this.update();
+	}
+
+	// Public function to take the next event off the queue and move the clock to it (or null, if nothing else is going to happen)
+	public ScheduledEvent next() {
+		ScheduledEvent event = this.queue.poll();
+
+		if (event != null) {
+			this.time = event.time;
+			this.handledEventCount++;
+		}
+
+		return event;
+	}
+
+	// Public function to hand a handled event back, so it can be scheduled again
+	public void release(ScheduledEvent event) {
+		event.process = null;
+		event.next = this.unusedEvents;
+		this.unusedEvents = event;
+	}
+
+	// Public function to pick the event that's happened from outside (and schedule the one after it)
+	public Event generateEvent() {
+		Event event = this.generatedEvents[this.context.getRandom().nextInt(this.generatedEvents.length)];
+
+		this.scheduleGeneratedEvent();
+
+		return event;
+	}
+
+	/*
+	 * Public function to finish the running process's CPU burst (or time slice), crediting it with the CPU time it used
+	 * Returns false if the burst no longer applies, or if the CPU has had to compact memory meanwhile (and so the burst has been pushed back)
+	 */
+	public boolean finishBurst(ScheduledEvent event) {
+		if (event.process != this.running || event.process.getAwaitedEvent() != event.sequence) {
+			this.staleEventCount++;
+
+			return false;
+		}
+
+		// If the CPU has been busy copying memory for a compaction, the process hasn't had that time, so its burst finishes that much later
+		int compactionTime = this.context.getMemory().takeCompactionTime();
+
+		if (compactionTime > 0) {
+			this.runningSince += compactionTime;
+			this.schedule(event.kind, compactionTime, event.process);
+			this.compactionDelayCount++;
+
+			return false;
+		}
+
+		this.stopRunning(event.kind == ScheduledEvent.TIMER_EXPIRED);
+
+		if (event.kind == ScheduledEvent.BURST_DONE) {
+			this.burstCount++;
+		}
+		else {
+			this.timerExpiryCount++;
+		}
+
+		return true;
+	}
+
+	// Public function to finish a blocked process's I/O (returns false if the I/O no longer applies, because the process has moved on)
+	public boolean finishIo(ScheduledEvent event) {
+		if (event.process.getAwaitedEvent() != event.sequence || this.context.getStates().getProcess(ProcessState.BLOCKED) != event.process) {
+			this.staleEventCount++;
+
+			return false;
+		}
+
+		event.process.setAwaitedEvent(-1);
+		this.ioCount++;
+
+		return true;
+	}
+
+	// Public function to schedule the end of a blocked process's I/O
+	public void scheduleIo(Process process) {
+		this.schedule(ScheduledEvent.IO_DONE, IO_TIME, process);
+	}
+
+	/*
+	 * Public function to catch up with whatever the last event changed
+	 * If a different process is running now, the last one is credited with the CPU time it used (and if it left to do I/O, its I/O is scheduled),
+	 * and the new one's CPU burst is scheduled
+	 */
+	public void update() {
+		EventManager states = this.context.getStates();
+		Process process = states.getProcess(ProcessState.RUN);
+
+		if (process == this.running) {
+			return;
+		}
+
+		if (this.running != null) {
+			Process lastProcess = this.running;
+			this.stopRunning(false);
+
+			// Processes only ever get blocked from Run, so if it's at the back of Blocked it's just started its I/O
+			int blockedCount = states.getProcessCount(ProcessState.BLOCKED);
+
+			if (blockedCount > 0 && states.getProcessAtIndex(ProcessState.BLOCKED, blockedCount - 1) == lastProcess) {
+				this.scheduleIo(lastProcess);
+			}
+		}
+
+		if (process != null) {
+			this.startRunning(process);
+		}
+	}
+
+	// Public function to check if the CPU scheduler wants a ready process to take the CPU from the running one
+	public boolean shouldPreempt() {
+		CpuScheduler scheduler = this.context.getScheduler();
+
+		if (scheduler == null || this.running == null) {
+			return false;
+		}
+
+		// The running process hasn't been credited with the time it's used since it started running, so let's take that off of what it has left
+		int remainingTime = this.running.getReqTime() - this.running.getUsedTime() - (int) Math.max(this.time - this.runningSince, 0);
+
+		return scheduler.shouldPreempt(this.running, remainingTime);
+	}
+
+	// Public function to preempt the running process: it's credited with the CPU time it's used (so it's ready with the right time left), and its burst no longer applies
+	public void preempt() {
+		this.stopRunning(false);
+		this.context.getScheduler().countPreemption();
+	}
+
+	// Private function to start running a process: its burst finishes when it's used up its required time, or its time slice, whichever is first
+	private void startRunning(Process process) {
+		// If the CPU still owes time for compacting memory, it has to pay that off first
+		int compactionTime = this.context.getMemory().takeCompactionTime();
+		int remainingTime = process.getReqTime() - process.getUsedTime();
+		int timeSlice = TIME_SLICE;
+
+		// If there's a CPU scheduler, it decides how long the process gets
+		if (this.context.getScheduler() != null) {
+			timeSlice = this.context.getScheduler().getTimeSlice(process);
+		}
+
+		if (compactionTime > 0) {
+			this.compactionDelayCount++;
+		}
+
+		this.running = process;
+		this.runningSince = this.time + compactionTime;
+
+		if (remainingTime <= timeSlice) {
+			this.schedule(ScheduledEvent.BURST_DONE, compactionTime + Math.max(remainingTime, 0), process);
+		}
+		else {
+			this.schedule(ScheduledEvent.TIMER_EXPIRED, compactionTime + timeSlice, process);
+		}
+	}
+
+	// Private function to stop running the running process, crediting it with the CPU time it's used (less any time the CPU spent compacting)
+	private void stopRunning(boolean usedTimeSlice) {
+		Process process = this.running;
+		int compactionTime = this.context.getMemory().takeCompactionTime();
+		long usedTime = Math.min(this.time - this.runningSince - compactionTime, process.getReqTime() - process.getUsedTime());
+
+		if (usedTime > 0) {
+			process.useTime((int) usedTime);
+
+			// While it ran, the process referenced its memory (which may have needed to page it in)
+			this.context.getMemory().accessProcessMemory(process, (int) usedTime);
+		}
+
+		process.setAwaitedEvent(-1);
+		this.running = null;
+
+		// The CPU scheduler may want to know how the process used the CPU (whether it gave it up, or had to have it taken)
+		if (this.context.getScheduler() != null) {
+			this.context.getScheduler().processDescheduled(process, usedTimeSlice);
+		}
+	}
+
+	// Private function to schedule the next event from outside, a random (exponentially distributed) time from now
+	private void scheduleGeneratedEvent() {
+		double gap = -GENERATED_EVENT_GAP * Math.log(1.0 - this.context.getRandom().nextDouble());
+
+		this.schedule(ScheduledEvent.GENERATED, Math.max(1, (long) Math.ceil(gap)), null);
+	}
+
+	// Private function to schedule an event, the given time from now (re-using a handled event, if there is one)
+	private void schedule(int kind, long delay, Process process) {
+		ScheduledEvent event = this.unusedEvents;
+
+		if (event != null) {
+			this.unusedEvents = event.next;
+			event.next = null;
+		}
+		else {
+			event = new ScheduledEvent();
+		}
+
+		event.time = this.time + delay;
+		event.sequence = this.nextSequence++;
+		event.kind = kind;
+		event.process = process;
+
+		// The process is only waiting on its latest event (so any earlier one will be skipped)
+		if (process != null) {
+			process.setAwaitedEvent(event.sequence);
+		}
+
+		this.queue.add(event);
+
+		if (this.queue.size() > this.peakPendingCount) {
+			this.peakPendingCount = this.queue.size();
+		}
+	}
+
+	// Public function to get the kind of event queue being used
+	public String getQueueType() {
+		return this.queueType;
+	}
+
+	// Public function to get the time on the clock
+	public long getTime() {
+		return this.time;
+	}
+
+	// Public function to get the number of events that have been handled (including the ones that were skipped)
+	public long getHandledEventCount() {
+		return this.handledEventCount;
+	}
+
+	// Public function to get the number of events that were skipped because their process had moved on
+	public long getStaleEventCount() {
+		return this.staleEventCount;
+	}
+
+	// Public function to get the number of CPU bursts that ran to the end of the process's required time
+	public long getBurstCount() {
+		return this.burstCount;
+	}
+
+	// Public function to get the number of time slices that ran out
+	public long getTimerExpiryCount() {
+		return this.timerExpiryCount;
+	}
+
+	// Public function to get the number of I/Os that finished
+	public long getIoCount() {
+		return this.ioCount;
+	}
+
+	// Public function to get the number of bursts that were pushed back by the CPU compacting memory
+	public long getCompactionDelayCount() {
+		return this.compactionDelayCount;
+	}
+
+	// Public function to get the most events that were ever waiting in the queue at once
+	public int getPeakPendingCount() {
+		return this.peakPendingCount;
+	}
+}
@@ -3,12 +3,16 @@ class Event {
 	// Declare properties
 	public final String from;
 	public final String to;
+	public final ProcessState fromState; // The states the names refer to (looked up once, when the event is made)
+	public final ProcessState toState;
 
 	// Constructor
 	public Event(final String from, final String to) {
 		// Set the properties
 		this.from = from;
 		this.to = to;
+		this.fromState = ProcessState.forName(from);
+		this.toState = ProcessState.forName(to);
 	}
 
 	// Public function to convert the event into a string
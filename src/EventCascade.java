@@ -0,0 +1,398 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * Event Cascade class
+ * The engine that fires events for one simulation: it looks up each event's compiled transition and carries out its steps
+ * An event can set off others (to make room, to refill a state, or to follow up), and those can set off more, making a "cascade"
+ * The cascade is run with an explicit stack of frames rather than recursion, and how long each cascade gets is counted
+ */
+class EventCascade {
+	// Declare final variables (constants)
+	public static final int DEFAULT_MAX_DEPTH = 64; // The default number of events that can be waiting on each other in one cascade
+
+	private static final Transition[][] TRANSITIONS = buildTransitionTable(); // The handler of every (from, to) transition, indexed by the states' ordinals
+
+	private static final int CASCADE_START = 0; // The steps of a transition that a cascade frame can be up to
+	private static final int CASCADE_CLEARED = 1; // The destination state has been cleared (if it needed to be)
+	private static final int CASCADE_REFILLING = 2; // Waiting on an event to refill the source state
+	private static final int CASCADE_MOVING = 3; // Ready to move the process
+	private static final int CASCADE_FOLLOWED_UP = 4; // The process has moved, and its follow-up event (if any) has finished
+
+	// Declare properties
+	private SimulationContext context; // The simulation whose events are being fired
+	private int maxDepth = DEFAULT_MAX_DEPTH;
+	private Event[] cascadeEvents; // The cascade stack: each frame's event, process, transition step and refill event
+	private Process[] cascadeProcesses;
+	private int[] cascadePhases;
+	private int[] cascadeRefills;
+	private int cascadeTop = -1; // The frame on top of the cascade stack (-1 when it's empty)
+	private int cascadeCount; // The number of cascades (events fired from outside of another event)
+	private long cascadeEventCount; // The total number of events fired in all of the cascades
+	private int longestCascade;
+	private int deepestCascade;
+	private int cutOffEventCount; // The number of events that weren't fired because their cascade was too deep
+
+	// Constructor
+	public EventCascade(SimulationContext context) {
+		// Let's set some properties
+		this.context = context;
+
+		// Let's allocate our initial cascade stack
+		this.cascadeEvents = new Event[16];
+		this.cascadeProcesses = new Process[16];
+		this.cascadePhases = new int[16];
+		this.cascadeRefills = new int[16];
+	}
+
+	// Private function to compile the handler of every (from, to) transition into a table indexed by the states' ordinals
+	private static Transition[][] buildTransitionTable() {
+		Transition[][] table = new Transition[ProcessState.count()][ProcessState.count()];
+
+		// Every transition we don't say otherwise about just changes the process's state
+		for (ProcessState from : ProcessState.values()) {
+			for (ProcessState to : ProcessState.values()) {
+				table[from.ordinal()][to.ordinal()] = new Transition(from, to);
+			}
+		}
+
+		// For a Hold->Ready event, the process has to get into memory (the memory manager may compact to make room for it)
+		addTransition(table, new Transition(ProcessState.HOLD, ProcessState.READY)
+			.withMemoryStep(Transition.MemoryStep.ADD));
+
+		// For a Ready->Run event, a full Run state has to be emptied, and an empty Ready state has to be refilled from Suspend_System (or, failing that, Hold)
+		// It may fire with nothing in the Ready state, because the refill may bring a process in
+		addTransition(table, new Transition(ProcessState.READY, ProcessState.RUN)
+			.clearingWith(new Event("Run", "Suspend_System"))
+			.refillingWith(new Event("Suspend_System", "Ready"), new Event("Hold", "Ready"))
+			.allowingEmptySource()
+			.reportingSuccess());
+
+		// For a Run->Blocked event, a full Blocked state has to be emptied, and then there's nothing running, so Run has to be refilled
+		addTransition(table, new Transition(ProcessState.RUN, ProcessState.BLOCKED)
+			.clearingWith(new Event("Blocked", "Done"))
+			.followedBy(new Event("Ready", "Run")));
+
+		// For the events into Ready, a full Ready state has to be emptied
+		addTransition(table, new Transition(ProcessState.BLOCKED, ProcessState.READY)
+			.clearingWith(new Event("Ready", "Hold")));
+		addTransition(table, new Transition(ProcessState.SUSPEND_USER, ProcessState.READY)
+			.clearingWith(new Event("Ready", "Hold")));
+		addTransition(table, new Transition(ProcessState.SUSPEND_SYSTEM, ProcessState.READY)
+			.clearingWith(new Event("Ready", "Hold")));
+
+		// For the events out of Run, there's nothing running afterwards, so Run has to be refilled
+		addTransition(table, new Transition(ProcessState.RUN, ProcessState.SUSPEND_USER)
+			.followedBy(new Event("Ready", "Run")));
+		addTransition(table, new Transition(ProcessState.RUN, ProcessState.SUSPEND_SYSTEM)
+			.followedBy(new Event("Ready", "Run")));
+
+		// For a Run->Ready event (the CPU scheduler preempting the running process), a full Ready state has to be emptied, and then Run has to be refilled
+		addTransition(table, new Transition(ProcessState.RUN, ProcessState.READY)
+			.clearingWith(new Event("Ready", "Hold"))
+			.followedBy(new Event("Ready", "Run")));
+
+		// For the events into Done, the process leaves memory, and then Run has to be refilled
+		addTransition(table, new Transition(ProcessState.BLOCKED, ProcessState.DONE)
+			.withMemoryStep(Transition.MemoryStep.REMOVE)
+			.followedBy(new Event("Ready", "Run")));
+		addTransition(table, new Transition(ProcessState.SUSPEND_USER, ProcessState.DONE)
+			.withMemoryStep(Transition.MemoryStep.REMOVE)
+			.followedBy(new Event("Ready", "Run")));
+		addTransition(table, new Transition(ProcessState.RUN, ProcessState.DONE)
+			.withMemoryStep(Transition.MemoryStep.REMOVE)
+			.followedBy(new Event("Ready", "Run")));
+
+		// For a Ready->Hold event, the largest process in Ready is the one that gets swapped out of memory
+		addTransition(table, new Transition(ProcessState.READY, ProcessState.HOLD)
+			.withMemoryStep(Transition.MemoryStep.REMOVE)
+			.movingLargest());
+
+		return table;
+	}
+
+	// Private function to put a transition in the transition table
+	private static void addTransition(Transition[][] table, Transition transition) {
+		table[transition.from.ordinal()][transition.to.ordinal()] = transition;
+	}
+
+	/*
+	 * Public function to fire the event passed to it, along with every event it sets off (its "cascade")
+	 * Instead of firing the events it sets off recursively, each event in the cascade is a frame on an explicit stack
+	 * A frame remembers which step of its transition it's up to, so it can pick up where it left off once the event it's waiting on finishes
+	 */
+	public boolean fire(Event event) {
+		boolean result = false; // The result of the last event in the cascade to finish
+		int cascadeLength = 1;
+		int cascadeDeepest = 1;
+
+		this.pushFrame(event);
+
+		// Let's keep stepping the event on top of the stack until the whole cascade has finished
+		while (this.cascadeTop >= 0) {
+			int frame = this.cascadeTop;
+			Event currentEvent = this.cascadeEvents[frame];
+			Transition transition = TRANSITIONS[currentEvent.fromState.ordinal()][currentEvent.toState.ordinal()];
+			Event nextEvent = null; // An event that has to be fired before this one can carry on
+
+			if (this.cascadePhases[frame] == CASCADE_START) {
+				// Let's get the first process in the "from" location
+				Process process = this.context.getStates().getProcess(currentEvent.fromState); // May be null
+
+				// If we didn't get back a process, and the transition needs one (it may bring one in itself), the event fails
+				if (process == null && transition.allowsEmptySource() != true) {
+					result = this.finishFrame(false);
+					continue;
+				}
+
+				// Only show if Simulation.debugMode is on
+				if (Simulation.debugMode && process != null) {
+					System.out.println("Event " + currentEvent.toString() + " firing on process: " + process.toString());
+				}
+				else if (Simulation.debugMode) {
+					System.out.println("Event " + currentEvent.toString() + " firing");
+				}
+
+				// If the process won't fit in any one empty block, the memory manager may be able to compact to make room
+				if (transition.getMemoryStep() == Transition.MemoryStep.ADD && this.context.getStates().isAddPossible(process, currentEvent.toState)) {
+					this.context.getMemory().makeRoomFor(process);
+				}
+
+				this.cascadeProcesses[frame] = process;
+				this.cascadePhases[frame] = CASCADE_CLEARED;
+
+				// If the destination state is full, we need to fire an event to get a process out of it
+				if (transition.getClearEvent() != null && this.context.getStates().isStateFull(currentEvent.toState)) {
+					nextEvent = transition.getClearEvent();
+				}
+			}
+			else if (this.cascadePhases[frame] == CASCADE_CLEARED) {
+				Process process = this.cascadeProcesses[frame];
+
+				// Let's figure out which process is actually moving (for a Ready->Hold, it's the largest one)
+				if (transition.movesLargest()) {
+					process = this.context.getStates().getLargestProcess(currentEvent.from); // May be null
+					this.cascadeProcesses[frame] = process;
+				}
+
+				// Let's make sure this is all possible
+				if ((process == null && transition.allowsEmptySource() != true)
+					|| (transition.getMemoryStep() == Transition.MemoryStep.ADD && this.context.getMemory().checkAdmission(process) != true)
+					|| this.context.getStates().isAddPossible(process, currentEvent.toState) != true) {
+					result = this.finishFrame(false);
+					continue;
+				}
+
+				this.cascadePhases[frame] = CASCADE_MOVING;
+
+				// If the source state is empty, we need to fire an event to get a process in it
+				if (transition.getRefillEvents() != null && this.context.getStates().isStateEmpty(currentEvent.fromState)) {
+					this.cascadeRefills[frame] = 0;
+					this.cascadePhases[frame] = CASCADE_REFILLING;
+					nextEvent = transition.getRefillEvents()[0];
+				}
+			}
+			else if (this.cascadePhases[frame] == CASCADE_REFILLING) {
+				// If the last refill event didn't work, let's try the next one
+				this.cascadeRefills[frame]++;
+
+				if (result != true && this.cascadeRefills[frame] < transition.getRefillEvents().length) {
+					nextEvent = transition.getRefillEvents()[this.cascadeRefills[frame]];
+				}
+				else {
+					this.cascadePhases[frame] = CASCADE_MOVING;
+				}
+			}
+			else if (this.cascadePhases[frame] == CASCADE_MOVING) {
+				// If the process isn't successfully moved in memory AND to its new state, the event fails
+				if (this.moveProcess(transition, currentEvent, this.cascadeProcesses[frame]) != true) {
+					result = this.finishFrame(false);
+					continue;
+				}
+
+				// Only show if Simulation.debugMode is on
+				if (Simulation.debugMode && transition.reportsSuccess()) {
+					System.out.println("Event " + currentEvent.toString() + " worked!");
+				}
+
+				// Now that it succeeded, let's fire whatever has to happen next
+				this.cascadePhases[frame] = CASCADE_FOLLOWED_UP;
+				nextEvent = transition.getFollowUpEvent();
+			}
+			else {
+				// If we made it here, the event has succeeded (whatever happened to its follow-up)
+				result = this.finishFrame(true);
+				continue;
+			}
+
+			// If this event set off another one, let's put it on top of the stack
+			if (nextEvent != null) {
+				// Unless the cascade has gotten too deep, in which case the event is cut off (and counts as not working)
+				if (this.cascadeTop + 1 >= this.maxDepth) {
+					this.cutOffEventCount++;
+					result = false;
+
+					// Only show if Simulation.debugMode is on
+					if (Simulation.debugMode) {
+						System.out.println("Event " + nextEvent.toString() + " cut off at cascade depth " + this.maxDepth);
+					}
+				}
+				else {
+					this.pushFrame(nextEvent);
+					cascadeLength++;
+					cascadeDeepest = Math.max(cascadeDeepest, this.cascadeTop + 1);
+				}
+			}
+		}
+
+		// Let's keep track of how long the cascade was
+		this.cascadeCount++;
+		this.cascadeEventCount += cascadeLength;
+		this.longestCascade = Math.max(this.longestCascade, cascadeLength);
+		this.deepestCascade = Math.max(this.deepestCascade, cascadeDeepest);
+
+		return result;
+	}
+
+	// Private function to put a new event on top of the cascade stack
+	private void pushFrame(Event event) {
+		// Make sure we have room for another frame
+		if (this.cascadeTop + 1 == this.cascadeEvents.length) {
+			int capacity = this.cascadeEvents.length * 2;
+
+			this.cascadeEvents = Arrays.copyOf(this.cascadeEvents, capacity);
+			this.cascadeProcesses = Arrays.copyOf(this.cascadeProcesses, capacity);
+			this.cascadePhases = Arrays.copyOf(this.cascadePhases, capacity);
+			this.cascadeRefills = Arrays.copyOf(this.cascadeRefills, capacity);
+		}
+
+		this.cascadeTop++;
+		this.cascadeEvents[this.cascadeTop] = event;
+		this.cascadeProcesses[this.cascadeTop] = null;
+		this.cascadePhases[this.cascadeTop] = CASCADE_START;
+		this.cascadeRefills[this.cascadeTop] = 0;
+	}
+
+	// Private function to take the finished event off the top of the cascade stack, returning its result
+	private boolean finishFrame(boolean succeeded) {
+		// If we're tracing (or replaying a trace), let's record (or check) how the event went
+		if (this.context.getTrace() != null || this.context.getReplay() != null) {
+			this.traceFrame(succeeded);
+		}
+
+		this.cascadeEvents[this.cascadeTop] = null;
+		this.cascadeProcesses[this.cascadeTop] = null;
+		this.cascadeTop--;
+
+		// Increment the fired event counter
+		if (succeeded != true) {
+			this.context.countFiredEvent();
+		}
+
+		return succeeded;
+	}
+
+	// Private function to record (or check against the trace being replayed) the finished event on top of the cascade stack
+	private void traceFrame(boolean succeeded) {
+		Event event = this.cascadeEvents[this.cascadeTop];
+		Process process = this.cascadeProcesses[this.cascadeTop]; // May be null
+		int processId = -1;
+		int memoryBlock = -1;
+
+		if (process != null) {
+			processId = process.getId();
+
+			// If the event put the process in memory, let's keep the block it went in
+			if (succeeded && TRANSITIONS[event.fromState.ordinal()][event.toState.ordinal()].getMemoryStep() == Transition.MemoryStep.ADD) {
+				memoryBlock = process.getAddress();
+			}
+		}
+
+		if (this.context.getTrace() != null) {
+			this.context.getTrace().writeFired(event, processId, succeeded, memoryBlock, this.context.getGeneratedEventCount());
+		}
+		if (this.context.getReplay() != null) {
+			this.context.getReplay().checkFired(event, processId, succeeded, memoryBlock);
+		}
+	}
+
+	// Private function to do a transition's memory step and change the process's state (returns true if both worked)
+	private boolean moveProcess(Transition transition, Event event, Process process) {
+		// For the largest process, it's removed from memory and swapped out to Hold
+		if (transition.movesLargest()) {
+			return this.context.getMemory().removeProcess(process) && this.context.getStates().changeProcessStateToHold(process, event.from);
+		}
+
+		if (transition.getMemoryStep() == Transition.MemoryStep.ADD) {
+			return this.context.getMemory().addProcess(process) && this.context.getStates().changeProcessState(event);
+		}
+		else if (transition.getMemoryStep() == Transition.MemoryStep.REMOVE) {
+			return this.context.getMemory().removeProcess(process) && this.context.getStates().changeProcessState(event);
+		}
+
+		// Otherwise, it's just a change of state
+		return this.context.getStates().changeProcessState(event);
+	}
+
+	// Public function to set how many events can be waiting on each other in one cascade
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	// Public function to get the number of cascades that have been fired
+	public int getCascadeCount() {
+		return this.cascadeCount;
+	}
+
+	// Public function to get the total number of events fired in all of the cascades
+	public long getCascadeEventCount() {
+		return this.cascadeEventCount;
+	}
+
+	// Public function to get the average number of events fired per cascade
+	public double getMeanCascadeLength() {
+		if (this.cascadeCount == 0) {
+			return 0;
+		}
+
+		return (double) this.cascadeEventCount / this.cascadeCount;
+	}
+
+	// Public function to get the most events fired in one cascade
+	public int getLongestCascade() {
+		return this.longestCascade;
+	}
+
+	// Public function to get the most events that were waiting on each other in one cascade
+	public int getDeepestCascade() {
+		return this.deepestCascade;
+	}
+
+	// Public function to get the number of events that weren't fired because their cascade was too deep
+	public int getCutOffEventCount() {
+		return this.cutOffEventCount;
+	}
+
+	// Public function to write the engine's settings and counters to a checkpoint (the stack is always empty between events)
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(this.maxDepth);
+		out.writeInt(this.cascadeCount);
+		out.writeLong(this.cascadeEventCount);
+		out.writeInt(this.longestCascade);
+		out.writeInt(this.deepestCascade);
+		out.writeInt(this.cutOffEventCount);
+	}
+
+	// Public function to read the engine's settings and counters back from a checkpoint
+	public void readState(DataInput in) throws IOException {
+		this.maxDepth = in.readInt();
+		this.cascadeCount = in.readInt();
+		this.cascadeEventCount = in.readLong();
+		this.longestCascade = in.readInt();
+		this.deepestCascade = in.readInt();
+		this.cutOffEventCount = in.readInt();
+	}
+}
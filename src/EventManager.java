@@ -1,8 +1,9 @@
 // Imports (libraries and utilities)
-import java.util.Map;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Collections;
-import java.util.Set;
 
 // External imports
 import com.google.common.collect.*;
@@ -10,9 +11,18 @@ import com.sun.istack.internal.Nullable;
 
 // Event Manager class
 public class EventManager {
+	// Declare final variables (constants)
+	public static final int NO_LIMIT = -1; // The limit of a state that can hold any number of processes (or of "Done" processes to keep, to keep them all)
+
 	// Declare properties
-	private ArrayListMultimap<String, Process> systemStates;
-	private Map<String, Integer> stateLimits;
+	private ProcessQueue[] systemStates; // Each state's processes in first-in first-out order, indexed by the state's ordinal
+	private int[] stateLimits; // Each state's process limit, indexed by the state's ordinal
+	private CpuScheduler scheduler; // What picks the next process out of Ready (null if it's just the first one in)
+	private CpuCores cores; // The cores of a multi-core machine, which pick the next process for each core (null if there's a single CPU)
+	private int doneRetention = NO_LIMIT; // The number of the latest "Done" processes that are kept (the rest are let go, and retired)
+	private long doneCount; // The number of processes that have ever gone "Done"
+	private Process[] retiredProcesses = new Process[16]; // The "Done" processes that have been let go, ready to be re-used (with their ids)
+	private int retiredCount;
 
 	// Constructor
 	public EventManager() {
@@ -23,39 +33,99 @@ public class EventManager {
 		this.buildStateLimitsMap();
 	}
 
-	// Private function to build the system state array/multimap
+	// Private function to build the system state queues
 	private void buildStateMap() {
-		// First of all, let's instanciate a multimap
-		this.systemStates = ArrayListMultimap.create();
+		// First of all, let's instanciate an array of queues
+		this.systemStates = new ProcessQueue[ProcessState.count()];
+
+		// And give every state an empty queue
+		for (int i = 0; i < this.systemStates.length; i++) {
+			this.systemStates[i] = new ProcessQueue();
+		}
 	}
 
-	// Private function to build the system state limit map
+	// Private function to build the system state limits
 	private void buildStateLimitsMap() {
-		// First of all, let's instanciate a hashmap
-		this.stateLimits = Maps.newHashMap();
+		// First of all, let's instanciate an array of limits, with no limits to start
+		this.stateLimits = new int[ProcessState.count()];
+
+		for (int i = 0; i < this.stateLimits.length; i++) {
+			this.stateLimits[i] = NO_LIMIT;
+		}
 
 		// Let's add our state limits
-		this.stateLimits.put("Ready", 4);
-		this.stateLimits.put("Blocked", 6);
-		this.stateLimits.put("Run", 1);
+		this.stateLimits[ProcessState.READY.ordinal()] = 4;
+		this.stateLimits[ProcessState.BLOCKED.ordinal()] = 6;
+		this.stateLimits[ProcessState.RUN.ordinal()] = 1;
 	}
 
-	// Private function to detect if the system state is full
-	public boolean isStateFull(String state) {
-		// Let's first see if the given state even has a limit
-		if (this.stateLimits.containsKey(state)) {
-			// Ok, the key must have a limit if it got here, so let's check to see if that limit's been reached
-			// Get the states limit
-			int stateLimit = this.stateLimits.get(state);
-
-			// Get a count of the number of times a key appears in that set
-			int stateProcessCount = this.getProcessCount(state);
-
-			// If the number of processes in that state are at the limit
-			if (stateProcessCount == stateLimit) {
-				// Return true. The state is full
-				return true;
+	// Public function to set the CPU scheduler that picks the next process out of Ready (and hears about every process coming and going)
+	public void setScheduler(CpuScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	// Public function to set the cores of a multi-core machine: Run holds a process per core, and Ready holds as many per core as it does for a single CPU
+	public void setCores(CpuCores cores) {
+		this.cores = cores;
+
+		this.buildStateLimitsMap();
+
+		if (cores != null) {
+			this.stateLimits[ProcessState.READY.ordinal()] *= cores.getCoreCount();
+			this.stateLimits[ProcessState.RUN.ordinal()] = cores.getCoreCount();
+		}
+	}
+
+	// Public function to only keep the given number of the latest "Done" processes (letting the rest go, so a long stream of processes never piles up)
+	public void setDoneRetention(int doneRetention) {
+		this.doneRetention = doneRetention;
+	}
+
+	// Public function to get the number of processes that have ever gone "Done" (including the ones that have been let go)
+	public long getDoneCount() {
+		return this.doneCount;
+	}
+
+	// Public function to take a "Done" process that's been let go, so it (and its id) can be re-used (or null, if there isn't one)
+	public Process takeRetiredProcess() {
+		if (this.retiredCount == 0) {
+			return null;
+		}
+
+		Process process = this.retiredProcesses[--this.retiredCount];
+		this.retiredProcesses[this.retiredCount] = null;
+
+		return process;
+	}
+
+	// Private function to let go of the oldest "Done" processes that are over the retention limit, retiring them
+	private void retireDoneProcesses() {
+		ProcessQueue doneProcesses = this.systemStates[ProcessState.DONE.ordinal()];
+
+		while (doneProcesses.size() > this.doneRetention) {
+			// Make sure we have room for another process
+			if (this.retiredCount == this.retiredProcesses.length) {
+				this.retiredProcesses = Arrays.copyOf(this.retiredProcesses, this.retiredProcesses.length * 2);
 			}
+
+			this.retiredProcesses[this.retiredCount++] = doneProcesses.poll();
+		}
+	}
+
+	// Public function to detect if the system state is full
+	public boolean isStateFull(String state) {
+		return this.isStateFull(ProcessState.forName(state));
+	}
+
+	// Public function to detect if the system state is full
+	public boolean isStateFull(ProcessState state) {
+		// Get the states limit (states without a limit can never be full)
+		int stateLimit = this.stateLimits[state.ordinal()];
+
+		// If the number of processes in that state are at the limit
+		if (stateLimit != NO_LIMIT && this.systemStates[state.ordinal()].size() == stateLimit) {
+			// Return true. The state is full
+			return true;
 		}
 
 		return false;
@@ -63,15 +133,21 @@ public class EventManager {
 
 	// Public function to detect if the system state is empty
 	public boolean isStateEmpty(String state) {
-		// Let's grab a list of all of the current processes in the given state
-		List<Process> processes = this.getProcesses(state);
+		return this.isStateEmpty(ProcessState.forName(state));
+	}
 
-		// Let's return the lists isEmpty boolean value
-		return processes.isEmpty();
+	// Public function to detect if the system state is empty
+	public boolean isStateEmpty(ProcessState state) {
+		return this.systemStates[state.ordinal()].isEmpty();
 	}
 
 	// Public function to detect if adding the process to the given state is possible
 	public boolean isAddPossible(Process process, String state) {
+		return this.isAddPossible(process, ProcessState.forName(state));
+	}
+
+	// Public function to detect if adding the process to the given state is possible
+	public boolean isAddPossible(Process process, ProcessState state) {
 		// Let's first check if the state we're trying to put this process in is full
 		if (this.isStateFull(state) != true) {
 			// If we got here, the process can be successfully added
@@ -83,100 +159,158 @@ public class EventManager {
 
 	// Public function to add processes to the event manager
 	public boolean addProcess(Process process, String initialState) {
+		return this.addProcess(process, ProcessState.forName(initialState));
+	}
+
+	// Public function to add processes to the event manager
+	public boolean addProcess(Process process, ProcessState initialState) {
 		// Let's first check if the state we're trying to put this process in is full
 		if (this.isAddPossible(process, initialState)) {
-			// Let's add the process to the state map
-			if (this.systemStates.put(initialState, process)) {
-				// If we got here, the process has successfully been added to the state manager
-				return true;
+			// Let's add the process to the tail of the state's queue
+			this.systemStates[initialState.ordinal()].add(process);
+
+			// If there's a scheduler, it has to hear about processes getting ready (or done)
+			if (this.scheduler != null && initialState == ProcessState.READY) {
+				this.scheduler.processReady(process);
 			}
+			else if (this.scheduler != null && initialState == ProcessState.DONE) {
+				this.scheduler.processDone(process);
+			}
+
+			// Let's count the processes that are done (and if we're only keeping the latest, let the oldest go)
+			if (initialState == ProcessState.DONE) {
+				this.doneCount++;
+
+				if (this.doneRetention != NO_LIMIT) {
+					this.retireDoneProcesses();
+				}
+			}
+
+			// If there are cores, they have to hear about processes getting ready (or starting to run)
+			if (this.cores != null && initialState == ProcessState.READY) {
+				this.cores.processReady(process);
+			}
+			else if (this.cores != null && initialState == ProcessState.RUN) {
+				this.cores.processStarted(process);
+			}
+
+			// If we got here, the process has successfully been added to the state manager
+			return true;
 		}
 
 		return false;
 	}
 
 	// Private function to remove a process from a particular state
-	private boolean removeProcessFromState(Process process, String state) {
-		// Let's simply return the boolean value of the remove operation
-		return this.systemStates.remove(state, process);
+	private boolean removeProcessFromState(Process process, ProcessState state) {
+		ProcessQueue processes = this.systemStates[state.ordinal()];
+
+		// The queue finds the process by its arrival number (a binary search), so there's no need to scan for it
+		if (processes.remove(process) != true) {
+			return false;
+		}
+
+		// If there's a scheduler, it has to hear about processes leaving Ready
+		if (this.scheduler != null && state == ProcessState.READY) {
+			this.scheduler.processLeftReady(process);
+		}
+
+		// If there are cores, they have to hear about processes leaving Ready (or stopping running)
+		if (this.cores != null && state == ProcessState.READY) {
+			this.cores.processLeftReady(process);
+		}
+		else if (this.cores != null && state == ProcessState.RUN) {
+			this.cores.processStopped(process);
+		}
+
+		return true;
 	}
 
-	// Public function to get all the processes in a given state
+	// Public function to get all the processes in a given state (as a new list, in first-in first-out order)
 	public List<Process> getProcesses(String state) {
-		// Get a list of processes in the given state
-		return this.systemStates.get(state);
+		ProcessQueue processes = this.systemStates[ProcessState.forName(state).ordinal()];
+		List<Process> processList = Lists.newArrayListWithCapacity(processes.size());
+
+		for (int i = 0; i < processes.size(); i++) {
+			processList.add(processes.get(i));
+		}
+
+		return processList;
 	}
 
 	// Public function to get a process at a specific given index in a given state
 	@Nullable public Process getProcessAtIndex(String state, int index) {
-		// Let's create a process to be returned
-		Process process = null; // Process may be null. We may not get back a process
-
-		// Get a list of processes in the given state
-		List<Process> processes = this.getProcesses(state);
-
-		// Let's make sure the list of processes in that state aren't empty
-		// Also, let's make sure the index we're trying to query isn't out of bounds
-		if (processes.isEmpty() != true && this.getProcessCount(state) > index) {
-			// Just in case it is out of bounds, let's catch the error
-			try {
-				// Return the first process in the list (at key/index 0)
-				process = processes.get(index);
-			}
-			catch (IndexOutOfBoundsException exception) {
-				// Only show if debugMode is on
-				if (Simulation.debugMode) {
-					System.out.println("Error getting process from the event manager at: State " + state + " and index " + index + ". With exception: " + exception);
-				}
-			}
-		}
+		return this.getProcessAtIndex(ProcessState.forName(state), index);
+	}
 
-		return process;
+	// Public function to get a process at a specific given index in a given state
+	@Nullable public Process getProcessAtIndex(ProcessState state, int index) {
+		// The queue gives us back null if the index is out of bounds
+		return this.systemStates[state.ordinal()].get(index); // Process may be null. We may not get back a process
 	}
 
 	// Public function to get the first process from the given state
 	@Nullable public Process getProcess(String state) {
-		return this.getProcessAtIndex(state, 0);
+		return this.getProcess(ProcessState.forName(state));
 	}
 
-	// Public function to get the single largest process in a given state's memory
-	@Nullable public Process getLargestProcess(String state) {
-		// Let's create a process to be returned
-		Process process = null; // Process may be null. We may not get back a process
-
-		// Get a list of processes in the given state
-		List<Process> processes = this.getProcesses(state);
+	// Public function to get the first process from the given state (for Ready, if there's a scheduler, that's the one it picks to run next)
+	@Nullable public Process getProcess(ProcessState state) {
+		if (this.scheduler != null && state == ProcessState.READY) {
+			return this.scheduler.getNextProcess(); // May be null
+		}
 
-		// Let's make sure the list of processes in that state aren't empty
-		if (processes.isEmpty() != true) {
-			// Return the first process in the list (at key/index 0)
-			process = Collections.max(processes);
+		// If there are cores, Ready's is the one the next core to be free picks, and Run's is the selected core's (or the one that's been running longest)
+		if (this.cores != null && state == ProcessState.READY) {
+			return this.cores.getNextProcess(this.getProcess(ProcessState.RUN)); // May be null
+		}
+		else if (this.cores != null && state == ProcessState.RUN && this.cores.getSelectedProcess() != null) {
+			return this.cores.getSelectedProcess();
 		}
 
-		return process;
+		return this.getProcessAtIndex(state, 0);
+	}
+
+	// Public function to get the single largest process in a given state's memory
+	@Nullable public Process getLargestProcess(String state) {
+		// Each state keeps its processes in a heap by size, so the largest (the first of them, if there's a tie) is always on top
+		return this.systemStates[ProcessState.forName(state).ordinal()].getLargest(); // Process may be null. We may not get back a process
 	}
 
 	// Public function to get the number of processes in a given state
 	public int getProcessCount(String state) {
-		// Let's grab a list of all of the current processes in the given state
-		List<Process> processes = this.getProcesses(state);
+		return this.getProcessCount(ProcessState.forName(state));
+	}
 
-		// Return the lists size
-		return processes.size();
+	// Public function to get the number of processes in a given state
+	public int getProcessCount(ProcessState state) {
+		return this.systemStates[state.ordinal()].size();
 	}
 
 	// Public function to change the state of a process given the Event
 	public boolean changeProcessState(Event event) {
 		// Let's first check if the destination state isn't full
-		if (this.isStateFull(event.to) != true) {
-			// Let's get the first process in the "from" location; "First-out"
-			Process process = this.getProcess(event.from); // May be null
+		if (this.isStateFull(event.toState) != true) {
+			// Let's take the first process out of the "from" location; "First-out"
+			// (Unless it's Ready and there's a scheduler, in which case it's the process the scheduler picks, or it's Ready or Run and there are cores)
+			Process process;
+
+			if ((this.scheduler != null && event.fromState == ProcessState.READY)
+				|| (this.cores != null && (event.fromState == ProcessState.READY || event.fromState == ProcessState.RUN))) {
+				process = this.getProcess(event.fromState); // May be null
+
+				if (process != null) {
+					this.removeProcessFromState(process, event.fromState);
+				}
+			}
+			else {
+				process = this.systemStates[event.fromState.ordinal()].poll(); // May be null
+			}
 
 			// If we actually got back a process
 			if (process != null) {
-				// Let's remove the process from the original state
-				// AND Let's now add the process to the destination state
-				if (this.removeProcessFromState(process, event.from) && this.addProcess(process, event.to)) {
+				// Let's now add the process to the destination state
+				if (this.addProcess(process, event.toState)) {
 					// If we made it here, everything worked
 					return true;
 				}
@@ -191,7 +325,7 @@ public class EventManager {
 	public boolean changeProcessStateToHold(Process process, String fromState) {
 		// Let's remove the process from the original state
 		// AND Let's now add the process to the Hold state
-		if (this.removeProcessFromState(process, fromState) && this.addProcess(process, "Hold")) {
+		if (this.removeProcessFromState(process, ProcessState.forName(fromState)) && this.addProcess(process, ProcessState.HOLD)) {
 			// If we made it here, everything worked
 			return true;
 		}
@@ -205,22 +339,41 @@ public class EventManager {
 		// Let's keep count
 		int mostProcesses = 0;
 
-		// Let's get all of the keys in the map
-		Set<String> keys = this.systemStates.keySet();
-
-		// Loop through each key
-		for (String state : keys) {
-			// Let's get the number of processes in that state
-			int i = this.getProcessCount(state);
-			
+		// Loop through each state
+		for (ProcessQueue processes : this.systemStates) {
 			// If its larger than our current max
-			if (i > mostProcesses) {
+			if (processes.size() > mostProcesses) {
 				// Set the value
-				mostProcesses = i;
+				mostProcesses = processes.size();
 			}
 		}
 
 		// When we're done, let's return the value
 		return mostProcesses;
 	}
+
+	// Public function to write each state's processes (in order) to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		for (ProcessQueue processes : this.systemStates) {
+			out.writeInt(processes.size());
+
+			for (int i = 0; i < processes.size(); i++) {
+				out.writeInt(processes.get(i).getId());
+			}
+		}
+	}
+
+	// Public function to read each state's processes back from a checkpoint (the states' limits never change, so they aren't saved)
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.buildStateMap();
+
+		// Adding them back in order gives each queue the same order (and, since ties go to the earliest, the same largest process)
+		for (ProcessQueue processes : this.systemStates) {
+			int count = in.readInt();
+
+			for (int i = 0; i < count; i++) {
+				processes.add(processesById[in.readInt()]);
+			}
+		}
+	}
 }
@@ -0,0 +1,17 @@
+/*
+ * Event Queue interface
+ * The pending events of the discrete-event engine, handed back earliest first (and, at the same time, in the order they were added)
+ */
+interface EventQueue {
+	// Function to add an event to the queue
+	public void add(ScheduledEvent event);
+
+	// Function to take the earliest event out of the queue (or null, if it's empty)
+	public ScheduledEvent poll();
+
+	// Function to get the number of events in the queue
+	public int size();
+
+	// Function to check if the queue is empty
+	public boolean isEmpty();
+}
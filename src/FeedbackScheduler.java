@@ -0,0 +1,115 @@
+// Imports (libraries and utilities)
+import java.util.Arrays;
+
+/*
+ * Feedback Scheduler class
+ * Multi-Level Feedback Queue: every process starts on the top level, with the shortest time slice
+ * A process that uses up its whole time slice drops a level (with a longer slice), so the CPU-hungry ones sink below the ones that give the CPU up
+ * The highest level with a ready process always runs first (taking the CPU from a lower level's process as soon as it's ready),
+ * and every so often every process is boosted back up to the top, so none of them can starve at the bottom
+ */
+class FeedbackScheduler extends CpuScheduler {
+	// Declare final variables (constants)
+	private static final int[] TIME_SLICES = {3, 6, 12}; // The time slice of each level, from the top
+	private static final int BOOST_INTERVAL = 60; // How often every process is boosted back up to the top level
+
+	// Declare properties
+	private int[] levels; // The level of each process, by id (only meaningful if it was set since the last boost)
+	private int[] levelBoosts; // The boost each process's level was set after, by id
+	private int boostCount;
+	private long lastBoostTime;
+
+	// Constructor
+	public FeedbackScheduler(SimulationContext context) {
+		super("MLFQ", context);
+
+		this.levels = new int[16];
+		this.levelBoosts = new int[16];
+	}
+
+	// Private function to get the level of a process (every process is on the top level until it drops)
+	private int getLevel(Process process) {
+		int id = process.getId();
+
+		if (id >= this.levels.length || this.levelBoosts[id] != this.boostCount) {
+			return 0;
+		}
+
+		return this.levels[id];
+	}
+
+	// Private function to set the level of a process
+	private void setLevel(Process process, int level) {
+		int id = process.getId();
+
+		// Make sure our id tables are large enough for the process id
+		if (id >= this.levels.length) {
+			int capacity = Math.max(id + 1, this.levels.length * 2);
+
+			this.levels = Arrays.copyOf(this.levels, capacity);
+			this.levelBoosts = Arrays.copyOf(this.levelBoosts, capacity);
+		}
+
+		this.levels[id] = level;
+		this.levelBoosts[id] = this.boostCount;
+	}
+
+	// Private function to boost every process back up to the top level, if it's time to
+	private void boostIfDue() {
+		if (this.context.getTime() - this.lastBoostTime < BOOST_INTERVAL) {
+			return;
+		}
+
+		// Rather than going through every process, let's just make every level set before now not count anymore
+		this.boostCount++;
+		this.lastBoostTime = this.context.getTime();
+		this.ready.rekeyAll(0);
+	}
+
+	// Protected function to get the key a ready process is ordered by (its level, so the top level comes first)
+	protected long getKey(Process process) {
+		return this.getLevel(process);
+	}
+
+	// Public function to get how long a process may run before it has to make way for the next one (the lower its level, the longer)
+	public int getTimeSlice(Process process) {
+		return TIME_SLICES[this.getLevel(process)];
+	}
+
+	// Public function to check if the next ready process is on a higher level than the running one
+	public boolean shouldPreempt(Process running, int remainingTime) {
+		this.boostIfDue();
+
+		return this.ready.isEmpty() != true && this.ready.peekKey() < this.getLevel(running);
+	}
+
+	// Public function to drop a process a level, if it used up its whole time slice
+	public void processDescheduled(Process process, boolean usedTimeSlice) {
+		int level = this.getLevel(process);
+
+		if (usedTimeSlice && level < TIME_SLICES.length - 1) {
+			this.setLevel(process, level + 1);
+		}
+	}
+
+	// Public function to hear that a process has gone into the "Done" state (its id may be re-used, so it mustn't leave its level behind)
+	public void processDone(Process process) {
+		this.setLevel(process, 0);
+
+		super.processDone(process);
+	}
+
+	// Public function to get the process that should run next (or null, if nothing is ready)
+	public Process getNextProcess() {
+		this.boostIfDue();
+
+		return super.getNextProcess();
+	}
+
+	// Public function to hear that a process has come into the Ready state
+	public void processReady(Process process) {
+		this.boostIfDue();
+
+		super.processReady(process);
+	}
+}
@@ -0,0 +1,407 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * Free Block Index class
+ * An ordered index of the empty memory blocks, keyed by (size, address)
+ * It's a treap built out of primitive arrays, so no objects are created per block
+ * Each node also keeps the lowest address in its subtree, which lets us answer "first fit" without a scan
+ * Every block carries an int value (whatever handle the memory map uses for it), which is what the find functions return
+ */
+class FreeBlockIndex {
+	// Declare final variables (constants)
+	private static final int NIL = -1; // The "null" node reference
+	private static final int INITIAL_CAPACITY = 16; // The initial number of nodes to allocate room for
+
+	// Declare properties
+	private int[] blockSize;
+	private int[] blockAddress;
+	private int[] blockValue;
+	private int[] priority;
+	private int[] left;
+	private int[] right;
+	private int[] minNode; // The lowest addressed node in each node's subtree
+	private int root;
+	private int freeNode; // The head of the list of reusable nodes (linked through the "left" array)
+	private int nextNode; // The next never-used node
+	private int count;
+	private long probes; // The number of nodes looked at by the find functions
+
+	// Constructor
+	public FreeBlockIndex() {
+		// Let's allocate our initial arrays
+		this.blockSize = new int[INITIAL_CAPACITY];
+		this.blockAddress = new int[INITIAL_CAPACITY];
+		this.blockValue = new int[INITIAL_CAPACITY];
+		this.priority = new int[INITIAL_CAPACITY];
+		this.left = new int[INITIAL_CAPACITY];
+		this.right = new int[INITIAL_CAPACITY];
+		this.minNode = new int[INITIAL_CAPACITY];
+
+		// Let's start out empty
+		this.clear();
+	}
+
+	// Public function to empty the index
+	public void clear() {
+		this.root = NIL;
+		this.freeNode = NIL;
+		this.nextNode = 0;
+		this.count = 0;
+	}
+
+	// Public function to get the number of empty blocks in the index
+	public int size() {
+		return this.count;
+	}
+
+	// Public function to add an empty block to the index
+	public void insert(int size, int address, int value) {
+		this.root = this.insertNode(this.root, this.createNode(size, address, value));
+		this.count++;
+	}
+
+	// Public function to remove an empty block from the index
+	public void remove(int size, int address) {
+		this.root = this.removeNode(this.root, size, address);
+		this.count--;
+	}
+
+	// Public function to get the value of the smallest block that fits the given size (lowest address on ties)
+	public int findBest(int size) {
+		// Let's find the first node in (size, address) order that's at least as big as the given size
+		int found = this.ceiling(size);
+
+		if (found == NIL) {
+			return -1;
+		}
+
+		return this.blockValue[found];
+	}
+
+	// Public function to get the value of the largest block, as long as the given size fits in it (lowest address on ties)
+	public int findWorst(int size) {
+		int node = this.root;
+
+		// If there are no blocks, nothing will fit
+		if (node == NIL) {
+			return -1;
+		}
+
+		// The largest key is the right-most node
+		this.probes++;
+
+		while (this.right[node] != NIL) {
+			node = this.right[node];
+			this.probes++;
+		}
+
+		// If the largest block is too small, nothing will fit
+		int largestSize = this.blockSize[node];
+
+		if (largestSize < size) {
+			return -1;
+		}
+
+		// Otherwise, the first block of the largest size is the one we want
+		return this.blockValue[this.ceiling(largestSize)];
+	}
+
+	// Public function to get the value of the lowest addressed block that fits the given size
+	public int findFirst(int size) {
+		int found = NIL;
+		int node = this.root;
+
+		// Walk down the tree. Once a node fits, everything to its right fits too
+		while (node != NIL) {
+			this.probes++;
+
+			if (this.blockSize[node] >= size) {
+				// Let's see if this node or its right subtree holds a lower address than we've found so far
+				found = this.lowerAddress(found, node);
+				found = this.lowerAddress(found, this.getMinNode(this.right[node]));
+				node = this.left[node];
+			}
+			else {
+				node = this.right[node];
+			}
+		}
+
+		if (found == NIL) {
+			return -1;
+		}
+
+		return this.blockValue[found];
+	}
+
+	// Public function to get the size of the largest empty block (or 0 if there are none)
+	public int getLargestSize() {
+		int node = this.root;
+
+		// An empty index has no largest block
+		if (node == NIL) {
+			return 0;
+		}
+
+		// The largest key is the right-most node
+		while (this.right[node] != NIL) {
+			node = this.right[node];
+		}
+
+		return this.blockSize[node];
+	}
+
+	// Public function to get the number of nodes the find functions have looked at
+	public long getProbeCount() {
+		return this.probes;
+	}
+
+	// Private function to find the first node whose size is at least the given size
+	private int ceiling(int size) {
+		int found = NIL;
+		int node = this.root;
+
+		while (node != NIL) {
+			this.probes++;
+
+			if (this.blockSize[node] >= size) {
+				found = node;
+				node = this.left[node];
+			}
+			else {
+				node = this.right[node];
+			}
+		}
+
+		return found;
+	}
+
+	// Private function to compare a node to a (size, address) key
+	private int compare(int node, int size, int address) {
+		if (this.blockSize[node] != size) {
+			return (this.blockSize[node] < size) ? -1 : 1;
+		}
+		if (this.blockAddress[node] != address) {
+			return (this.blockAddress[node] < address) ? -1 : 1;
+		}
+
+		return 0;
+	}
+
+	// Private recursive function to insert a node into a subtree, returning the subtree's new root
+	private int insertNode(int node, int newNode) {
+		if (node == NIL) {
+			return newNode;
+		}
+
+		if (this.compare(node, this.blockSize[newNode], this.blockAddress[newNode]) > 0) {
+			this.left[node] = this.insertNode(this.left[node], newNode);
+
+			if (this.priority[this.left[node]] > this.priority[node]) {
+				node = this.rotateRight(node);
+			}
+		}
+		else {
+			this.right[node] = this.insertNode(this.right[node], newNode);
+
+			if (this.priority[this.right[node]] > this.priority[node]) {
+				node = this.rotateLeft(node);
+			}
+		}
+
+		this.update(node);
+
+		return node;
+	}
+
+	// Private recursive function to remove a key from a subtree, returning the subtree's new root
+	private int removeNode(int node, int size, int address) {
+		if (node == NIL) {
+			throw new IllegalStateException("Empty block " + address + "/" + size + "k is not in the index");
+		}
+
+		int comparison = this.compare(node, size, address);
+
+		if (comparison > 0) {
+			this.left[node] = this.removeNode(this.left[node], size, address);
+		}
+		else if (comparison < 0) {
+			this.right[node] = this.removeNode(this.right[node], size, address);
+		}
+		else {
+			// We found it. If it has less than two children, we can just splice it out
+			if (this.left[node] == NIL || this.right[node] == NIL) {
+				int child = (this.left[node] == NIL) ? this.right[node] : this.left[node];
+
+				this.releaseNode(node);
+
+				return child;
+			}
+
+			// Otherwise, rotate it down towards the child with the higher priority and keep going
+			if (this.priority[this.left[node]] > this.priority[this.right[node]]) {
+				node = this.rotateRight(node);
+				this.right[node] = this.removeNode(this.right[node], size, address);
+			}
+			else {
+				node = this.rotateLeft(node);
+				this.left[node] = this.removeNode(this.left[node], size, address);
+			}
+		}
+
+		this.update(node);
+
+		return node;
+	}
+
+	// Private function to rotate a subtree to the right
+	private int rotateRight(int node) {
+		int pivot = this.left[node];
+
+		this.left[node] = this.right[pivot];
+		this.right[pivot] = node;
+
+		this.update(node);
+		this.update(pivot);
+
+		return pivot;
+	}
+
+	// Private function to rotate a subtree to the left
+	private int rotateLeft(int node) {
+		int pivot = this.right[node];
+
+		this.right[node] = this.left[pivot];
+		this.left[pivot] = node;
+
+		this.update(node);
+		this.update(pivot);
+
+		return pivot;
+	}
+
+	// Private function to recalculate a node's lowest addressed node in its subtree
+	private void update(int node) {
+		int lowest = node;
+
+		lowest = this.lowerAddress(lowest, this.getMinNode(this.left[node]));
+		lowest = this.lowerAddress(lowest, this.getMinNode(this.right[node]));
+
+		this.minNode[node] = lowest;
+	}
+
+	// Private function to get the lowest addressed node in a subtree
+	private int getMinNode(int node) {
+		if (node == NIL) {
+			return NIL;
+		}
+
+		return this.minNode[node];
+	}
+
+	// Private function to pick whichever of two nodes has the lower address
+	private int lowerAddress(int nodeOne, int nodeTwo) {
+		if (nodeOne == NIL) {
+			return nodeTwo;
+		}
+		if (nodeTwo == NIL || this.blockAddress[nodeOne] < this.blockAddress[nodeTwo]) {
+			return nodeOne;
+		}
+
+		return nodeTwo;
+	}
+
+	// Private function to get a fresh node for the given key
+	private int createNode(int size, int address, int value) {
+		int node;
+
+		// Let's reuse a released node if we have one
+		if (this.freeNode != NIL) {
+			node = this.freeNode;
+			this.freeNode = this.left[node];
+		}
+		else {
+			// Make sure we have room for another node
+			if (this.nextNode == this.blockSize.length) {
+				this.grow();
+			}
+
+			node = this.nextNode++;
+		}
+
+		this.blockSize[node] = size;
+		this.blockAddress[node] = address;
+		this.blockValue[node] = value;
+		this.priority[node] = mix(address);
+		this.left[node] = NIL;
+		this.right[node] = NIL;
+		this.minNode[node] = node;
+
+		return node;
+	}
+
+	// Private function to give a node back for reuse
+	private void releaseNode(int node) {
+		this.left[node] = this.freeNode;
+		this.freeNode = node;
+	}
+
+	// Private function to double the capacity of the node arrays
+	private void grow() {
+		int capacity = this.blockSize.length * 2;
+
+		this.blockSize = Arrays.copyOf(this.blockSize, capacity);
+		this.blockAddress = Arrays.copyOf(this.blockAddress, capacity);
+		this.blockValue = Arrays.copyOf(this.blockValue, capacity);
+		this.priority = Arrays.copyOf(this.priority, capacity);
+		this.left = Arrays.copyOf(this.left, capacity);
+		this.right = Arrays.copyOf(this.right, capacity);
+		this.minNode = Arrays.copyOf(this.minNode, capacity);
+	}
+
+	// Private function to scramble an address into a (deterministic) treap priority
+	private static int mix(int value) {
+		value ^= (value >>> 16);
+		value *= 0x85ebca6b;
+		value ^= (value >>> 13);
+		value *= 0xc2b2ae35;
+		value ^= (value >>> 16);
+
+		return value;
+	}
+
+	// Public function to write the index's whole treap to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		Checkpoint.writeInts(out, this.blockSize);
+		Checkpoint.writeInts(out, this.blockAddress);
+		Checkpoint.writeInts(out, this.blockValue);
+		Checkpoint.writeInts(out, this.priority);
+		Checkpoint.writeInts(out, this.left);
+		Checkpoint.writeInts(out, this.right);
+		Checkpoint.writeInts(out, this.minNode);
+		out.writeInt(this.root);
+		out.writeInt(this.freeNode);
+		out.writeInt(this.nextNode);
+		out.writeInt(this.count);
+		out.writeLong(this.probes);
+	}
+
+	// Public function to read the index's whole treap back from a checkpoint
+	public void readState(DataInput in) throws IOException {
+		this.blockSize = Checkpoint.readInts(in);
+		this.blockAddress = Checkpoint.readInts(in);
+		this.blockValue = Checkpoint.readInts(in);
+		this.priority = Checkpoint.readInts(in);
+		this.left = Checkpoint.readInts(in);
+		this.right = Checkpoint.readInts(in);
+		this.minNode = Checkpoint.readInts(in);
+		this.root = in.readInt();
+		this.freeNode = in.readInt();
+		this.nextNode = in.readInt();
+		this.count = in.readInt();
+		this.probes = in.readLong();
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Generated Workload class
+ * A workload of a set number of processes, with their sizes and CPU times drawn from a distribution (using the simulation's random numbers)
+ * The processes arrive at random (as a Poisson process, with the given average time between arrivals), or all at once, if that time is 0
+ */
+class GeneratedWorkload implements WorkloadSource {
+	// Declare properties
+	private long processCount; // The number of processes in the workload
+	private WorkloadDistribution distribution;
+	private double arrivalGap; // The average time between arrivals (0 if every process arrives at the start)
+	private double nextArrivalTime;
+	private long createdCount;
+
+	// Constructor
+	public GeneratedWorkload(long processCount, WorkloadDistribution distribution, double arrivalGap) {
+		// Set the properties
+		this.processCount = processCount;
+		this.distribution = distribution;
+		this.arrivalGap = arrivalGap;
+	}
+
+	// Public function to check if the workload has another process
+	public boolean hasNext() {
+		return this.createdCount < this.processCount;
+	}
+
+	// Public function to get the time the next process arrives
+	public long peekArrivalTime() {
+		return (long) this.nextArrivalTime;
+	}
+
+	// Public function to create the next process, in the given simulation (or null, if there are no more)
+	public Process nextProcess(SimulationContext context) {
+		if (this.hasNext() != true) {
+			return null;
+		}
+
+		// Let's draw the process's size and time, and say it arrived when it was due to
+		int size = Process.generateSize(context.getRandom(), this.distribution);
+		int time = Process.generateTime(context.getRandom(), this.distribution);
+		Process process = context.createProcess(size, time);
+
+		process.setArrivalTime(this.peekArrivalTime());
+		this.createdCount++;
+
+		// And let's work out when the one after it arrives (the time between arrivals is exponentially distributed)
+		if (this.arrivalGap > 0) {
+			this.nextArrivalTime += -this.arrivalGap * Math.log(1.0 - context.getRandom().nextDouble());
+		}
+
+		return process;
+	}
+
+	// Public function to get the number of processes the workload has created
+	public long getCreatedCount() {
+		return this.createdCount;
+	}
+
+	// Public function to let go of anything the workload has open (it's generated, so there's nothing)
+	public void close() {
+	}
+
+	// Public function to describe the workload
+	public String getDescription() {
+		String arrivals = "all arriving at the start";
+
+		if (this.arrivalGap > 0) {
+			arrivals = "arriving every " + String.format("%.2f", this.arrivalGap) + " time units on average";
+		}
+
+		return this.processCount + " processes with " + this.distribution.getName() + " sizes and times, " + arrivals;
+	}
+}
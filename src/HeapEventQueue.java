@@ -0,0 +1,86 @@
+/*
+ * Heap Event Queue class
+ * The pending events kept in a binary min-heap (in an array), so adding an event and taking the earliest one are both O(log n)
+ */
+class HeapEventQueue implements EventQueue {
+	// Declare properties
+	private ScheduledEvent[] heap;
+	private int size;
+
+	// Constructor
+	public HeapEventQueue() {
+		this.heap = new ScheduledEvent[64];
+	}
+
+	// Public function to add an event to the queue
+	public void add(ScheduledEvent event) {
+		// If we've run out of room, let's double it
+		if (this.size == this.heap.length) {
+			ScheduledEvent[] heap = new ScheduledEvent[this.heap.length * 2];
+			System.arraycopy(this.heap, 0, heap, 0, this.size);
+			this.heap = heap;
+		}
+
+		// Let's put it at the bottom, and sift it up past every later event above it
+		int position = this.size++;
+
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+
+			if (event.isBefore(this.heap[parent]) != true) {
+				break;
+			}
+
+			this.heap[position] = this.heap[parent];
+			position = parent;
+		}
+
+		this.heap[position] = event;
+	}
+
+	// Public function to take the earliest event out of the queue (or null, if it's empty)
+	public ScheduledEvent poll() {
+		if (this.size == 0) {
+			return null;
+		}
+
+		ScheduledEvent earliest = this.heap[0];
+		ScheduledEvent last = this.heap[--this.size];
+		this.heap[this.size] = null;
+
+		// Let's put the last event on top, and sift it down past every earlier event below it
+		if (this.size > 0) {
+			int position = 0;
+			int half = this.size >>> 1;
+
+			while (position < half) {
+				int child = (position * 2) + 1;
+
+				if (child + 1 < this.size && this.heap[child + 1].isBefore(this.heap[child])) {
+					child++;
+				}
+
+				if (this.heap[child].isBefore(last) != true) {
+					break;
+				}
+
+				this.heap[position] = this.heap[child];
+				position = child;
+			}
+
+			this.heap[position] = last;
+		}
+
+		return earliest;
+	}
+
+	// Public function to get the number of events in the queue
+	public int size() {
+		return this.size;
+	}
+
+	// Public function to check if the queue is empty
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+}
@@ -0,0 +1,440 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * List Memory Map class
+ * The original memory map: an array list of processes in address order, with "dead" processes standing in for empty blocks
+ * Its block handles are simply the block addresses
+ */
+class ListMemoryMap implements MemoryMap {
+	// Declare properties
+	private ArrayList<Process> systemMemory;
+	private ArrayList<Process> spareBlocks; // The dead processes of empty blocks that have since been merged away or filled, ready to be re-used
+	private FreeBlockIndex freeBlocks; // The empty blocks, indexed by size and address
+	private int freeMemory; // The total amount of empty memory
+	private int roverAddress; // The "next fit" roving pointer: the address right after the last allocation
+	private long nextFitProbes; // The number of blocks looked at by next fit (the index counts the other fits)
+	private long merges;
+
+	// Constructor
+	public ListMemoryMap(int memorySize) {
+		// First of all, let's instanciate the memory list
+		this.systemMemory = Lists.newArrayList();
+
+		// Let's also instanciate the index of empty blocks, and the spare dead processes
+		this.freeBlocks = new FreeBlockIndex();
+		this.spareBlocks = Lists.newArrayList();
+
+		// Now, let's create a dead process signifying the amount of empty space in the memory
+		Process deadProcess = new Process(memorySize, true);
+		deadProcess.setAddress(0);
+
+		// Ok, let's add the dead process to memory as our initially completely empty single block
+		this.systemMemory.add(deadProcess);
+		this.freeBlocks.insert(deadProcess.getSize(), deadProcess.getAddress(), deadProcess.getAddress());
+		this.freeMemory = memorySize;
+	}
+
+	// Private function to get a dead process for an empty block, re-using a spare one if there is one (so freeing a block doesn't create anything)
+	private Process createDeadProcess(int size, int address) {
+		Process deadProcess = null;
+
+		if (this.spareBlocks.isEmpty() != true) {
+			deadProcess = this.spareBlocks.remove(this.spareBlocks.size() - 1);
+
+			try {
+				deadProcess.resize(size);
+			}
+			catch (Exception exception) {
+				// Only show if debugMode is on
+				if (Simulation.debugMode) {
+					System.out.println("Spare dead process failed to be resized with exception: " + exception);
+				}
+
+				deadProcess = null;
+			}
+		}
+
+		if (deadProcess == null) {
+			deadProcess = new Process(size, true);
+		}
+
+		deadProcess.setAddress(address);
+
+		return deadProcess;
+	}
+
+	// Private function to get the list index of the memory block that starts at the given address
+	private int getBlockIndex(int address) {
+		// The blocks are kept in address order, so let's binary search for it
+		int low = 0;
+		int high = this.systemMemory.size() - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int middleAddress = this.systemMemory.get(middle).getAddress();
+
+			if (middleAddress < address) {
+				low = middle + 1;
+			}
+			else if (middleAddress > address) {
+				high = middle - 1;
+			}
+			else {
+				return middle;
+			}
+		}
+
+		// Ok, for a "hey we didn't find one" scenario, let's return a -1
+		return -1;
+	}
+
+	// Public function to get the address of the smallest empty block the given size fits into
+	public int findBestFit(int size) {
+		return this.freeBlocks.findBest(size);
+	}
+
+	// Public function to get the address of the largest empty block, if the given size fits into it
+	public int findWorstFit(int size) {
+		return this.freeBlocks.findWorst(size);
+	}
+
+	// Public function to get the address of the lowest addressed empty block the given size fits into
+	public int findFirstFit(int size) {
+		return this.freeBlocks.findFirst(size);
+	}
+
+	// Public function to get the address of the next empty block the given size fits into, starting from the roving pointer
+	public int findNextFit(int size) {
+		int blockCount = this.systemMemory.size();
+
+		// Let's start at the block the roving pointer is in (it may be in the middle of a block that's since been merged)
+		int startIndex = this.getContainingBlockIndex(this.roverAddress);
+		Process startBlock = this.systemMemory.get(startIndex);
+
+		// If the last allocation went right up to the end of memory, we start over at the beginning
+		if (startBlock.getAddress() + startBlock.getSize() <= this.roverAddress) {
+			startIndex = (startIndex + 1) % blockCount;
+		}
+
+		// Now let's walk forward through every block once, wrapping around at the end
+		for (int i = 0; i < blockCount; i++) {
+			Process processBlock = this.systemMemory.get((startIndex + i) % blockCount);
+			this.nextFitProbes++;
+
+			// If we find an empty process block AND the block is large enough for the given size
+			if (processBlock.isProcessDead() && processBlock.getSize() >= size) {
+				return processBlock.getAddress();
+			}
+		}
+
+		// Ok, for a "hey we didn't find one" scenario, let's return a -1
+		return -1;
+	}
+
+	// Private function to get the list index of the memory block that contains the given address
+	private int getContainingBlockIndex(int address) {
+		// The blocks are kept in address order, so let's binary search for the last block starting at or before the address
+		int low = 0;
+		int high = this.systemMemory.size() - 1;
+		int found = 0;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+
+			if (this.systemMemory.get(middle).getAddress() <= address) {
+				found = middle;
+				low = middle + 1;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+
+		return found;
+	}
+
+	// Public function to place a process at the start of the empty block at the given address
+	public boolean allocate(int destinationAddress, Process process) {
+		try {
+			// Let's find where the empty block at that address sits in our list
+			int destinationIndex = this.getBlockIndex(destinationAddress);
+
+			// So, let's add the given process to memory at the destination address
+			this.systemMemory.add(destinationIndex, process);
+			process.setAddress(destinationAddress);
+
+			// Now that its added, let's either redude the size of the empty block or remove it
+			// Let's first get the process from the now shifted (by 1) index of the original empty block
+			Process oldEmptyBlock = this.systemMemory.get(destinationIndex + 1);
+
+			// The empty block is about to change, so let's take it out of the index
+			this.freeBlocks.remove(oldEmptyBlock.getSize(), oldEmptyBlock.getAddress());
+
+			// If the newly address process is the same size as the old empty block
+			if (process.getSize() == oldEmptyBlock.getSize()) {
+				// Let's just remove the old empty block (keeping its dead process for the next free)
+				this.systemMemory.remove(destinationIndex + 1);
+				this.spareBlocks.add(oldEmptyBlock);
+			}
+			else {
+				// Let's create our new size
+				int newSize = oldEmptyBlock.getSize() - process.getSize();
+
+				// Let's resize the empty process block, which now starts right after the process
+				oldEmptyBlock.resize(newSize);
+				oldEmptyBlock.setAddress(destinationAddress + process.getSize());
+
+				// And put it back in the index
+				this.freeBlocks.insert(oldEmptyBlock.getSize(), oldEmptyBlock.getAddress(), oldEmptyBlock.getAddress());
+			}
+
+			// Let's keep track of how much memory is left
+			this.freeMemory -= process.getSize();
+
+			// Let's move the roving pointer to just after the process
+			this.roverAddress = destinationAddress + process.getSize();
+
+			// If it worked, return true
+			return true;
+		}
+		catch (Exception exception) {
+			// Only show if debugMode is on
+			if (Simulation.debugMode) {
+				System.out.println("Process failed to add with exception: " + exception);
+			}
+		}
+
+		// It must not have worked
+		return false;
+	}
+
+	// Private function to merge two adjacent empty memory blocks (the block at the given index and the one after it) into one empty memory block with the size of the sum of the two empty blocks
+	private boolean mergeEmptyBlocks(int index) {
+		// Let's get the two blocks
+		Process emptyBlockOne = this.systemMemory.get(index);
+		Process emptyBlockTwo = this.systemMemory.get(index + 1);
+
+		// DON'T EVEN ATTEMPT to do this unless both of the processes are empty/dead processes
+		if (emptyBlockOne.isProcessDead() && emptyBlockTwo.isProcessDead()) {
+			// Let's figure out the new block size
+			int newSize = emptyBlockOne.getSize() + emptyBlockTwo.getSize();
+
+			try {
+				// Both blocks are about to change, so let's take them out of the index
+				this.freeBlocks.remove(emptyBlockOne.getSize(), emptyBlockOne.getAddress());
+				this.freeBlocks.remove(emptyBlockTwo.getSize(), emptyBlockTwo.getAddress());
+
+				// Let's just remove the second empty block (keeping its dead process for the next free)
+				this.systemMemory.remove(index + 1);
+				this.spareBlocks.add(emptyBlockTwo);
+
+				// Let's resize the empty process block
+				emptyBlockOne.resize(newSize);
+
+				// And put the merged block back in the index
+				this.freeBlocks.insert(emptyBlockOne.getSize(), emptyBlockOne.getAddress(), emptyBlockOne.getAddress());
+				this.merges++;
+
+				return true;
+			}
+			catch (Exception exception) {
+				// Only show if debugMode is on
+				if (Simulation.debugMode) {
+					System.out.println("Problem merging empty blocks with exception: " + exception);
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Private function to merge a newly freed block with its neighbors (boundary-tag style)
+	 * Since we merge on every free, no two empty blocks are ever adjacent, so only the immediate neighbors need checking
+	 */
+	private void coalesceBlock(int index) {
+		// Let's merge with the right neighbor first, so the given index stays valid
+		if (index + 1 < this.systemMemory.size()) {
+			this.mergeEmptyBlocks(index);
+		}
+
+		// Now let's merge with the left neighbor
+		if (index > 0) {
+			this.mergeEmptyBlocks(index - 1);
+		}
+	}
+
+	// Public function to free a process's block
+	public boolean free(Process process) {
+		// Let's get the index of the process in the array list
+		int index = this.getBlockIndex(process.getAddress());
+
+		// Make sure the block we found actually belongs to the given process
+		if (index > -1 && this.systemMemory.get(index) != process) {
+			index = -1;
+		}
+
+		// Ok, so instead of destroying our memory configuration by simply removing the process from memory...
+		// Let's create (or re-use) a dead process to replace our current process
+		Process deadProcess = this.createDeadProcess(process.getSize(), process.getAddress());
+
+		try {
+			// Let's replace the given process's block with an empty/dead process block of the same size
+			this.systemMemory.set(index, deadProcess);
+			this.freeBlocks.insert(deadProcess.getSize(), deadProcess.getAddress(), deadProcess.getAddress());
+			this.freeMemory += process.getSize();
+			process.setAddress(-1);
+
+			// Now, let's merge the block with any adjacent empty blocks
+			this.coalesceBlock(index);
+
+			// Cool, it worked
+			return true;
+		}
+		catch (IndexOutOfBoundsException exception) {
+			// Only show if debugMode is on
+			if (Simulation.debugMode) {
+				System.out.println("Dead process failed to be replaced with exception: " + exception);
+			}
+		}
+
+		return false;
+	}
+
+	// Public function to slide every process down to the lowest addresses, leaving a single empty block at the end
+	public int compact() {
+		// Let's keep track of how much memory has to be copied
+		int movedMemory = 0;
+		int address = 0;
+
+		// Let's pack the live processes together at the front of the memory list (in place), keeping the dead processes as spares
+		int liveCount = 0;
+
+		for (int i = 0; i < this.systemMemory.size(); i++) {
+			Process processBlock = this.systemMemory.get(i);
+
+			if (processBlock.isProcessDead() != true) {
+				// If the process has to move, its memory has to be copied
+				if (processBlock.getAddress() != address) {
+					movedMemory += processBlock.getSize();
+					processBlock.setAddress(address);
+				}
+
+				this.systemMemory.set(liveCount++, processBlock);
+				address += processBlock.getSize();
+			}
+			else {
+				this.spareBlocks.add(processBlock);
+			}
+		}
+
+		while (this.systemMemory.size() > liveCount) {
+			this.systemMemory.remove(this.systemMemory.size() - 1);
+		}
+
+		// Now, all of the empty memory becomes one block at the end
+		this.freeBlocks.clear();
+
+		if (this.freeMemory > 0) {
+			Process deadProcess = this.createDeadProcess(this.freeMemory, address);
+
+			this.systemMemory.add(deadProcess);
+			this.freeBlocks.insert(deadProcess.getSize(), deadProcess.getAddress(), deadProcess.getAddress());
+		}
+
+		// The next allocation should start at the one empty block
+		this.roverAddress = address;
+
+		return movedMemory;
+	}
+
+	// Public function to get the total amount of empty memory
+	public int getFreeMemory() {
+		return this.freeMemory;
+	}
+
+	// Public function to get the size of the largest empty block
+	public int getLargestFreeBlock() {
+		return this.freeBlocks.getLargestSize();
+	}
+
+	// Public function to get the number of empty blocks
+	public int getFreeBlockCount() {
+		return this.freeBlocks.size();
+	}
+
+	// Public function to get the total number of blocks the find functions have looked at
+	public long getProbeCount() {
+		return this.freeBlocks.getProbeCount() + this.nextFitProbes;
+	}
+
+	// Public function to get the total number of empty block merges
+	public long getMergeCount() {
+		return this.merges;
+	}
+
+	// Public function to get the internal fragmentation (variable partitions are always exactly the size of their process)
+	public int getInternalFragmentation() {
+		return 0;
+	}
+
+	// Public function to get an array list representation of the memory blocks
+	public ArrayList<Process> getMemoryArrayList() {
+		return this.systemMemory;
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		// Each block is its process's id, or a -1 and the size and address of its "dead" process
+		out.writeInt(this.systemMemory.size());
+		for (Process process : this.systemMemory) {
+			if (process.isProcessDead() != true) {
+				out.writeInt(process.getId());
+			}
+			else {
+				out.writeInt(-1);
+				out.writeInt(process.getSize());
+				out.writeInt(process.getAddress());
+			}
+		}
+
+		this.freeBlocks.writeState(out);
+		out.writeInt(this.freeMemory);
+		out.writeInt(this.roverAddress);
+		out.writeLong(this.nextFitProbes);
+		out.writeLong(this.merges);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		int blockCount = in.readInt();
+		this.systemMemory = Lists.newArrayListWithCapacity(blockCount);
+
+		for (int i = 0; i < blockCount; i++) {
+			int id = in.readInt();
+
+			if (id != -1) {
+				this.systemMemory.add(processesById[id]);
+			}
+			else {
+				Process deadProcess = new Process(in.readInt(), true);
+				deadProcess.setAddress(in.readInt());
+
+				this.systemMemory.add(deadProcess);
+			}
+		}
+
+		this.freeBlocks.readState(in);
+		this.freeMemory = in.readInt();
+		this.roverAddress = in.readInt();
+		this.nextFitProbes = in.readLong();
+		this.merges = in.readLong();
+	}
+}
@@ -1,22 +1,64 @@
 // Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-
-// External imports
-import com.google.common.collect.*;
+import java.util.Arrays;
 
 // Memory Manager class
 public class MemoryManager {
+	// Declare final variables (constants)
+	private static final int COMPACTION_COPY_RATE = 256; // The amount of memory (in k) that compaction can copy per "CPU Time Unit"
+	public static final String[] MEMORY_BACKENDS = {"List", "Array", "Tree", "Bitmap"}; // Every memory map backend there is (for the algorithms that use one)
+	public static final String[] COMPACTION_POLICIES = {"Never", "Failure", "Threshold"}; // Every compaction policy there is
+
 	// Declare properties
-	private ArrayList<Process> systemMemory;
+	private MemoryMap memoryMap; // The backend that actually keeps track of the memory blocks
+	private PagedMemoryMap pagedMemory; // The paged memory map, when the "Paged" algorithm is used (null otherwise)
 	private String memoryAlgorithm;
+	private String memoryBackend;
+	private String replacementPolicy;
+	private String compactionPolicy = "Never"; // When to compact: "Never", on admission "Failure", or past a fragmentation "Threshold"
+	private double compactionThreshold; // The external fragmentation ratio that triggers the "Threshold" policy
+	private int compactionCount;
+	private int compactedMemory; // The total amount of memory copied by compaction
+	private int compactionTime; // The total CPU time spent copying memory
+	private int pendingCompactionTime; // The copying CPU time that hasn't been "paid" yet
+	private int fitCount; // The number of times a process has tried to get into memory (each attempt is one fit, however many times its block is looked for)
+	private int allocationCount; // The number of processes successfully added to memory
+	private int allocationFailures; // The number of attempts where a process couldn't be given a block
+	private int releaseCount; // The number of processes removed from memory
+	private int peakFreeBlockCount;
+	private double peakExternalFragmentation;
+	private double externalFragmentationTotal; // The sum of the external fragmentation after every add and remove (for the mean)
+	private int fragmentationSamples;
 
 	// Constructor
-	public MemoryManager(String memoryAlgorithm) {
+	public MemoryManager(String memoryAlgorithm, String memoryBackend, String replacementPolicy) {
+		// Let's make sure we know the backend (even if the algorithm won't use it, so a bad one is never recorded in a trace or a checkpoint)
+		if (Arrays.asList(MEMORY_BACKENDS).contains(memoryBackend) != true) {
+			throw new IllegalArgumentException("Unknown memory backend: " + memoryBackend);
+		}
+
 		// Let's set some properties
 		this.memoryAlgorithm = memoryAlgorithm;
+		this.memoryBackend = memoryBackend;
+		this.replacementPolicy = PagedMemoryMap.REPLACEMENT_POLICIES[PagedMemoryMap.resolvePolicy(replacementPolicy)]; // (Checked even if it won't be used, so a bad one is never saved in a checkpoint)
 
 		// Let's initialize the Memory Manager
-		this.buildMemoryList();
+		this.buildMemoryMap();
+	}
+
+	// Algorithm and backend constructor
+	public MemoryManager(String memoryAlgorithm, String memoryBackend) {
+		// Let's default to LRU page replacement (only used by the "Paged" algorithm)
+		this(memoryAlgorithm, memoryBackend, "LRU");
+	}
+
+	// Algorithm only constructor
+	public MemoryManager(String memoryAlgorithm) {
+		// Let's default to the original array list backend
+		this(memoryAlgorithm, "List");
 	}
 
 	// No parameter constructor
@@ -25,66 +67,54 @@ public class MemoryManager {
 		this("Best");
 	}
 
-	// Private function to build the system memory array list
-	private void buildMemoryList() {
-		// First of all, let's instanciate the memory manager
-		this.systemMemory = Lists.newArrayList();
-
-		// Now, let's create a dead process signifying the amount of empty space in the memory
-		Process deadProcess = new Process(Simulation.MAX_MEMORY, true);
-
-		// Ok, let's add the dead process to memory as our initially completely empty single block
-		this.systemMemory.add(deadProcess);
-	}
-
-	// Private function to get the address of a dead/empty process block that the given process may fit into 
-	private int getFittingBlockAddress(Process process) {
-		// Let's declare some properties
-		int firstBlock = -1;
-		int smallestBlock = -1;
-		int largestBlock = -1;
-		int smallestBlockSize = Simulation.MAX_MEMORY + 1; // Set the max to an impossible block size
-		int largestBlockSize = -1;
-
-		// Let's loop through our entire memory set
-		for (Process processBlock : this.systemMemory) {
-			// If we find an empty process block (a block with a "dead" process)
-			// AND the block is large enough for the size of the passed process
-			if (processBlock.isProcessDead() == true && processBlock.getSize() >= process.getSize()) {
-				// Let's get the process block's index
-				int blockIndex = this.systemMemory.indexOf(processBlock);
-
-				// Let's get the process's size too
-				int blockSize = processBlock.getSize();
-
-				// If the first block hasn't been set yet, let's set it
-				if (firstBlock == -1) {
-					firstBlock = blockIndex;
-				}
-
-				// If this newly found block is smaller than the smallest we've found so far
-				if (blockSize < smallestBlockSize) {
-					smallestBlock = blockIndex;
-					smallestBlockSize = blockSize;
-				}
-
-				// If this newly found block is larger than the largest we've found so far
-				if (blockSize > largestBlockSize) {
-					largestBlock = blockIndex;
-					largestBlockSize = blockSize;
-				}
-			}
+	// Private function to build the memory map backend
+	private void buildMemoryMap() {
+		// The buddy system is its own kind of memory map
+		if (memoryAlgorithm == "Buddy") {
+			this.memoryMap = new BuddyMemoryMap(Simulation.MAX_MEMORY);
+		}
+		// And so is paged virtual memory
+		else if (memoryAlgorithm == "Paged") {
+			this.pagedMemory = new PagedMemoryMap(Simulation.MAX_MEMORY, this.replacementPolicy);
+			this.memoryMap = this.pagedMemory;
+		}
+		// Otherwise, let's create the backend we were asked for
+		else if ("Array".equals(this.memoryBackend)) {
+			this.memoryMap = new ArrayMemoryMap(Simulation.MAX_MEMORY);
 		}
+		else if ("Tree".equals(this.memoryBackend)) {
+			this.memoryMap = new TreeMemoryMap(Simulation.MAX_MEMORY);
+		}
+		else if ("Bitmap".equals(this.memoryBackend)) {
+			this.memoryMap = new BitmapMemoryMap(Simulation.MAX_MEMORY);
+		}
+		else {
+			this.memoryMap = new ListMemoryMap(Simulation.MAX_MEMORY);
+		}
+	}
 
-		// Depending on the algorithm we're currently using, let's return the index
+	// Private function to get the handle of a dead/empty process block that the given process may fit into
+	private int getFittingBlock(Process process) {
+		// Depending on the algorithm we're currently using, let's ask the memory map for a block
 		if (memoryAlgorithm == "Best") {
-			return smallestBlock;
+			return this.memoryMap.findBestFit(process.getSize());
 		}
 		else if (memoryAlgorithm == "Worst") {
-			return largestBlock;
+			return this.memoryMap.findWorstFit(process.getSize());
 		}
 		else if (memoryAlgorithm == "First") {
-			return firstBlock;
+			return this.memoryMap.findFirstFit(process.getSize());
+		}
+		else if (memoryAlgorithm == "Next") {
+			return this.memoryMap.findNextFit(process.getSize());
+		}
+		else if (memoryAlgorithm == "Paged") {
+			// Paged memory doesn't need a contiguous block, so any process can be admitted
+			return this.memoryMap.findFirstFit(process.getSize());
+		}
+		else if (memoryAlgorithm == "Buddy") {
+			// The buddy memory map always hands out the smallest power-of-two block that fits
+			return this.memoryMap.findBestFit(process.getSize());
 		}
 
 		// Ok, for a "hey we didn't find one" scenario, let's return a -1
@@ -93,8 +123,8 @@ public class MemoryManager {
 
 	// Public function to detect if adding the process to memory is possible
 	public boolean isAddPossible(Process process) {
-		// If the address of the next fitting block is -1, there is no fitting block
-		if (this.getFittingBlockAddress(process) > -1) {
+		// If the handle of the next fitting block is -1, there is no fitting block
+		if (this.getFittingBlock(process) > -1) {
 			// If we got here, there must be ample room in an empty block for the given process to fit
 			return true;
 		}
@@ -102,166 +132,333 @@ public class MemoryManager {
 		return false;
 	}
 
+	/*
+	 * Public function to decide if a process can be admitted to memory right now (before it's moved anywhere)
+	 * If it can't, that's the end of its attempt, so the attempt is counted as a failed fit here (addProcess counts the attempts that go ahead)
+	 */
+	public boolean checkAdmission(Process process) {
+		if (this.isAddPossible(process)) {
+			return true;
+		}
+
+		this.fitCount++;
+		this.allocationFailures++;
+
+		return false;
+	}
+
 	// Public function to add processes to the Memory manager
 	public boolean addProcess(Process process) {
-		// Let's get the address of a block that the given process can fit into
-		int destinationAddress = this.getFittingBlockAddress(process);
-
-		// If the address of the next fitting block is greater than -1, we've found a fitting block
-		if (destinationAddress > -1) {
-			try {
-				// Ok, so we have a destination address for the process to go
-				// So, let's add the given process to memory at the destination address
-				this.systemMemory.add(destinationAddress, process);
-
-				// Now that its added, let's either redude the size of the empty block or remove it
-				// Let's first get the process from the now shifted (by 1) address of the original empty block
-				Process oldEmptyBlock = this.systemMemory.get(destinationAddress + 1);
-
-				// If the newly address process is the same size as the old empty block
-				if (process.getSize() == oldEmptyBlock.getSize()) {
-					// Let's just remove the old empty block
-					this.systemMemory.remove(oldEmptyBlock);
-				}
-				else {
-					// Let's create our new size
-					int newSize = oldEmptyBlock.getSize() - process.getSize();
-
-					// Let's resize the empty process block
-					oldEmptyBlock.resize(newSize);
-				}
-
-				// If it worked, return true
+		// Let's count the attempt (once, however many times its block has been looked for)
+		this.fitCount++;
+
+		// Let's get the handle of a block that the given process can fit into
+		int destinationBlock = this.getFittingBlock(process);
+
+		// If the handle of the next fitting block is greater than -1, we've found a fitting block
+		if (destinationBlock > -1) {
+			// Ok, so we have a destination block for the process to go
+			// So, let's add the given process to memory at the start of that block
+			if (this.memoryMap.allocate(destinationBlock, process)) {
+				this.allocationCount++;
+				this.recordMemoryMetrics();
+
+				// Allocating can fragment the memory too, so let's check our threshold
+				this.checkFragmentationThreshold();
+
 				return true;
 			}
-			catch (Exception exception) {
-				// Only show if debugMode is on
-				if (Simulation.debugMode) {
-					System.out.println("Process failed to add with exception: " + exception);
-				}
-			}
 		}
 
 		// It must not have worked
+		this.allocationFailures++;
+
 		return false;
 	}
 
-	// Private function to merge two empty memory blocks into one empty memory block with the size of the sum of the two empty blocks
-	private boolean mergeEmptyBlocks(Process emptyBlockOne, Process emptyBlockTwo) {
-		// DON'T EVEN ATTEMPT to do this unless both of the processes are empty/dead processes
-		if (emptyBlockOne.isProcessDead() && emptyBlockTwo.isProcessDead()) {
-			// Let's figure out the new block size
-			int newSize = emptyBlockOne.getSize() + emptyBlockTwo.getSize();
+	// Public function to remove a process from memory
+	public boolean removeProcess(Process process) {
+		// Let's free the process's block, which also merges it with any adjacent empty blocks
+		if (this.memoryMap.free(process)) {
+			// Only show if debugMode is on
+			if (Simulation.debugMode) {
+				System.out.println("Process " + process.toString() + " removed from memory");
+			}
 
-			try {
-				// Let's just remove the second empty block
-				this.systemMemory.remove(emptyBlockTwo);
+			this.releaseCount++;
+			this.recordMemoryMetrics();
 
-				// Let's resize the empty process block
-				emptyBlockOne.resize(newSize);
+			// Let's see if the memory has gotten too fragmented
+			this.checkFragmentationThreshold();
 
-				return true;
-			}
-			catch (Exception exception) {
-				// Only show if debugMode is on
-				if (Simulation.debugMode) {
-					System.out.println("Problem merging empty blocks with exception: " + exception);
-				}
-			}
+			// Cool, it worked
+			return true;
 		}
 
 		return false;
 	}
 
-	// Private function to clean our memory's blocks by checking for adjacent free memory blocks and removing them
-	private void cleanUpMemory() {
-		// Let's set some properties
-		boolean letsMerge = false;
-		Process foundProcess = null; // Start as null... we haven't found anything yet
-		Process comparedProcess = null; // Start as null... we don't have a process to compare to yet
-		int comparedAddress = -1; // Start with an impossible address
-
-		// Now, to clean up our memory blocks, let's merge adjacent "free" memory (dead process) blocks
-		// Let's loop through our entire memory set
-		for (Process processBlock : this.systemMemory) {
-			// If we find an empty process block (a block with a "dead" process)
-			if (processBlock.isProcessDead()) {
-				// Ok, we found a dead process (empty memory block)
-
-				// Let's get the index of this process
-				int deadAddress = this.systemMemory.indexOf(processBlock);
-				
-				// While we're at it, let's get the address difference of the two processes
-				int addressDifference = (deadAddress - comparedAddress);
-
-				// If the comparedProcess is still null 
-				if (comparedProcess == null || addressDifference > 1) {
-					// Let's make the newly found dead process the comparedProcess
-					comparedProcess = processBlock;
-
-					// And let's also set the comparedAddress to this processes address
-					comparedAddress = deadAddress;
-				}
-				// Otherwise, we may have just found two adjacent dead blocks
-				// Let's check by seeing if the addresses are only 1 address different
-				else if (addressDifference == 1) {
-					// If we got here, there must be two adjacent dead blocks. So... let's "merge" them
-					foundProcess = processBlock;
-					letsMerge = true;
-
-					// Let's not break the loop by modifying while inside it
-					break;
-				}
-			}
+	// Public function to let a running process reference its memory (only paged memory cares, since it loads pages on demand)
+	public void accessProcessMemory(Process process, int time) {
+		if (this.pagedMemory != null) {
+			this.pagedMemory.accessMemory(process, time);
 		}
+	}
 
-		// If the letsMerge flag has been set
-		if (letsMerge && foundProcess != null) {
-			// If we got here, there must be two adjacent dead blocks. So... let's "merge" them
-			this.mergeEmptyBlocks(comparedProcess, foundProcess);
+	// Public function to get the paged memory map (or null, if the memory isn't paged)
+	public PagedMemoryMap getPagedMemory() {
+		return this.pagedMemory;
+	}
 
-			// There may be more adjacent blocks.. let's call it again
-			this.cleanUpMemory();
+	// Public function to set when the memory should be compacted (the threshold is a fragmentation ratio, from 0 to 1)
+	public void setCompactionPolicy(String compactionPolicy, double compactionThreshold) {
+		if (Arrays.asList(COMPACTION_POLICIES).contains(compactionPolicy) != true) {
+			throw new IllegalArgumentException("Unknown compaction policy: " + compactionPolicy);
+		}
+		if ((compactionThreshold >= 0 && compactionThreshold <= 1) != true) {
+			throw new IllegalArgumentException("Compaction threshold isn't between 0 and 1: " + compactionThreshold);
 		}
+
+		this.compactionPolicy = compactionPolicy;
+		this.compactionThreshold = compactionThreshold;
 	}
 
-	// Public function to remove a process from memory
-	public boolean removeProcess(Process process) {
-		// Let's get the index of the process in the array list
-		int index = this.systemMemory.indexOf(process);
+	/*
+	 * Public function to compact the memory if the given process doesn't fit in any one empty block, but would fit in all of them combined
+	 * This only happens with the "Failure" compaction policy. Returns true if the memory was compacted
+	 */
+	public boolean makeRoomFor(Process process) {
+		// Let's only bother if it's our policy AND compacting would actually let the process fit
+		if ("Failure".equals(this.compactionPolicy) && this.getFittingBlock(process) == -1 && this.memoryMap.getFreeMemory() >= process.getSize()) {
+			return this.compact();
+		}
 
-		// Ok, so instead of destroying our memory configuration by simply removing the process from memory...
-		// Let's create a dead process to replace our current process
-		Process deadProcess = new Process(process.getSize(), true);
+		return false;
+	}
 
-		try {
-			// Let's replace the given process's block with an empty/dead process block of the same size
-			this.systemMemory.set(index, deadProcess);
+	// Private function to sample the memory's fragmentation after it changes (just a few counters, so it's always on)
+	private void recordMemoryMetrics() {
+		double externalFragmentation = this.getExternalFragmentation();
 
-			// Now, let's clean up the adjacent memory blocks
-			this.cleanUpMemory();
+		this.peakExternalFragmentation = Math.max(this.peakExternalFragmentation, externalFragmentation);
+		this.externalFragmentationTotal += externalFragmentation;
+		this.fragmentationSamples++;
+		this.peakFreeBlockCount = Math.max(this.peakFreeBlockCount, this.memoryMap.getFreeBlockCount());
+	}
 
-			// Only show if debugMode is on
-			if (Simulation.debugMode) {
-				System.out.println("Process " + process.toString() + " removed from memory");
-			}
+	// Private function to compact the memory if the "Threshold" policy's fragmentation ratio has been crossed
+	private void checkFragmentationThreshold() {
+		if ("Threshold".equals(this.compactionPolicy) && this.getExternalFragmentation() > this.compactionThreshold) {
+			this.compact();
+		}
+	}
 
-			// Cool, it worked
-			return true;
+	// Private function to compact the memory and charge the CPU for the copying
+	private boolean compact() {
+		// Let's slide all of the processes together
+		int movedMemory = this.memoryMap.compact();
+
+		// If nothing moved, there was nothing to compact
+		if (movedMemory == 0) {
+			return false;
 		}
-		catch (IndexOutOfBoundsException exception) {
-			// Only show if debugMode is on
-			if (Simulation.debugMode) {
-				System.out.println("Dead process failed to be replaced with exception: " + exception);
-			}
+
+		// Copying memory isn't free, so let's charge CPU time in proportion to how much was moved
+		int copyTime = (movedMemory + COMPACTION_COPY_RATE - 1) / COMPACTION_COPY_RATE;
+
+		this.compactionCount++;
+		this.compactedMemory += movedMemory;
+		this.compactionTime += copyTime;
+		this.pendingCompactionTime += copyTime;
+
+		// Only show if debugMode is on
+		if (Simulation.debugMode) {
+			System.out.println("Memory compacted by moving " + movedMemory + "k, costing " + copyTime + " CPU time units");
+		}
+
+		return true;
+	}
+
+	/*
+	 * Public function to let the CPU pay off the time it owes for compacting
+	 * Returns true if the CPU was still busy copying memory (and so couldn't do anything else with the given time)
+	 */
+	public boolean useCompactionTime(int time) {
+		if (this.pendingCompactionTime > 0) {
+			this.pendingCompactionTime = Math.max(this.pendingCompactionTime - time, 0);
+
+			return true;
 		}
 
 		return false;
 	}
 
+	// Public function to pay off all of the time the CPU owes for compacting at once, returning how much that was
+	public int takeCompactionTime() {
+		int time = this.pendingCompactionTime;
+		this.pendingCompactionTime = 0;
+
+		return time;
+	}
+
+	// Public function to get the external fragmentation ratio (how much of the empty memory is NOT in the largest empty block)
+	public double getExternalFragmentation() {
+		int freeMemory = this.memoryMap.getFreeMemory();
+
+		// If there's no empty memory, it can't be fragmented
+		if (freeMemory == 0) {
+			return 0;
+		}
+
+		return 1.0 - ((double) this.memoryMap.getLargestFreeBlock() / freeMemory);
+	}
+
+	// Public function to get the compaction policy
+	public String getCompactionPolicy() {
+		return this.compactionPolicy;
+	}
+
+	// Public function to get the number of times the memory has been compacted
+	public int getCompactionCount() {
+		return this.compactionCount;
+	}
+
+	// Public function to get the total amount of memory copied by compaction
+	public int getCompactedMemory() {
+		return this.compactedMemory;
+	}
+
+	// Public function to get the total CPU time spent compacting
+	public int getCompactionTime() {
+		return this.compactionTime;
+	}
+
+	// Public function to get the number of times a process has tried to get into memory
+	public int getFitCount() {
+		return this.fitCount;
+	}
+
+	// Public function to get the average number of blocks looked at per fit (every search an attempt made, to check and to allocate)
+	public double getProbesPerFit() {
+		// If we've never looked, it hasn't cost anything
+		if (this.fitCount == 0) {
+			return 0;
+		}
+
+		return (double) this.memoryMap.getProbeCount() / this.fitCount;
+	}
+
+	// Public function to get the number of processes successfully added to memory
+	public int getAllocationCount() {
+		return this.allocationCount;
+	}
+
+	// Public function to get the number of attempts where a process couldn't be given a block
+	public int getAllocationFailures() {
+		return this.allocationFailures;
+	}
+
+	// Public function to get the number of processes removed from memory
+	public int getReleaseCount() {
+		return this.releaseCount;
+	}
+
+	// Public function to get the number of times two adjacent empty blocks have been merged
+	public long getMergeCount() {
+		return this.memoryMap.getMergeCount();
+	}
+
+	// Public function to get the number of empty blocks
+	public int getFreeBlockCount() {
+		return this.memoryMap.getFreeBlockCount();
+	}
+
+	// Public function to get the most empty blocks there have been at once
+	public int getPeakFreeBlockCount() {
+		return this.peakFreeBlockCount;
+	}
+
+	// Public function to get the size of the largest empty block
+	public int getLargestFreeBlock() {
+		return this.memoryMap.getLargestFreeBlock();
+	}
+
+	// Public function to get the highest external fragmentation ratio seen after an add or remove
+	public double getPeakExternalFragmentation() {
+		return this.peakExternalFragmentation;
+	}
+
+	// Public function to get the average external fragmentation ratio seen after an add or remove
+	public double getMeanExternalFragmentation() {
+		if (this.fragmentationSamples == 0) {
+			return 0;
+		}
+
+		return this.externalFragmentationTotal / this.fragmentationSamples;
+	}
+
+	// Public function to get the memory backend being used
+	public String getMemoryBackend() {
+		return this.memoryBackend;
+	}
+
+	// Public function to get the page replacement policy being used
+	public String getReplacementPolicy() {
+		return this.replacementPolicy;
+	}
+
+	// Public function to get the memory algorithm being used
+	public String getMemoryAlgorithm() {
+		return this.memoryAlgorithm;
+	}
+
+	// Public function to get the amount of memory that's allocated to processes, but not used by them
+	public int getInternalFragmentation() {
+		return this.memoryMap.getInternalFragmentation();
+	}
+
 	// Public function to get an array list representation of the memory manager list
 	public ArrayList<Process> getMemoryArrayList() {
-		return this.systemMemory;
+		return this.memoryMap.getMemoryArrayList();
+	}
+
+	// Public function to write the memory manager's policies, counters and memory map to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		out.writeUTF(this.compactionPolicy);
+		out.writeDouble(this.compactionThreshold);
+		out.writeInt(this.compactionCount);
+		out.writeInt(this.compactedMemory);
+		out.writeInt(this.compactionTime);
+		out.writeInt(this.pendingCompactionTime);
+		out.writeInt(this.fitCount);
+		out.writeInt(this.allocationCount);
+		out.writeInt(this.allocationFailures);
+		out.writeInt(this.releaseCount);
+		out.writeInt(this.peakFreeBlockCount);
+		out.writeDouble(this.peakExternalFragmentation);
+		out.writeDouble(this.externalFragmentationTotal);
+		out.writeInt(this.fragmentationSamples);
+
+		this.memoryMap.writeState(out);
 	}
 
+	// Public function to read the memory manager's policies, counters and memory map back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.compactionPolicy = in.readUTF();
+		this.compactionThreshold = in.readDouble();
+		this.compactionCount = in.readInt();
+		this.compactedMemory = in.readInt();
+		this.compactionTime = in.readInt();
+		this.pendingCompactionTime = in.readInt();
+		this.fitCount = in.readInt();
+		this.allocationCount = in.readInt();
+		this.allocationFailures = in.readInt();
+		this.releaseCount = in.readInt();
+		this.peakFreeBlockCount = in.readInt();
+		this.peakExternalFragmentation = in.readDouble();
+		this.externalFragmentationTotal = in.readDouble();
+		this.fragmentationSamples = in.readInt();
+
+		this.memoryMap.readState(in, processesById);
+	}
 }
@@ -0,0 +1,60 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/*
+ * Memory Map interface
+ * A memory map is the backend that keeps track of which blocks of the system memory are free and which process owns the rest
+ * Blocks are referred to by an int "block handle", which only means something to the memory map that handed it out (-1 means no block)
+ */
+interface MemoryMap {
+	// Function to get the handle of the smallest empty block the given size fits into
+	public int findBestFit(int size);
+
+	// Function to get the handle of the largest empty block, if the given size fits into it
+	public int findWorstFit(int size);
+
+	// Function to get the handle of the lowest addressed empty block the given size fits into
+	public int findFirstFit(int size);
+
+	// Function to get the handle of the next empty block the given size fits into, resuming from where the last allocation left off (wrapping around)
+	public int findNextFit(int size);
+
+	// Function to place a process at the start of the given empty block
+	public boolean allocate(int block, Process process);
+
+	// Function to free a process's block, merging it with any adjacent empty blocks
+	public boolean free(Process process);
+
+	// Function to slide every process down to the lowest addresses, leaving a single empty block at the end (returns the amount of memory moved)
+	public int compact();
+
+	// Function to get the total amount of empty memory
+	public int getFreeMemory();
+
+	// Function to get the size of the largest empty block
+	public int getLargestFreeBlock();
+
+	// Function to get the number of empty blocks
+	public int getFreeBlockCount();
+
+	// Function to get the total number of blocks (or list entries, tree nodes, etc.) the find functions have looked at
+	public long getProbeCount();
+
+	// Function to get the total number of times two adjacent empty blocks have been merged into one
+	public long getMergeCount();
+
+	// Function to get the total amount of memory that's allocated to processes, but not used by them
+	public int getInternalFragmentation();
+
+	// Function to get an array list representation of the memory blocks, in address order ("dead" processes for empty blocks)
+	public ArrayList<Process> getMemoryArrayList();
+
+	// Function to write the memory map's whole state (its own arrays, so the layout and block handles come back exactly) to a checkpoint
+	public void writeState(DataOutput out) throws IOException;
+
+	// Function to read the memory map's whole state back from a checkpoint (looking up the processes in it by id)
+	public void readState(DataInput in, Process[] processesById) throws IOException;
+}
@@ -0,0 +1,518 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Paged Memory Map class
+ * A paged virtual memory: the memory is split into fixed size frames, and each process gets a page table sized from its memory size
+ * Processes are admitted without any memory at all, and their pages are loaded on demand as they run
+ * When every frame is in use, a page is evicted using the replacement policy ("FIFO", "LRU" or "Clock")
+ * All of the page tables and frame bookkeeping are primitive arrays
+ * Since admission never needs a contiguous block, every fit returns the same (meaningless) block handle: 0
+ */
+class PagedMemoryMap implements MemoryMap {
+	// Declare final variables (constants)
+	public static final int FRAME_SIZE = 64; // The size of a page/frame (the same as the process size stepping)
+	private static final int REFERENCES_PER_TIME_UNIT = 4; // The number of memory references a process makes per "CPU Time Unit"
+	private static final int LOCALITY_PERCENT = 80; // The chance that a memory reference stays near the process's last reference
+	private static final int NONE = -1; // The "null" frame reference, and the frame of a page that isn't loaded
+	public static final String[] REPLACEMENT_POLICIES = {"FIFO", "LRU", "Clock"}; // Every replacement policy there is
+	private static final int POLICY_FIFO = 0; // The replacement policies (their indexes above), resolved once from their names (so a memory reference doesn't compare strings)
+	private static final int POLICY_LRU = 1;
+	private static final int POLICY_CLOCK = 2;
+
+	// Declare properties
+	private int policy; // The replacement policy's constant
+	private int frameCount;
+	private int[] frameOwner; // The id of the process whose page is in each frame (NONE if the frame is free)
+	private int[] framePage; // The page number in each frame
+	private Process[] processesById; // The processes with page tables, by id
+	private int[][] pageTables; // Each process's page table (the frame each page is in), by id
+	private int[] lastPages; // The last page each process referenced, by id
+	private int[][] spareTables; // The page tables of freed processes, ready to be re-used by a process with as many pages
+	private int spareTableCount;
+	private int[] freeFrames; // A stack of the free frames
+	private int freeFrameCount;
+	private int[] previousFrame; // The resident frames are linked from oldest (or least recently used) to newest
+	private int[] nextFrame;
+	private int oldestFrame;
+	private int newestFrame;
+	private boolean[] referenceBits; // The "Clock" policy's reference bits
+	private int clockHand;
+	private long references;
+	private long pageFaults;
+	private long evictions;
+	private int internalFragmentation;
+
+	// Constructor
+	public PagedMemoryMap(int memorySize, String replacementPolicy) {
+		// Let's set some properties
+		this.policy = resolvePolicy(replacementPolicy);
+		this.frameCount = memorySize / FRAME_SIZE;
+
+		// Let's allocate our frame arrays
+		this.frameOwner = new int[this.frameCount];
+		this.framePage = new int[this.frameCount];
+		this.freeFrames = new int[this.frameCount];
+		this.previousFrame = new int[this.frameCount];
+		this.nextFrame = new int[this.frameCount];
+		this.referenceBits = new boolean[this.frameCount];
+
+		Arrays.fill(this.frameOwner, NONE);
+
+		// Every frame starts out free (pushed in reverse, so frame 0 is handed out first)
+		for (int frame = this.frameCount - 1; frame >= 0; frame--) {
+			this.freeFrames[this.freeFrameCount++] = frame;
+		}
+
+		this.oldestFrame = NONE;
+		this.newestFrame = NONE;
+
+		// Let's allocate our (growable) per-process arrays
+		this.processesById = new Process[16];
+		this.pageTables = new int[16][];
+		this.lastPages = new int[16];
+		this.spareTables = new int[16][];
+	}
+
+	// Public function to get a block for the process (paging never needs a contiguous block, so any process can be admitted)
+	public int findBestFit(int size) {
+		return 0;
+	}
+
+	// Public function to get a block for the process (paging never needs a contiguous block, so any process can be admitted)
+	public int findWorstFit(int size) {
+		return 0;
+	}
+
+	// Public function to get a block for the process (paging never needs a contiguous block, so any process can be admitted)
+	public int findFirstFit(int size) {
+		return 0;
+	}
+
+	// Public function to get a block for the process (paging never needs a contiguous block, so any process can be admitted)
+	public int findNextFit(int size) {
+		return 0;
+	}
+
+	// Public function to admit a process by giving it an empty page table (its pages are loaded when it runs)
+	public boolean allocate(int block, Process process) {
+		int id = process.getId();
+
+		// Make sure our per-process arrays are large enough for the process id
+		if (id >= this.pageTables.length) {
+			int capacity = Math.max(id + 1, this.pageTables.length * 2);
+
+			this.processesById = Arrays.copyOf(this.processesById, capacity);
+			this.pageTables = Arrays.copyOf(this.pageTables, capacity);
+			this.lastPages = Arrays.copyOf(this.lastPages, capacity);
+		}
+
+		// Let's build the page table (or re-use a spare one), with no pages loaded
+		int pageCount = (process.getSize() + FRAME_SIZE - 1) / FRAME_SIZE;
+		int[] pageTable = this.takeSpareTable(pageCount);
+
+		Arrays.fill(pageTable, NONE);
+
+		this.processesById[id] = process;
+		this.pageTables[id] = pageTable;
+		this.lastPages[id] = 0;
+		this.internalFragmentation += (pageCount * FRAME_SIZE) - process.getSize();
+
+		return true;
+	}
+
+	// Public function to free all of a process's frames and its page table
+	public boolean free(Process process) {
+		int id = process.getId();
+
+		// Make sure the process actually has a page table
+		if (id < 0 || id >= this.pageTables.length || this.processesById[id] != process) {
+			return false;
+		}
+
+		// Let's give back every frame the process has loaded
+		int[] pageTable = this.pageTables[id];
+
+		for (int page = 0; page < pageTable.length; page++) {
+			if (pageTable[page] != NONE) {
+				this.releaseFrame(pageTable[page]);
+			}
+		}
+
+		this.internalFragmentation -= (pageTable.length * FRAME_SIZE) - process.getSize();
+		this.processesById[id] = null;
+		this.pageTables[id] = null;
+
+		// Let's keep the page table, so the next process with as many pages doesn't need a new one
+		if (this.spareTableCount == this.spareTables.length) {
+			this.spareTables = Arrays.copyOf(this.spareTables, this.spareTables.length * 2);
+		}
+
+		this.spareTables[this.spareTableCount++] = pageTable;
+
+		return true;
+	}
+
+	// Private function to get a page table with the given number of pages, re-using a spare one if there is one
+	private int[] takeSpareTable(int pageCount) {
+		// Let's look for the most recently freed one of the right size
+		for (int i = this.spareTableCount - 1; i >= 0; i--) {
+			int[] pageTable = this.spareTables[i];
+
+			if (pageTable.length == pageCount) {
+				// Let's fill its place with the last spare
+				this.spareTableCount--;
+				this.spareTables[i] = this.spareTables[this.spareTableCount];
+				this.spareTables[this.spareTableCount] = null;
+
+				return pageTable;
+			}
+		}
+
+		return new int[pageCount];
+	}
+
+	/*
+	 * Public function to simulate a process running for the given time, referencing its pages
+	 * The references follow a simple locality model: most stay on or next to the last page referenced, the rest jump anywhere in the process
+	 * The model is a pure function of the process and its used time, so it doesn't disturb the simulation's random numbers
+	 */
+	public void accessMemory(Process process, int time) {
+		int id = process.getId();
+
+		// If the process doesn't have a page table, it isn't in memory
+		if (id < 0 || id >= this.pageTables.length || this.processesById[id] != process) {
+			return;
+		}
+
+		int[] pageTable = this.pageTables[id];
+		int page = this.lastPages[id];
+
+		for (int i = 0; i < time * REFERENCES_PER_TIME_UNIT; i++) {
+			// Let's pick the next page to reference
+			int hash = mix((id * 0x9E3779B1) ^ (process.getUsedTime() * 31 + i));
+
+			if (Math.abs(hash % 100) < LOCALITY_PERCENT) {
+				page = (page + ((hash >>> 8) & 1)) % pageTable.length;
+			}
+			else {
+				page = (hash >>> 8) % pageTable.length;
+			}
+
+			this.reference(id, page);
+		}
+
+		this.lastPages[id] = page;
+	}
+
+	// Public function to resolve a replacement policy's name to its constant (its index in REPLACEMENT_POLICIES)
+	public static int resolvePolicy(String replacementPolicy) {
+		for (int i = 0; i < REPLACEMENT_POLICIES.length; i++) {
+			if (REPLACEMENT_POLICIES[i].equals(replacementPolicy)) {
+				return i;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown page replacement policy: " + replacementPolicy);
+	}
+
+	// Private function to reference a page, loading it if it isn't already
+	private void reference(int id, int page) {
+		int frame = this.pageTables[id][page];
+
+		this.references++;
+
+		// If the page is loaded, it's a hit
+		if (frame != NONE) {
+			// LRU moves the frame to the most recently used end, Clock just sets the frame's reference bit
+			if (this.policy == POLICY_LRU) {
+				this.unlinkFrame(frame);
+				this.linkNewestFrame(frame);
+			}
+
+			this.referenceBits[frame] = true;
+
+			return;
+		}
+
+		// Otherwise, it's a page fault. Let's find a frame to load it into
+		this.pageFaults++;
+
+		if (this.freeFrameCount > 0) {
+			frame = this.freeFrames[--this.freeFrameCount];
+		}
+		else {
+			frame = this.chooseVictimFrame();
+			this.evictions++;
+
+			// Let's evict the page that's in the frame
+			this.pageTables[this.frameOwner[frame]][this.framePage[frame]] = NONE;
+			this.unlinkFrame(frame);
+		}
+
+		// Now let's load the page into the frame
+		this.frameOwner[frame] = id;
+		this.framePage[frame] = page;
+		this.pageTables[id][page] = frame;
+		this.referenceBits[frame] = true;
+		this.linkNewestFrame(frame);
+	}
+
+	// Private function to choose the frame whose page should be evicted
+	private int chooseVictimFrame() {
+		// The "Clock" policy sweeps the frames, giving a second chance to any frame that's been referenced
+		if (this.policy == POLICY_CLOCK) {
+			while (this.referenceBits[this.clockHand]) {
+				this.referenceBits[this.clockHand] = false;
+				this.clockHand = (this.clockHand + 1) % this.frameCount;
+			}
+
+			int frame = this.clockHand;
+			this.clockHand = (this.clockHand + 1) % this.frameCount;
+
+			return frame;
+		}
+
+		// Otherwise, "FIFO" and "LRU" both evict the frame at the old end of the list (LRU just reorders it on every hit)
+		return this.oldestFrame;
+	}
+
+	// Private function to free a frame
+	private void releaseFrame(int frame) {
+		this.unlinkFrame(frame);
+
+		this.frameOwner[frame] = NONE;
+		this.referenceBits[frame] = false;
+		this.freeFrames[this.freeFrameCount++] = frame;
+	}
+
+	// Private function to link a frame in at the newest end of the resident frame list
+	private void linkNewestFrame(int frame) {
+		this.previousFrame[frame] = this.newestFrame;
+		this.nextFrame[frame] = NONE;
+
+		if (this.newestFrame == NONE) {
+			this.oldestFrame = frame;
+		}
+		else {
+			this.nextFrame[this.newestFrame] = frame;
+		}
+
+		this.newestFrame = frame;
+	}
+
+	// Private function to unlink a frame from the resident frame list
+	private void unlinkFrame(int frame) {
+		int previous = this.previousFrame[frame];
+		int next = this.nextFrame[frame];
+
+		if (previous == NONE) {
+			this.oldestFrame = next;
+		}
+		else {
+			this.nextFrame[previous] = next;
+		}
+
+		if (next == NONE) {
+			this.newestFrame = previous;
+		}
+		else {
+			this.previousFrame[next] = previous;
+		}
+	}
+
+	// Public function to compact the memory (pages can go in any frame, so there's nothing to compact)
+	public int compact() {
+		return 0;
+	}
+
+	// Public function to get the total amount of memory in free frames
+	public int getFreeMemory() {
+		return this.freeFrameCount * FRAME_SIZE;
+	}
+
+	// Public function to get the "largest free block" (any free frame can be used for any page, so it's all of them)
+	public int getLargestFreeBlock() {
+		return this.getFreeMemory();
+	}
+
+	// Public function to get the number of free frames (each one is a usable "block" on its own)
+	public int getFreeBlockCount() {
+		return this.freeFrameCount;
+	}
+
+	// Public function to get the number of blocks the find functions have looked at (paging never has to search)
+	public long getProbeCount() {
+		return 0;
+	}
+
+	// Public function to get the number of empty block merges (frames are never merged)
+	public long getMergeCount() {
+		return 0;
+	}
+
+	// Public function to get the unused space in the last page of every process
+	public int getInternalFragmentation() {
+		return this.internalFragmentation;
+	}
+
+	// Public function to get an array list representation of the frames (runs of free frames are shown as one dead process)
+	public ArrayList<Process> getMemoryArrayList() {
+		ArrayList<Process> memoryList = Lists.newArrayList();
+		Process deadProcess = null;
+
+		for (int frame = 0; frame < this.frameCount; frame++) {
+			if (this.frameOwner[frame] == NONE) {
+				// Let's either start a new dead process or grow the one before this frame
+				if (deadProcess == null) {
+					deadProcess = new Process(FRAME_SIZE, true);
+					deadProcess.setAddress(frame * FRAME_SIZE);
+
+					memoryList.add(deadProcess);
+				}
+				else {
+					try {
+						deadProcess.resize(deadProcess.getSize() + FRAME_SIZE);
+					}
+					catch (Exception exception) {
+						// Only show if debugMode is on
+						if (Simulation.debugMode) {
+							System.out.println("Problem resizing empty frames with exception: " + exception);
+						}
+					}
+				}
+			}
+			else {
+				memoryList.add(this.processesById[this.frameOwner[frame]]);
+				deadProcess = null;
+			}
+		}
+
+		return memoryList;
+	}
+
+	// Public function to get the number of frames
+	public int getFrameCount() {
+		return this.frameCount;
+	}
+
+	// Public function to get the process whose page is in the given frame (or null if it's free)
+	public Process getFrameProcess(int frame) {
+		if (this.frameOwner[frame] == NONE) {
+			return null;
+		}
+
+		return this.processesById[this.frameOwner[frame]];
+	}
+
+	// Public function to get the page number in the given frame
+	public int getFramePage(int frame) {
+		return this.framePage[frame];
+	}
+
+	// Public function to get the replacement policy
+	public String getReplacementPolicy() {
+		return REPLACEMENT_POLICIES[this.policy];
+	}
+
+	// Public function to get the number of memory references made
+	public long getReferences() {
+		return this.references;
+	}
+
+	// Public function to get the number of page faults
+	public long getPageFaults() {
+		return this.pageFaults;
+	}
+
+	// Public function to get the number of pages evicted
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	// Private function to scramble an int (used to make the memory reference pattern)
+	private static int mix(int value) {
+		value ^= (value >>> 16);
+		value *= 0x85ebca6b;
+		value ^= (value >>> 13);
+		value *= 0xc2b2ae35;
+		value ^= (value >>> 16);
+
+		return value;
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(this.frameCount);
+		Checkpoint.writeInts(out, this.frameOwner);
+		Checkpoint.writeInts(out, this.framePage);
+		Checkpoint.writeProcesses(out, this.processesById);
+
+		// Each page table (a process without one is written as an empty one, marked with a -1 length)
+		out.writeInt(this.pageTables.length);
+		for (int[] pageTable : this.pageTables) {
+			if (pageTable != null) {
+				Checkpoint.writeInts(out, pageTable);
+			}
+			else {
+				out.writeInt(-1);
+			}
+		}
+
+		Checkpoint.writeInts(out, this.lastPages);
+		Checkpoint.writeInts(out, this.freeFrames);
+		out.writeInt(this.freeFrameCount);
+		Checkpoint.writeInts(out, this.previousFrame);
+		Checkpoint.writeInts(out, this.nextFrame);
+		out.writeInt(this.oldestFrame);
+		out.writeInt(this.newestFrame);
+		Checkpoint.writeBooleans(out, this.referenceBits);
+		out.writeInt(this.clockHand);
+		out.writeLong(this.references);
+		out.writeLong(this.pageFaults);
+		out.writeLong(this.evictions);
+		out.writeInt(this.internalFragmentation);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.frameCount = in.readInt();
+		this.frameOwner = Checkpoint.readInts(in);
+		this.framePage = Checkpoint.readInts(in);
+		this.processesById = Checkpoint.readProcesses(in, processesById);
+
+		this.pageTables = new int[in.readInt()][];
+		for (int id = 0; id < this.pageTables.length; id++) {
+			int pageCount = in.readInt();
+
+			if (pageCount != -1) {
+				this.pageTables[id] = new int[pageCount];
+
+				for (int page = 0; page < pageCount; page++) {
+					this.pageTables[id][page] = in.readInt();
+				}
+			}
+		}
+
+		this.lastPages = Checkpoint.readInts(in);
+		this.freeFrames = Checkpoint.readInts(in);
+		this.freeFrameCount = in.readInt();
+		this.previousFrame = Checkpoint.readInts(in);
+		this.nextFrame = Checkpoint.readInts(in);
+		this.oldestFrame = in.readInt();
+		this.newestFrame = in.readInt();
+		this.referenceBits = Checkpoint.readBooleans(in);
+		this.clockHand = in.readInt();
+		this.references = in.readLong();
+		this.pageFaults = in.readLong();
+		this.evictions = in.readLong();
+		this.internalFragmentation = in.readInt();
+	}
+}
@@ -0,0 +1,21 @@
+/*
+ * Priority Scheduler class
+ * Runs the ready process with the highest static priority (the smallest processes have the highest),
+ * and takes the CPU from the running process as soon as a process with a higher priority is ready
+ */
+class PriorityScheduler extends CpuScheduler {
+	// Constructor
+	public PriorityScheduler(SimulationContext context) {
+		super("Priority", context);
+	}
+
+	// Protected function to get the key a ready process is ordered by (its priority, where 0 is the highest)
+	protected long getKey(Process process) {
+		return process.getPriority();
+	}
+
+	// Public function to check if the next ready process has a higher priority than the running one
+	public boolean shouldPreempt(Process running, int remainingTime) {
+		return this.ready.isEmpty() != true && this.ready.peekKey() < running.getPriority();
+	}
+}
@@ -1,3 +1,6 @@
+// Imports (libraries and utilities)
+import java.util.Random;
+
 // Process class 
 public class Process implements Comparable<Process> {
 	// Declare final variables (constants)
@@ -7,30 +10,46 @@ public class Process implements Comparable<Process> {
 	private static final int MIN_REQ_TIME = 3; // Lowest possible cpu time
 	private static final int MAX_REQ_TIME = 15; // Highest possible cpu time
 	private static final int TIME_STEPPING = 3; // CPU time stepping
+	private static final int PRIORITY_STEPPING = 256; // The memory size of each static priority class (the smallest processes come first)
 
 	// Declare properties
 	private int identifier;
 	private int size;
 	private int cpuReqTime;
 	private int cpuUsedTime;
+	private int memoryAddress = -1; // The address of the memory block the process occupies (-1 while it's not in memory)
+	private long awaitedEvent = -1; // The sequence number of the scheduled event the process is waiting on (its CPU burst or its I/O), or -1
+	private int priority; // The process's static priority (0 is the highest)
+	private long arrivalTime; // When the process was created (on the simulation's clock)
+	private long readySince; // When the process last came into the Ready state
+	private long waitingTime; // The total time the process has spent waiting in the Ready state
 
 	// Constructor
-	public Process(int setSize, int setTime) {
-		// Let's generate a process ID
-		this.identifier = generateId();
+	public Process(SimulationContext context, int setSize, int setTime) {
+		// Let's get a process ID from the simulation the process belongs to
+		this.identifier = context.generateProcessId();
 
 		// Set the instances properties
 		this.size = setSize;
 		this.cpuReqTime = setTime;
+		this.priority = (setSize - MIN_SIZE) / PRIORITY_STEPPING;
+		this.arrivalTime = context.getTime();
+	}
 
-		// Increment the numOfProcesses
-		Simulation.numOfProcesses++;
+	// Context only constructor
+	public Process(SimulationContext context) {
+		// Let's generate some parameters (with the simulation's random numbers) and call the normal function
+		this(context, generateSize(context.getRandom()), generateTime(context.getRandom()));
 	}
 
-	// Empty parameter constructor
-	public Process() {
-		// Let's generate some parameters and call the normal function
-		this(generateSize(), generateTime());
+	// Constructor for a process restored from a checkpoint, exactly as it was
+	public Process(int setId, int setSize, int setTime, int setUsedTime, int setAddress) {
+		this.identifier = setId;
+		this.size = setSize;
+		this.cpuReqTime = setTime;
+		this.cpuUsedTime = setUsedTime;
+		this.memoryAddress = setAddress;
+		this.priority = (setSize - MIN_SIZE) / PRIORITY_STEPPING;
 	}
 
 	/*
@@ -44,21 +63,32 @@ public class Process implements Comparable<Process> {
 		this.cpuReqTime = -1;
 	}
 
-	// Private function to generate a unique process identifier
-	private int generateId() {
-		// Return an id that is equal to the number of processes created
-		return Simulation.numOfProcesses;
+	/*
+	 * Public function to start a "Done" process that's been let go over again as a new process (it keeps its id, which would've been re-used anyway)
+	 * A long stream of processes can then go on without creating a new process for every one that arrives
+	 */
+	public void reuse(SimulationContext context, int setSize, int setTime) {
+		// Let's reset every property, exactly as the normal constructor would've left them
+		this.size = setSize;
+		this.cpuReqTime = setTime;
+		this.cpuUsedTime = 0;
+		this.memoryAddress = -1;
+		this.awaitedEvent = -1;
+		this.priority = (setSize - MIN_SIZE) / PRIORITY_STEPPING;
+		this.arrivalTime = context.getTime();
+		this.readySince = 0;
+		this.waitingTime = 0;
 	}
 
 	// Private function to generate a process size with these limitations:
 	// Must be an int between minSize and maxSize
 	// Int must be randomly generated in steps of sizeStepping
-	private static int generateSize() {
+	private static int generateSize(Random random) {
 		// Create the random number's maximum range
 		int randMax = ( MAX_SIZE / SIZE_STEPPING ) - ( MIN_SIZE / SIZE_STEPPING ) + 1;
 
 		// Generate a random int within the constraints
-		int n = Simulation.random.nextInt( randMax );
+		int n = random.nextInt( randMax );
 
 		// Use a y-intercept style function of n to calculate the int within its constraints
 		int size = ( SIZE_STEPPING * n ) + MIN_SIZE;
@@ -70,12 +100,12 @@ public class Process implements Comparable<Process> {
 	// Private function to generate a process's required cpu time with these limitations:
 	// Must be an int between MIN_REQ_TIME and MAX_REQ_TIME
 	// Int must be randomly generated in steps of TIME_STEPPING
-	private static int generateTime() {
+	private static int generateTime(Random random) {
 		// Create the random number's maximum range
 		int randMax = ( MAX_REQ_TIME / TIME_STEPPING ) - ( MIN_REQ_TIME / TIME_STEPPING ) + 1;
 
 		// Generate a random int within the constraints
-		int n = Simulation.random.nextInt( randMax );
+		int n = random.nextInt( randMax );
 
 		// Use a y-intercept style function of n to calculate the int within its constraints
 		int time = ( TIME_STEPPING * n ) + MIN_REQ_TIME;
@@ -84,6 +114,16 @@ public class Process implements Comparable<Process> {
 		return time;
 	}
 
+	// Public function to generate a process size from the given distribution (over the same range, in the same steps, as any other process)
+	public static int generateSize(Random random, WorkloadDistribution distribution) {
+		return distribution.sample(random, MIN_SIZE, MAX_SIZE, SIZE_STEPPING);
+	}
+
+	// Public function to generate a process's required cpu time from the given distribution (over the same range, in the same steps, as any other process)
+	public static int generateTime(Random random, WorkloadDistribution distribution) {
+		return distribution.sample(random, MIN_REQ_TIME, MAX_REQ_TIME, TIME_STEPPING);
+	}
+
 	// Public function to get the process's identifier
 	public int getId() {
 		return this.identifier;
@@ -104,6 +144,66 @@ public class Process implements Comparable<Process> {
 		return this.cpuUsedTime;
 	}
 
+	// Public function to get the address of the process's memory block
+	public int getAddress() {
+		return this.memoryAddress;
+	}
+
+	// Public function to set the address of the process's memory block
+	public void setAddress(int address) {
+		this.memoryAddress = address;
+	}
+
+	// Public function to get the sequence number of the scheduled event the process is waiting on (or -1)
+	public long getAwaitedEvent() {
+		return this.awaitedEvent;
+	}
+
+	// Public function to set the scheduled event the process is waiting on (any event it was waiting on before won't count anymore)
+	public void setAwaitedEvent(long sequence) {
+		this.awaitedEvent = sequence;
+	}
+
+	// Public function to get the process's remaining cpu time
+	public int getRemainingTime() {
+		return this.cpuReqTime - this.cpuUsedTime;
+	}
+
+	// Public function to get the process's static priority (0 is the highest)
+	public int getPriority() {
+		return this.priority;
+	}
+
+	// Public function to get when the process was created
+	public long getArrivalTime() {
+		return this.arrivalTime;
+	}
+
+	// Public function to set when the process arrived (a streamed process may have arrived before it was created, while it waited its turn)
+	public void setArrivalTime(long arrivalTime) {
+		this.arrivalTime = arrivalTime;
+	}
+
+	// Public function to get when the process last came into the Ready state
+	public long getReadySince() {
+		return this.readySince;
+	}
+
+	// Public function to set when the process came into the Ready state
+	public void setReadySince(long time) {
+		this.readySince = time;
+	}
+
+	// Public function to get the total time the process has spent waiting in the Ready state
+	public long getWaitingTime() {
+		return this.waitingTime;
+	}
+
+	// Public function to add to the time the process has spent waiting in the Ready state
+	public void addWaitingTime(long time) {
+		this.waitingTime += time;
+	}
+
 	// Public function for the process to "use cpu time"
 	public void useTime(int time) {
 		this.cpuUsedTime += time;
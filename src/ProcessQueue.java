@@ -0,0 +1,280 @@
+// Imports (libraries and utilities)
+import java.util.Arrays;
+
+/*
+ * Process Queue class
+ * A first-in first-out queue of processes, kept in a growable ring buffer
+ * Adding to the tail and removing from the head are O(1), and the queue can still be read by index (for the state table)
+ * Alongside the ring buffer, the queue keeps a max-heap of its processes ordered by size (then by arrival, so ties go to the earliest)
+ * That lets the largest process be found in O(1), and taken out of the queue from anywhere in O(log n) plus a short shift
+ */
+class ProcessQueue {
+	// Declare final variables (constants)
+	private static final int INITIAL_CAPACITY = 16; // The initial number of processes to allocate room for (always a power of two)
+
+	// Declare properties
+	private Process[] processes;
+	private long[] sequences; // The arrival number of each process in the ring buffer (always increasing from head to tail)
+	private int head; // The buffer position of the first process
+	private int count;
+	private long nextSequence;
+	private Process[] heap; // The processes, as a max-heap by size
+	private int[] heapPositions; // The heap position of each process, by id
+	private long[] sequencesById; // The arrival number of each process, by id
+
+	// Constructor
+	public ProcessQueue() {
+		this.processes = new Process[INITIAL_CAPACITY];
+		this.sequences = new long[INITIAL_CAPACITY];
+		this.heap = new Process[INITIAL_CAPACITY];
+		this.heapPositions = new int[INITIAL_CAPACITY];
+		this.sequencesById = new long[INITIAL_CAPACITY];
+	}
+
+	// Public function to get the number of processes in the queue
+	public int size() {
+		return this.count;
+	}
+
+	// Public function to check if the queue is empty
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	// Public function to add a process to the tail of the queue
+	public void add(Process process) {
+		// Make sure we have room for another process
+		if (this.count == this.processes.length) {
+			this.grow();
+		}
+
+		// Make sure our id tables are large enough for the process id
+		if (process.getId() >= this.heapPositions.length) {
+			int capacity = Math.max(process.getId() + 1, this.heapPositions.length * 2);
+
+			this.heapPositions = Arrays.copyOf(this.heapPositions, capacity);
+			this.sequencesById = Arrays.copyOf(this.sequencesById, capacity);
+		}
+
+		int position = (this.head + this.count) & (this.processes.length - 1);
+		long sequence = this.nextSequence++;
+
+		this.processes[position] = process;
+		this.sequences[position] = sequence;
+		this.sequencesById[process.getId()] = sequence;
+
+		// Let's put it at the bottom of the heap and let it rise to where it belongs
+		this.heap[this.count] = process;
+		this.heapPositions[process.getId()] = this.count;
+		this.count++;
+		this.siftUp(this.count - 1);
+	}
+
+	// Public function to get the process at the given position (0 is the head), or null if there isn't one
+	public Process get(int index) {
+		if (index < 0 || index >= this.count) {
+			return null;
+		}
+
+		return this.processes[(this.head + index) & (this.processes.length - 1)];
+	}
+
+	// Public function to get the largest process (the one that arrived first, if there's a tie), or null if the queue is empty
+	public Process getLargest() {
+		if (this.count == 0) {
+			return null;
+		}
+
+		return this.heap[0];
+	}
+
+	// Public function to remove and return the process at the head of the queue (or null if it's empty)
+	public Process poll() {
+		if (this.count == 0) {
+			return null;
+		}
+
+		Process process = this.processes[this.head];
+
+		this.processes[this.head] = null;
+		this.head = (this.head + 1) & (this.processes.length - 1);
+		this.removeFromHeap(process);
+
+		return process;
+	}
+
+	// Public function to get the position of a process in the queue (or -1 if it isn't in it)
+	public int indexOf(Process process) {
+		int id = process.getId();
+
+		// If the process's heap entry isn't the process, it can't be in the queue
+		if (id < 0 || id >= this.heapPositions.length || this.heapPositions[id] >= this.count || this.heap[this.heapPositions[id]] != process) {
+			return -1;
+		}
+
+		// The arrival numbers only ever go up from head to tail, so let's binary search for the process's number
+		long sequence = this.sequencesById[id];
+		int low = 0;
+		int high = this.count - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long middleSequence = this.sequences[(this.head + middle) & (this.processes.length - 1)];
+
+			if (middleSequence < sequence) {
+				low = middle + 1;
+			}
+			else if (middleSequence > sequence) {
+				high = middle - 1;
+			}
+			else {
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	// Public function to remove the process at the given position, keeping the rest in order
+	public Process remove(int index) {
+		// Removing the head doesn't need to shift anything
+		if (index == 0) {
+			return this.poll();
+		}
+
+		Process process = this.get(index);
+		int mask = this.processes.length - 1;
+
+		// Let's close the gap by shifting whichever side of it is shorter
+		if (index < this.count / 2) {
+			for (int i = index; i > 0; i--) {
+				this.processes[(this.head + i) & mask] = this.processes[(this.head + i - 1) & mask];
+				this.sequences[(this.head + i) & mask] = this.sequences[(this.head + i - 1) & mask];
+			}
+
+			this.processes[this.head] = null;
+			this.head = (this.head + 1) & mask;
+		}
+		else {
+			for (int i = index; i < this.count - 1; i++) {
+				this.processes[(this.head + i) & mask] = this.processes[(this.head + i + 1) & mask];
+				this.sequences[(this.head + i) & mask] = this.sequences[(this.head + i + 1) & mask];
+			}
+
+			this.processes[(this.head + this.count - 1) & mask] = null;
+		}
+
+		this.removeFromHeap(process);
+
+		return process;
+	}
+
+	// Public function to remove a process from the queue, keeping the rest in order (returns false if it wasn't in it)
+	public boolean remove(Process process) {
+		int index = this.indexOf(process);
+
+		if (index == -1) {
+			return false;
+		}
+
+		this.remove(index);
+
+		return true;
+	}
+
+	// Private function to take a process out of the heap (and drop the queue's count)
+	private void removeFromHeap(Process process) {
+		int position = this.heapPositions[process.getId()];
+
+		this.count--;
+
+		// Let's move the last heap entry into the hole, and let it settle up or down
+		if (position != this.count) {
+			this.heap[position] = this.heap[this.count];
+			this.heapPositions[this.heap[position].getId()] = position;
+			this.heap[this.count] = null;
+
+			this.siftDown(position);
+			this.siftUp(position);
+		}
+		else {
+			this.heap[this.count] = null;
+		}
+	}
+
+	// Private function to move a heap entry up until its parent is larger
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+
+			if (this.isLarger(this.heap[parent], this.heap[position])) {
+				break;
+			}
+
+			this.swap(parent, position);
+			position = parent;
+		}
+	}
+
+	// Private function to move a heap entry down until its children are smaller
+	private void siftDown(int position) {
+		while (true) {
+			int largest = position;
+			int leftChild = (position * 2) + 1;
+			int rightChild = leftChild + 1;
+
+			if (leftChild < this.count && this.isLarger(this.heap[leftChild], this.heap[largest])) {
+				largest = leftChild;
+			}
+			if (rightChild < this.count && this.isLarger(this.heap[rightChild], this.heap[largest])) {
+				largest = rightChild;
+			}
+
+			if (largest == position) {
+				break;
+			}
+
+			this.swap(position, largest);
+			position = largest;
+		}
+	}
+
+	// Private function to check if one process comes before another in the heap (larger first, then earlier arrival first)
+	private boolean isLarger(Process processOne, Process processTwo) {
+		int comparison = processOne.compareTo(processTwo);
+
+		if (comparison != 0) {
+			return comparison > 0;
+		}
+
+		return this.sequencesById[processOne.getId()] < this.sequencesById[processTwo.getId()];
+	}
+
+	// Private function to swap two heap entries
+	private void swap(int positionOne, int positionTwo) {
+		Process process = this.heap[positionOne];
+
+		this.heap[positionOne] = this.heap[positionTwo];
+		this.heap[positionTwo] = process;
+
+		this.heapPositions[this.heap[positionOne].getId()] = positionOne;
+		this.heapPositions[this.heap[positionTwo].getId()] = positionTwo;
+	}
+
+	// Private function to double the capacity of the buffers, unwrapping the ring so the head is at 0
+	private void grow() {
+		int capacity = this.processes.length * 2;
+		Process[] grownProcesses = new Process[capacity];
+		long[] grownSequences = new long[capacity];
+
+		for (int i = 0; i < this.count; i++) {
+			grownProcesses[i] = this.processes[(this.head + i) & (this.processes.length - 1)];
+			grownSequences[i] = this.sequences[(this.head + i) & (this.processes.length - 1)];
+		}
+
+		this.processes = grownProcesses;
+		this.sequences = grownSequences;
+		this.heap = Arrays.copyOf(this.heap, capacity);
+		this.head = 0;
+	}
+}
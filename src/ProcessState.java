@@ -0,0 +1,52 @@
+/*
+ * Process State enum
+ * The states a process can be in, each with the name the rest of the simulation knows it by
+ * The event manager indexes its per-state arrays by each state's ordinal, so looking a state up never has to hash anything
+ */
+enum ProcessState {
+	HOLD("Hold"),
+	READY("Ready"),
+	RUN("Run"),
+	SUSPEND_SYSTEM("Suspend_System"),
+	SUSPEND_USER("Suspend_User"),
+	BLOCKED("Blocked"),
+	DONE("Done");
+
+	// Declare final variables (constants)
+	private static final ProcessState[] STATES = values(); // A single copy of the states (values() makes a new array every call)
+
+	// Declare properties
+	private final String name;
+
+	// Constructor
+	private ProcessState(String name) {
+		this.name = name;
+	}
+
+	// Public function to get the state's name
+	public String getName() {
+		return this.name;
+	}
+
+	// Public function to get the number of states
+	public static int count() {
+		return STATES.length;
+	}
+
+	// Public function to get the state with the given name
+	public static ProcessState forName(String name) {
+		// There are only a handful of states, so let's just check each one
+		for (ProcessState state : STATES) {
+			if (state.name.equals(name)) {
+				return state;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown process state: " + name);
+	}
+
+	// Public function to convert the state into a string
+	public String toString() {
+		return this.name;
+	}
+}
@@ -0,0 +1,183 @@
+// Imports (libraries and utilities)
+import java.util.Arrays;
+
+/*
+ * Ready Heap class
+ * A scheduler's ready processes, as a min-heap ordered by a key the scheduler gives each one (then by arrival, so ties go to the earliest)
+ * The heap position of each process is kept by its id, so the next process can be found in O(1), and any process taken out in O(log n)
+ */
+class ReadyHeap {
+	// Declare final variables (constants)
+	private static final int INITIAL_CAPACITY = 16;
+
+	// Declare properties
+	private Process[] heap;
+	private int count;
+	private long nextSequence;
+	private int[] heapPositions; // The heap position of each process, by id (only meaningful while it's in the heap)
+	private long[] keysById; // The key of each process, by id
+	private long[] sequencesById; // The arrival number of each process, by id
+
+	// Constructor
+	public ReadyHeap() {
+		this.heap = new Process[INITIAL_CAPACITY];
+		this.heapPositions = new int[INITIAL_CAPACITY];
+		this.keysById = new long[INITIAL_CAPACITY];
+		this.sequencesById = new long[INITIAL_CAPACITY];
+	}
+
+	// Public function to get the number of processes in the heap
+	public int size() {
+		return this.count;
+	}
+
+	// Public function to check if the heap is empty
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	// Public function to get the process with the lowest key (the earliest to arrive, if there's a tie), or null if the heap is empty
+	public Process peek() {
+		if (this.count == 0) {
+			return null;
+		}
+
+		return this.heap[0];
+	}
+
+	// Public function to get the key of the process with the lowest key (only meaningful if the heap isn't empty)
+	public long peekKey() {
+		return this.keysById[this.heap[0].getId()];
+	}
+
+	// Public function to add a process to the heap with the given key
+	public void add(Process process, long key) {
+		// Make sure we have room for another process
+		if (this.count == this.heap.length) {
+			this.heap = Arrays.copyOf(this.heap, this.heap.length * 2);
+		}
+
+		// Make sure our id tables are large enough for the process id
+		if (process.getId() >= this.heapPositions.length) {
+			int capacity = Math.max(process.getId() + 1, this.heapPositions.length * 2);
+
+			this.heapPositions = Arrays.copyOf(this.heapPositions, capacity);
+			this.keysById = Arrays.copyOf(this.keysById, capacity);
+			this.sequencesById = Arrays.copyOf(this.sequencesById, capacity);
+		}
+
+		this.keysById[process.getId()] = key;
+		this.sequencesById[process.getId()] = this.nextSequence++;
+
+		// Let's put it at the bottom of the heap and let it rise to where it belongs
+		this.heap[this.count] = process;
+		this.heapPositions[process.getId()] = this.count;
+		this.count++;
+		this.siftUp(this.count - 1);
+	}
+
+	// Public function to check if a process is in the heap
+	public boolean contains(Process process) {
+		int id = process.getId();
+
+		return id < this.heapPositions.length && this.heapPositions[id] < this.count && this.heap[this.heapPositions[id]] == process;
+	}
+
+	// Public function to take a process out of the heap (returns false if it wasn't in it)
+	public boolean remove(Process process) {
+		if (this.contains(process) != true) {
+			return false;
+		}
+
+		int position = this.heapPositions[process.getId()];
+
+		this.count--;
+
+		// Let's move the last heap entry into the hole, and let it settle up or down
+		if (position != this.count) {
+			this.heap[position] = this.heap[this.count];
+			this.heapPositions[this.heap[position].getId()] = position;
+			this.heap[this.count] = null;
+
+			this.siftDown(position);
+			this.siftUp(position);
+		}
+		else {
+			this.heap[this.count] = null;
+		}
+
+		return true;
+	}
+
+	// Public function to change the key of every process in the heap (keeping their arrival order), and re-order it
+	public void rekeyAll(long key) {
+		for (int i = 0; i < this.count; i++) {
+			this.keysById[this.heap[i].getId()] = key;
+		}
+
+		// Every key is the same now, so let's just let each process settle by its arrival
+		for (int i = (this.count >>> 1) - 1; i >= 0; i--) {
+			this.siftDown(i);
+		}
+	}
+
+	// Private function to move a heap entry up until its parent comes before it
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+
+			if (this.comesBefore(this.heap[parent], this.heap[position])) {
+				break;
+			}
+
+			this.swap(parent, position);
+			position = parent;
+		}
+	}
+
+	// Private function to move a heap entry down until its children come after it
+	private void siftDown(int position) {
+		while (true) {
+			int first = position;
+			int leftChild = (position * 2) + 1;
+			int rightChild = leftChild + 1;
+
+			if (leftChild < this.count && this.comesBefore(this.heap[leftChild], this.heap[first])) {
+				first = leftChild;
+			}
+			if (rightChild < this.count && this.comesBefore(this.heap[rightChild], this.heap[first])) {
+				first = rightChild;
+			}
+
+			if (first == position) {
+				break;
+			}
+
+			this.swap(position, first);
+			position = first;
+		}
+	}
+
+	// Private function to check if one process comes before another (lower key first, then earlier arrival first)
+	private boolean comesBefore(Process processOne, Process processTwo) {
+		long keyOne = this.keysById[processOne.getId()];
+		long keyTwo = this.keysById[processTwo.getId()];
+
+		if (keyOne != keyTwo) {
+			return keyOne < keyTwo;
+		}
+
+		return this.sequencesById[processOne.getId()] < this.sequencesById[processTwo.getId()];
+	}
+
+	// Private function to swap two heap entries
+	private void swap(int positionOne, int positionTwo) {
+		Process process = this.heap[positionOne];
+
+		this.heap[positionOne] = this.heap[positionTwo];
+		this.heap[positionTwo] = process;
+
+		this.heapPositions[this.heap[positionOne].getId()] = positionOne;
+		this.heapPositions[this.heap[positionTwo].getId()] = positionTwo;
+	}
+}
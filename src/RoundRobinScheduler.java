@@ -0,0 +1,23 @@
+/*
+ * Round Robin Scheduler class
+ * Runs the ready processes in the order they came in, each for at most one time slice
+ */
+class RoundRobinScheduler extends CpuScheduler {
+	// Declare final variables (constants)
+	public static final int TIME_SLICE = 6;
+
+	// Constructor
+	public RoundRobinScheduler(SimulationContext context) {
+		super("RR", context);
+	}
+
+	// Protected function to get the key a ready process is ordered by (they're all the same, so it's the order they came in)
+	protected long getKey(Process process) {
+		return 0;
+	}
+
+	// Public function to get how long a process may run before it has to make way for the next one
+	public int getTimeSlice(Process process) {
+		return TIME_SLICE;
+	}
+}
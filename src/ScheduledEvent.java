@@ -0,0 +1,33 @@
+/*
+ * Scheduled Event class
+ * Something that's going to happen at a set time on the discrete-event engine's clock
+ * Events at the same time happen in the order they were scheduled in (by their sequence number), so every event queue gives the same order
+ * The engine re-uses them once they've happened, so their properties aren't final
+ */
+class ScheduledEvent {
+	// Declare final variables (constants)
+	public static final int GENERATED = 0; // An event from outside of the system (like the tick engine's randomly generated ones)
+	public static final int BURST_DONE = 1; // The running process has used up all of its required CPU time
+	public static final int TIMER_EXPIRED = 2; // The running process has used up its time slice
+	public static final int IO_DONE = 3; // A blocked process's I/O has finished
+
+	// Declare properties
+	public long time; // When the event happens
+	public long sequence; // The order the event was scheduled in
+	public int kind;
+	public Process process; // The process the event happens to (null for a generated event)
+	public ScheduledEvent next; // The next event in the same list (a calendar queue's day, or the engine's unused events)
+
+	// Public function to check if the event happens before the given one
+	public boolean isBefore(ScheduledEvent event) {
+		return this.time < event.time || (this.time == event.time && this.sequence < event.sequence);
+	}
+
+	// Public function to convert the scheduled event into a string
+	public String toString() {
+		// Create a string from the object's properties
+		String string = "@" + this.time + "/" + this.kind + "/" + this.process;
+
+		return string;
+	}
+}
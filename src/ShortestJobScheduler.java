@@ -0,0 +1,15 @@
+/*
+ * Shortest Job Scheduler class
+ * Shortest Job First: runs the ready process with the least required CPU time, until it's done (or something else stops it)
+ */
+class ShortestJobScheduler extends CpuScheduler {
+	// Constructor
+	public ShortestJobScheduler(SimulationContext context) {
+		super("SJF", context);
+	}
+
+	// Protected function to get the key a ready process is ordered by (its required time)
+	protected long getKey(Process process) {
+		return process.getReqTime();
+	}
+}
@@ -0,0 +1,21 @@
+/*
+ * Shortest Remaining Scheduler class
+ * Shortest Remaining Time First: runs the ready process with the least CPU time left to run,
+ * and takes the CPU from the running process as soon as a process with less time left is ready
+ */
+class ShortestRemainingScheduler extends CpuScheduler {
+	// Constructor
+	public ShortestRemainingScheduler(SimulationContext context) {
+		super("SRTF", context);
+	}
+
+	// Protected function to get the key a ready process is ordered by (its remaining time, which can't change while it's waiting)
+	protected long getKey(Process process) {
+		return process.getRemainingTime();
+	}
+
+	// Public function to check if the next ready process has less time left than the running one
+	public boolean shouldPreempt(Process running, int remainingTime) {
+		return this.ready.isEmpty() != true && this.ready.peekKey() < remainingTime;
+	}
+}
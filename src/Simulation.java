@@ -10,7 +10,8 @@
 // Imports (libraries and utilities)
 import java.util.List;
 import java.util.Arrays;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 // External imports
 import com.google.common.collect.*;
@@ -26,7 +27,7 @@ public class Simulation {
 	public static final int MAX_MEMORY = 2048; // Total available user memory
 	public static final int MAX_EVENTS = 500; // Maximum number of events to be fired before quitting
 
-	private static final String[] MEMORY_ALGORITHMS = {"Best", "Worst", "First"};
+	private static final String[] MEMORY_ALGORITHMS = {"Best", "Worst", "First", "Buddy", "Next", "Paged"};
 	private static final String[] STATE_NAMES = {"Hold", "Ready", "Run", "Suspend_System", "Suspend_User", "Blocked", "Done"}; // The names of each possible state
 
 	private static final int[] INITIAL_JOB_STATES = {1, 3, 5}; // The initially active job states (correspond with the state names key/index)
@@ -35,14 +36,18 @@ public class Simulation {
 	private static final int INITIAL_NUM_HELD = 10; // The number of initially inactive/held jobs
 	private static final int TOTAL_NUM_JOBS = INITIAL_JOB_STATES.length + INITIAL_NUM_HELD; // The total number of jobs in the OS Simulation
 
-	private static final int PROCESS_RUN_TIME = 3; // The number of "CPU Time Units" that the currently running process uses on each event cycle
+	public static final int PROCESS_RUN_TIME = 3; // The number of "CPU Time Units" that the currently running process uses on each event cycle
 
 	private static final int NUM_TIMES_RUN = 3; // The number of times that the system should run before quitting
 
-	// Program wide objects
+	private static final Event RUN_DONE_EVENT = new Event("Run", "Done"); // The event fired when the running process finishes
+	private static final Event READY_RUN_EVENT = new Event("Ready", "Run"); // The event fired when there's nothing to run
+	private static final Event TIMER_EXPIRED_EVENT = new Event("Run", "Suspend_System"); // The event fired when the running process's time slice runs out
+	private static final Event IO_DONE_EVENT = new Event("Blocked", "Ready"); // The event fired when a blocked process's I/O finishes
+	private static final Event PREEMPT_EVENT = new Event("Run", "Ready"); // The event fired when the CPU scheduler takes the CPU from the running process
+
+	// Program wide objects (set once from the arguments, then only read, so every simulation context can share them)
 	public static boolean debugMode;
-	public static Random random;
-	public static int numOfProcesses; // Use this so we can always have a UNIQUE identifier
 
 	// Class wide objects
 	private static boolean runOnce;
@@ -50,15 +55,36 @@ public class Simulation {
 	private static boolean helpMode;
 	private static boolean versionMode;
 	private static Long randomSeed;
-	private static EventManager states;
-	private static MemoryManager memory;
-	private static List<Event> events;
-	private static boolean systemRunning;
-	private static int generatedEventCount;
-	private static int firedEventCount;
+	private static String memoryBackend = "List"; // The memory map backend that the memory manager should use
+	private static String compactionPolicy = "Never"; // When the memory manager should compact the memory
+	private static double compactionThreshold = 0.5; // The fragmentation ratio for the "Threshold" compaction policy
+	private static String replacementPolicy = "LRU"; // The page replacement policy for the "Paged" memory algorithm
+	private static int maxCascadeDepth = EventCascade.DEFAULT_MAX_DEPTH; // How many events can be waiting on each other in one cascade
+	private static int batchRuns; // The number of seeds to run in batch mode (0 if we're not in batch mode)
+	private static int batchThreads = Runtime.getRuntime().availableProcessors(); // The number of threads to run a batch on
+	private static Long masterSeed; // The seed that every seed in a batch is drawn from
+	private static int tableInterval = 25; // The number of generated events between each memory and state table (0 turns the tables off)
+	private static String traceFile; // The file to record each simulation's trace to (with the memory algorithm added), or null
+	private static String replayFile; // The trace file to replay, or null
+	private static String checkpointFile; // The file to save each simulation's checkpoint to (with the memory algorithm added), or null
+	private static int checkpointEvent = 250; // The generated event to save the checkpoint at
+	private static String resumeFile; // The checkpoint file to resume, or null
+	private static String engineType = "Tick"; // Whether the simulation ticks along ("Tick") or jumps from one scheduled event to the next ("Discrete")
+	private static String queueType = "Heap"; // The event queue the discrete-event engine uses
+	private static String[] schedulerTypes; // The CPU schedulers to run each memory algorithm with (null to just run the first process in Ready)
+	private static int[] coreCounts = {1}; // The numbers of CPU cores to run each memory algorithm on
+	private static long workloadJobs; // The number of processes to stream in from a generated workload (0 for the classic handful of jobs)
+	private static String workloadDistribution = "Uniform"; // The distribution a generated workload's process sizes and times are drawn from
+	private static double arrivalGap; // The average time between a generated workload's arrivals (0 if they all arrive at the start)
+	private static String jobFile; // The CSV job trace to stream the processes in from, or null
 
 	// Constructor
 	private static void run() {
+		// If we were given a job file, let's make sure it's any good before we start
+		if (checkJobFile() != true) {
+			return;
+		}
+
 		// Let's declare the run times
 		int numberTimesToRun = NUM_TIMES_RUN;
 
@@ -67,6 +93,16 @@ public class Simulation {
 			numberTimesToRun = 1;
 		}
 
+		// Let's write the tables on their own thread, so the simulation never waits on the console
+		// (Unless we're debugging, since the debug output comes from everywhere and has to stay in line with the tables)
+		TableRenderer renderer = new TableRenderer(debugMode != true);
+
+		// If we weren't given any CPU schedulers, each memory algorithm just runs once, without one
+		String[] schedulers = schedulerTypes;
+		if (schedulers == null) {
+			schedulers = new String[] {null};
+		}
+
 		// Let's loop through until we've reached the desired number of times ran
 		for (int i = 0; i < numberTimesToRun; i++) {
 			// Let's declare some properties
@@ -76,68 +112,341 @@ public class Simulation {
 			// Let's create a random number seed manually, so we can re-use it later
 			randomSeed = System.currentTimeMillis(); // Use this seed for debugging: 0x00000000fffffff1L
 
-			// Ok, let's do EACH of the memory algorithms
+			// Ok, let's do EACH of the memory algorithms (with each of the CPU schedulers, on each number of cores)
 			for (String memoryAlgorithm : MEMORY_ALGORITHMS) {
-				// Let's say what algorithm we're using
-				System.out.println("Running system using memory algorithm \"" + memoryAlgorithm + "\"");
+				for (String scheduler : schedulers) {
+					for (int coreCount : coreCounts) {
+						SimulationContext context = runSimulation(memoryAlgorithm, scheduler, coreCount, renderer);
 
-				// Let's initialize/reset some variables
-				numOfProcesses = 0;
-				generatedEventCount = 0;
-				firedEventCount = 0;
+						if (context.getGeneratedEventCount() < bestRun) {
+							bestRun = context.getGeneratedEventCount();
+						}
+						if (context.getGeneratedEventCount() > worstRun) {
+							worstRun = context.getGeneratedEventCount();
+						}
+					}
+				}
+			}
 
-				// Instanciate program wide objects
-				random = new Random(randomSeed);
+			if (bestRun != worstRun) {
+				System.out.println("DIFFERENT!!!");
+			}
+			// A job file (or a small generated workload) can leave every algorithm finishing in the same number of events however many times it's run, so a tie is just reported
+			else if (jobFile != null || workloadJobs > 0) {
+				System.out.println("SAME (every run took " + bestRun + " generated events)");
+			}
+			else {
+				i--;
+			}
+		}
 
-				// Let's create/start our event manager
-				states = new EventManager();
+		// We're done with the writer thread
+		renderer.close();
+	}
 
-				// Let's create our memory manager
-				memory = new MemoryManager(memoryAlgorithm);
+	// Private function to run one simulation of the given memory algorithm, CPU scheduler (or null for none) and number of cores, writing its tables to the given renderer
+	private static SimulationContext runSimulation(String memoryAlgorithm, String scheduler, int coreCount, TableRenderer renderer) {
+		// Let's say what algorithm (and scheduler, and cores) we're using
+		String running = "Running system using memory algorithm \"" + memoryAlgorithm + "\"";
 
-				// Let's fill our event array list with our randomized events
-				buildEventsList();
+		if (scheduler != null) {
+			running += " and CPU scheduler \"" + scheduler + "\"";
+		}
+		if (coreCount > 1) {
+			running += " on " + coreCount + " cores";
+		}
+
+		System.out.println(running);
 
-				// Let's initialize the system with our initial conditions
-				initialConditions();
+		// Let's create a fresh simulation (with its own memory and event managers, random numbers and counters)
+		SimulationContext context = createContext(memoryAlgorithm, scheduler, coreCount, randomSeed);
+		context.setRenderer(renderer);
 
-				// Ok. Everything's set up, so let's run the system
-				startSystem();
+		// If we're tracing, let's record the run (each algorithm gets its own file, holding its latest run)
+		// (A trace is one generated event per tick on a single CPU, with the classic jobs and no CPU scheduler, so only a plain ticking simulation can be traced)
+		if (traceFile != null && isPlainTicking(context)) {
+			try {
+				context.setTrace(new TraceWriter(traceFile + "." + memoryAlgorithm, context, memoryBackend));
+			}
+			catch (IOException exception) {
+				System.out.println("Couldn't create the trace file with exception: " + exception);
+			}
+		}
 
-				if (generatedEventCount < bestRun) {
-					bestRun = generatedEventCount;
+		// If we've been asked for a checkpoint, let's save one along the way (each algorithm gets its own file)
+		// (The discrete-event engine's pending events, the CPU scheduler's state, the cores and the workload aren't part of a checkpoint, so only a plain ticking simulation can be checkpointed)
+		if (checkpointFile != null && isPlainTicking(context)) {
+			context.setCheckpoint(checkpointEvent, checkpointFile + "." + memoryAlgorithm);
+		}
+
+		// Ok. Let's run the system
+		try {
+			simulate(context);
+		}
+		finally {
+			// If we were tracing, let's finish the trace file (even if the run went wrong, since that's when the trace is needed the most)
+			if (context.getTrace() != null) {
+				try {
+					context.getTrace().close();
 				}
-				if (generatedEventCount > worstRun) {
-					worstRun = generatedEventCount;
+				catch (IOException exception) {
+					System.out.println("Couldn't finish the trace file with exception: " + exception);
 				}
 			}
+		}
 
-			if (bestRun != worstRun) {
-				System.out.println("DIFFERENT!!!");
+		// Let's show how the run went
+		outputReport(context);
+
+		return context;
+	}
+
+	// Private function to check if a simulation is a plain one: ticking along on a single CPU, with the classic jobs and no CPU scheduler
+	private static boolean isPlainTicking(SimulationContext context) {
+		return context.getDiscreteEngine() == null && context.getScheduler() == null && context.getCores() == null && context.getWorkload() == null;
+	}
+
+	// Private function to read through the job file we were given (if any) once, up front, so a missing or malformed one is reported before any run starts (returns false if it's no good)
+	private static boolean checkJobFile() {
+		if (jobFile == null) {
+			return true;
+		}
+
+		try {
+			CsvWorkload.checkFile(jobFile);
+		}
+		catch (IOException exception) {
+			System.out.println("Couldn't read the job file with exception: " + exception);
+
+			return false;
+		}
+		catch (IllegalArgumentException exception) {
+			System.out.println("Couldn't read the job file with exception: " + exception);
+
+			return false;
+		}
+
+		return true;
+	}
+
+	// Private function to run a batch of simulations (every memory algorithm on each seed), and report how they did
+	private static void runBatch() {
+		// If we were given a job file, let's make sure it's any good before we start
+		if (checkJobFile() != true) {
+			return;
+		}
+
+		// If we weren't given a master seed, let's make one (and say what it was, so the batch can be run again)
+		if (masterSeed == null) {
+			masterSeed = System.currentTimeMillis();
+		}
+
+		// The tables of thousands of runs on many threads would just be noise, and so would the debug output
+		debugMode = false;
+
+		// Ok. Let's run the batch
+		BatchSimulation batch = new BatchSimulation(MEMORY_ALGORITHMS, schedulerTypes, coreCounts, batchRuns, masterSeed);
+		batch.run(batchThreads);
+
+		// And let's show how each algorithm did
+		batch.printReport();
+	}
+
+	// Private function to resume a simulation from a checkpoint file, and run it to the end
+	private static void runResume() {
+		SimulationContext context;
+
+		try {
+			context = Checkpoint.restoreFile(resumeFile);
+		}
+		catch (IOException exception) {
+			System.out.println("Couldn't read the checkpoint file with exception: " + exception);
+
+			return;
+		}
+
+		// If we were given a seed, the run carries on with different random numbers (a "what-if" of the same checkpoint)
+		if (masterSeed != null) {
+			context.getRandom().setSeed(masterSeed);
+		}
+
+		System.out.println("Resuming system using memory algorithm \"" + context.getMemory().getMemoryAlgorithm() + "\" from generated event #" + context.getGeneratedEventCount());
+
+		// Let's write the tables on their own thread (unless we're debugging), just like a normal run
+		TableRenderer renderer = new TableRenderer(debugMode != true);
+		context.setRenderer(renderer);
+
+		// Ok. Let's carry on running the system
+		resume(context);
+		renderer.close();
+
+		// Let's show how the run went
+		outputReport(context);
+	}
+
+	// Private function to replay a trace file (with the memory options we were given), and report where it first differs from the trace
+	private static void runReplay() {
+		TraceReader reader;
+
+		try {
+			reader = new TraceReader(replayFile);
+		}
+		catch (IOException exception) {
+			System.out.println("Couldn't read the trace file with exception: " + exception);
+
+			return;
+		}
+
+		// The debug output of a replay would just be noise
+		debugMode = false;
+
+		// Let's create a fresh, quiet simulation of the traced algorithm, and re-drive it from the trace
+		// (The memory blocks chosen are only comparable if the memory is laid out by the same backend)
+		SimulationContext context = createContext(reader.getMemoryAlgorithm(), reader.getRandomSeed());
+		TraceReplay replay = new TraceReplay(reader, reader.getMemoryBackend().equals(memoryBackend));
+		context.setDiscreteEngine(null); // A trace is one generated event per tick, so it's always replayed by ticking along
+		context.setScheduler(null); // And it was recorded without a CPU scheduler, with its own processes
+		if (context.getWorkload() != null) {
+			context.getWorkload().close();
+			context.setWorkload(null);
+		}
+		context.setQuiet(true);
+		context.setReplay(replay);
+
+		long startTime = System.nanoTime();
+		simulate(context);
+		long elapsedTime = System.nanoTime() - startTime;
+
+		// Let's show how it went
+		System.out.println("Replayed " + reader.getRecordCount() + " trace records (memory algorithm \"" + reader.getMemoryAlgorithm() + "\", traced on the \"" + reader.getMemoryBackend() + "\" backend, replayed on the \"" + memoryBackend + "\" backend) in " + String.format("%.2f", elapsedTime / 1000000.0) + "ms");
+		System.out.println("Replay: " + replay.getGeneratedEventCount() + " generated events, " + replay.getMatchedEventCount() + " fired events matched the trace, " + replay.getDivergentEventCount() + " didn't");
+
+		if (replay.getFirstDivergenceReason() != null) {
+			System.out.println("First difference at generated event #" + replay.getFirstDivergence() + ": " + replay.getFirstDivergenceReason());
+		}
+		else {
+			System.out.println("The replay matched the trace exactly");
+		}
+	}
+
+	// Public function to create a fresh simulation context for the given memory algorithm and seed, with the options we were given
+	public static SimulationContext createContext(String memoryAlgorithm, long seed) {
+		return createContext(memoryAlgorithm, null, 1, seed);
+	}
+
+	// Public function to create a fresh simulation context for the given memory algorithm, CPU scheduler (or null for none), number of cores and seed, with the options we were given
+	public static SimulationContext createContext(String memoryAlgorithm, String scheduler, int coreCount, long seed) {
+		// The cores tick along together, and pick their own processes, so they can't be given a discrete-event engine or a CPU scheduler
+		if (coreCount > 1 && ("Discrete".equals(engineType) || scheduler != null)) {
+			throw new IllegalArgumentException("Multiple cores can only be simulated on the \"Tick\" engine, without a CPU scheduler");
+		}
+
+		// Let's create our memory manager
+		MemoryManager memory = new MemoryManager(memoryAlgorithm, memoryBackend, replacementPolicy);
+		memory.setCompactionPolicy(compactionPolicy, compactionThreshold);
+
+		// Let's create the simulation around it
+		SimulationContext context = new SimulationContext(seed, memory);
+		context.getCascade().setMaxDepth(maxCascadeDepth);
+
+		// If we've been asked to, let's have it jump from one scheduled event to the next, instead of ticking along
+		if ("Discrete".equals(engineType)) {
+			context.setDiscreteEngine(new DiscreteEventEngine(context, queueType));
+		}
+
+		// If we've been given a CPU scheduler, it has to be in place before any process gets ready
+		if (scheduler != null) {
+			context.setScheduler(CpuScheduler.create(scheduler, context));
+		}
+
+		// And the same goes for the cores of a multi-core machine
+		if (coreCount > 1) {
+			context.setCores(new CpuCores(coreCount));
+		}
+
+		// If we've been asked to, let's stream the processes in from a job trace, or a generated workload, instead of the classic jobs
+		if (jobFile != null) {
+			try {
+				context.setWorkload(new CsvWorkload(jobFile));
 			}
-			else {
-				i--;
+			catch (IOException exception) {
+				throw new UncheckedIOException("Couldn't open the job file " + jobFile, exception);
 			}
 		}
+		else if (workloadJobs > 0) {
+			context.setWorkload(new GeneratedWorkload(workloadJobs, WorkloadDistribution.forName(workloadDistribution), arrivalGap));
+		}
+
+		return context;
+	}
+
+	// Public function to run one whole simulation in the given context
+	public static void simulate(SimulationContext context) {
+		// Let's fill our event array list with our randomized events
+		buildEventsList(context);
+
+		// Let's initialize the system with our initial conditions
+		initialConditions(context);
+
+		// Ok. Everything's set up, so let's run the system
+		if (context.getDiscreteEngine() != null) {
+			startDiscreteSystem(context);
+		}
+		else {
+			startSystem(context);
+		}
+
+		// If the processes were streamed in, we're done with where they came from
+		if (context.getWorkload() != null) {
+			context.getWorkload().close();
+		}
+
+		// And let's wait for the last of the tables to be written
+		context.getRenderer().flush();
+	}
+
+	// Public function to carry on running a simulation restored from a checkpoint
+	public static void resume(SimulationContext context) {
+		// The events list isn't part of the checkpoint (it never changes), so let's fill it again
+		buildEventsList(context);
+
+		// Everything else is where it was, so let's carry on running the system
+		startSystem(context);
+
+		// And let's wait for the last of the tables to be written
+		context.getRenderer().flush();
 	}
 
 	// Private function to setup the initial conditions
-	private static void initialConditions() {
+	private static void initialConditions(SimulationContext context) {
 		// Only show if debugMode is on
 		if (debugMode) {
-			System.out.println("System showing pre-inital conditions:");
+			outputTables(context, "System showing pre-inital conditions:");
+		}
 
-			outputMemoryTable();
-			outputStateTable();
+		// If the processes are being streamed in, they start out arriving in Hold, instead of as the classic jobs
+		if (context.getWorkload() != null) {
+			admitArrivals(context);
+		}
+		else {
+			createClassicJobs(context);
 		}
 
+		// Print initial tables (unless the simulation is keeping quiet)
+		if (context.isQuiet() != true) {
+			outputTables(context, "Initial Conditions:");
+		}
+	}
+
+	// Private function to create the classic jobs: a few active ones, and the rest held
+	private static void createClassicJobs(SimulationContext context) {
 		// Let's create our initially active processes
 		for (int state : INITIAL_JOB_STATES) {
 			// Create the process
-			Process job = new Process(INITIAL_JOB_SIZE, INITIAL_JOB_TIME);
+			Process job = createJob(context, true);
 
 			// Add the process to the event manager's map
-			states.addProcess(job, STATE_NAMES[state]);
+			context.getStates().addProcess(job, STATE_NAMES[state]);
 
 			// Only show if debugMode is on
 			if (debugMode) {
@@ -145,7 +454,7 @@ public class Simulation {
 			}
 
 			// Add the process to the system's memory
-			memory.addProcess(job);
+			context.getMemory().addProcess(job);
 
 			// Only show if debugMode is on
 			if (debugMode) {
@@ -156,27 +465,62 @@ public class Simulation {
 		// Now, let's create our initially inactive/held jobs
 		for (int i = 0; i < INITIAL_NUM_HELD; i++) {
 			// Create the process
-			Process job = new Process();
+			Process job = createJob(context, false);
 
 			// Add the process to the event manager's map
-			states.addProcess(job, "Hold");
+			context.getStates().addProcess(job, "Hold");
 
 			// Only show if debugMode is on
 			if (debugMode) {
 				System.out.println("Process created at state: \"Hold\" with ID: " + job.getId() + ", Size: " + job.getSize() + "k, and Time: " + job.getReqTime());
 			}
 		}
+	}
+
+	/*
+	 * Private function to stream the processes that have arrived by now into Hold
+	 * Only so many wait in Hold at once (as many as the classic jobs start out with), and the rest wait their turn in the workload, where they take no memory
+	 */
+	private static void admitArrivals(SimulationContext context) {
+		WorkloadSource workload = context.getWorkload();
+		EventManager states = context.getStates();
 
-		// Print initial tables
-		System.out.println("Initial Conditions:");
-		outputMemoryTable();
-		outputStateTable();
+		while (workload.hasNext() && workload.peekArrivalTime() <= context.getTime() && states.getProcessCount(ProcessState.HOLD) < INITIAL_NUM_HELD) {
+			Process job = workload.nextProcess(context);
+			states.addProcess(job, ProcessState.HOLD);
+
+			// Only show if debugMode is on
+			if (debugMode) {
+				System.out.println("Process arrived at state: \"Hold\" with ID: " + job.getId() + ", Size: " + job.getSize() + "k, and Time: " + job.getReqTime());
+			}
+		}
+	}
+
+	// Private function to create a job (or take it from the trace we're replaying), and record it if we're tracing
+	private static Process createJob(SimulationContext context, boolean initiallyActive) {
+		Process job;
+
+		if (context.getReplay() != null) {
+			job = context.getReplay().nextProcess(context);
+		}
+		else if (initiallyActive) {
+			job = new Process(context, INITIAL_JOB_SIZE, INITIAL_JOB_TIME);
+		}
+		else {
+			job = new Process(context);
+		}
+
+		if (context.getTrace() != null) {
+			context.getTrace().writeProcess(job);
+		}
+
+		return job;
 	}
 
 	// Private function to build the event list
-	private static void buildEventsList() {
+	private static void buildEventsList(SimulationContext context) {
 		// First of all, let's instanciate an array list
-		events = Lists.newArrayList();
+		List<Event> events = Lists.newArrayList();
 
 		// Let's add our events to the array list
 		events.add(new Event("Hold", "Ready")); // Event from and to
@@ -191,12 +535,30 @@ public class Simulation {
 		events.add(new Event("Suspend_System", "Ready")); // Timer/System
 		events.add(new Event("Run", "Done"));
 		events.add(new Event("Ready", "Hold"));
+
+		context.setEvents(events);
 	}
 
 	// Private function to run the process that is currently granted the CPU
-	private static void runProcess() {
+	private static void runProcess(SimulationContext context) {
+		// If there are several cores, each of them runs its own process (while the CPU is busy copying memory for a compaction, it's just the first core that's busy)
+		if (context.getCores() != null) {
+			runCores(context, context.getMemory().useCompactionTime(PROCESS_RUN_TIME));
+			return;
+		}
+
+		// If the CPU is still busy copying memory for a compaction, nothing else gets to run this cycle
+		if (context.getMemory().useCompactionTime(PROCESS_RUN_TIME)) {
+			// Only show if debugMode is on
+			if (debugMode) {
+				System.out.println("CPU busy compacting memory");
+			}
+
+			return;
+		}
+
 		// Let's get the process in the Run state
-		Process process = states.getProcess("Run"); // May be null
+		Process process = context.getStates().getProcess("Run"); // May be null
 
 		// If we actually got back a process
 		if (process != null) {
@@ -208,10 +570,13 @@ public class Simulation {
 			// Let's run the process for a set "time"
 			process.useTime(PROCESS_RUN_TIME);
 
+			// While it runs, the process references its memory (which may need to page it in)
+			context.getMemory().accessProcessMemory(process, PROCESS_RUN_TIME);
+
 			// If the process is "DONE" (its used time has reached its required time)
 			if (process.isDone()) {
 				// We need to fire a Run->Done event
-				fireEvent(new Event("Run", "Done"));
+				context.getCascade().fire(RUN_DONE_EVENT);
 
 				// Only show if debugMode is on
 				if (debugMode) {
@@ -228,289 +593,153 @@ public class Simulation {
 
 			// We REALLY shouldn't let the OS just sit dormant for the user, so
 			// Let's fire a Ready->Run event
-			fireEvent(new Event("Ready", "Run"));
+			context.getCascade().fire(READY_RUN_EVENT);
 		}
 	}
 
-	// Private function to generate a random event from the events list
-	private static Event generateRandomEvent() {
-		// Create the number's maximum range
-		int randMax = events.size();
-
-		// Generate a random int within the constraints
-		int n = random.nextInt(randMax);
+	/*
+	 * Private function to run a tick on every core of a multi-core machine (with the first core busy compacting memory, if it has to)
+	 * Each core runs the process it started the tick with, and an idle core tries to get a process of its own (stealing one, if it has to)
+	 * An idle core that still can't get one, while processes wait in Hold, is starved by memory admission
+	 */
+	private static void runCores(SimulationContext context, boolean compacting) {
+		CpuCores cores = context.getCores();
+		EventManager states = context.getStates();
 
-		// Let's get the event at that random position n
-		Event generatedEvent = events.get(n);
+		cores.beginTick();
 
-		// Return the randomly generated event
-		return generatedEvent;
-	}
+		for (int i = 0; i < cores.getCoreCount(); i++) {
+			Process process = cores.getTickProcess(i); // May be null
 
-	// Private function to fire the event passed to it
-	private static boolean fireEvent(Event event) {
-		// Let's get the first process in the "from" location
-		Process process = states.getProcess(event.from); // May be null
+			// If the core is busy copying memory for a compaction, it doesn't run anything else this tick
+			if (i == 0 && compacting) {
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("Core 0 busy compacting memory");
+				}
 
-		// If we actually got back a process
-		// Let's make sure its not a Ready->Run... because that may need to bring in a process (so the process would be null right now)
-		if (process != null || (event.from == "Ready" && event.to == "Run")) {
-			// Only show if debugMode is on
-			if (debugMode && process != null) {
-				System.out.println("Event " + event.toString() + " firing on process: " + process.toString());
-			}
-			else if (debugMode && (event.from == "Ready" && event.to == "Run")) {
-				System.out.println("Event " + event.toString() + " firing");
+				continue;
 			}
 
-			// For a hold->ready event, let's make sure the system has enough memory to hold the new process
-			if (event.from == "Hold" && event.to == "Ready") {
-				// Let's make sure this is all possible
-				if (memory.isAddPossible(process) && states.isAddPossible(process, event.to)) {
-					// If the process is successfully added to memory AND the process successfully changed state 
-					if (memory.addProcess(process) && states.changeProcessState(event)) {
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Ready->Run event
-			else if (event.from == "Ready" && event.to == "Run") {
-				// Let's first make sure that the Run state isn't full
-				if (states.isStateFull(event.to)) {
-					// We need to fire an event to get the process out of the run state
-					fireEvent(new Event(event.to, "Suspend_System"));
+			// If the core's process is still on it, let's run it for a set "time"
+			if (process != null && cores.getRunningProcess(i) == process) {
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("Running process on core " + i + ": " + process.toString());
 				}
 
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// Let's first make sure that the Ready state isn't empty
-					if (states.isStateEmpty(event.from)) {
-						// We need to fire an event to get a process in the ready state
-						// Let's see if we can grab one from Suspend_System
-						if (fireEvent(new Event("Suspend_System", event.from)) != true) {
-							// If we couldn't grab one from Suspend_System, we should try to grab one from Hold
-							fireEvent(new Event("Hold", event.from));
-						}
-					}
+				cores.countBusyTick(i);
+				process.useTime(PROCESS_RUN_TIME);
 
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// Only show if debugMode is on
-						if (debugMode) {
-							System.out.println("Event " + event.toString() + " worked!");
-						}
+				// While it runs, the process references its memory (which may need to page it in)
+				context.getMemory().accessProcessMemory(process, PROCESS_RUN_TIME);
+
+				// If the process is "DONE" (its used time has reached its required time), we need to fire a Run->Done event for this core
+				if (process.isDone()) {
+					cores.selectCore(i);
+					context.getCascade().fire(RUN_DONE_EVENT);
+					cores.selectCore(-1);
 
-						// If we made it here, the event has succeeded
-						return true;
+					// Only show if debugMode is on
+					if (debugMode) {
+						System.out.println("Process finished after running on core " + i);
 					}
 				}
 			}
-			// For a Run->Blocked event
-			else if (event.from == "Run" && event.to == "Blocked") {
-				// Let's first make sure that the Blocked state isn't full
-				if (states.isStateFull(event.to)) {
-					// We need to fire an event to get the process out of the blocked state
-					fireEvent(new Event(event.to, "Done"));
+			// If the core is idle, we REALLY shouldn't let it sit dormant, so let's fire a Ready->Run event
+			else if (cores.getRunningProcess(i) == null) {
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("WARNING!! No process to run on core " + i);
 				}
 
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", event.from));
+				context.getCascade().fire(READY_RUN_EVENT);
 
-						// If we made it here, the event has succeeded
-						return true;
-					}
+				// If it's still idle, and there are processes in Hold, it's waiting on memory to admit one of them
+				if (cores.getRunningProcess(i) == null && states.isStateEmpty(ProcessState.READY) && states.isStateEmpty(ProcessState.HOLD) != true) {
+					cores.countAdmissionStarvedTick();
 				}
 			}
-			// For a Blocked->Ready event
-			else if (event.from == "Blocked" && event.to == "Ready") {
-				// Let's first make sure that the Ready state isn't full
-				if (states.isStateFull(event.to)) {
-					// We need to fire an event to get the process out of the blocked state
-					fireEvent(new Event(event.to, "Hold"));
-				}
+		}
+	}
 
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Run->Suspend_User event
-			else if (event.from == "Run" && event.to == "Suspend_User") {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", event.from));
-
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Run->Suspend_System event
-			else if (event.from == "Run" && event.to == "Suspend_System") {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", event.from));
-
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Blocked->Done event
-			else if (event.from == "Blocked" && event.to == "Done") {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process is successfully removed from memory AND the process successfully changed state 
-					if (memory.removeProcess(process) && states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", "Run"));
-
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Suspend_User->Done event
-			else if (event.from == "Suspend_User" && event.to == "Done") {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process is successfully removed from memory AND the process successfully changed state 
-					if (memory.removeProcess(process) && states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", "Run"));
-
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Suspend_User->Ready event
-			else if (event.from == "Suspend_User" && event.to == "Ready") {
-				// Let's first make sure that the Ready state isn't full
-				if (states.isStateFull(event.to)) {
-					// We need to fire an event to get the process out of the blocked state
-					fireEvent(new Event(event.to, "Hold"));
-				}
+	// Private function to generate a random event from the events list
+	private static Event generateRandomEvent(SimulationContext context) {
+		// If we're replaying a trace, the event comes out of the trace instead (and there isn't one if the trace has run out)
+		if (context.getReplay() != null) {
+			int index = context.getReplay().nextGeneratedEvent();
 
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Suspend_System->Ready event
-			else if (event.from == "Suspend_System" && event.to == "Ready") {
-				// Let's first make sure that the Ready state isn't full
-				if (states.isStateFull(event.to)) {
-					// We need to fire an event to get the process out of the blocked state
-					fireEvent(new Event(event.to, "Hold"));
-				}
+			return (index != -1) ? context.getEvents().get(index) : null;
+		}
 
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process successfully changed state 
-					if (states.changeProcessState(event)) {
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Run->Done event
-			else if (event.from == "Run" && event.to == "Done") {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// If the process is successfully removed from memory AND the process successfully changed state 
-					if (memory.removeProcess(process) && states.changeProcessState(event)) {
-						// Ok, it succeeded, but now there's nothing "running" (in the run event), so let's fix that
-						fireEvent(new Event("Ready", event.from));
-
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
-			// For a Ready->Hold event, let's remove the largest process in memory
-			else if (event.from == "Ready" && event.to == "Hold") {
-				// Let's get the largest process in the "from" location
-				Process largestReadyProcess = states.getLargestProcess(event.from); // May be null
-
-				// If we actually got back a process
-				if (largestReadyProcess != null) {
-					// Let's make sure this is all possible
-					if (states.isAddPossible(process, event.to)) {
-						// If the process is successfully removed from memory AND the process successfully changed state 
-						if (memory.removeProcess(largestReadyProcess) && states.changeProcessStateToHold(largestReadyProcess, event.from)) {
-							// If we made it here, the event has succeeded
-							return true;
-						}
-					}
-				}
-			}
-			// All other events
-			else {
-				// Let's make sure this is all possible
-				if (states.isAddPossible(process, event.to)) {
-					// Let's change the processes state
-					if (states.changeProcessState(event)) {
-						// If we made it here, the event has succeeded
-						return true;
-					}
-				}
-			}
+		// Create the number's maximum range
+		int randMax = context.getEvents().size();
+
+		// Generate a random int within the constraints
+		int n = context.getRandom().nextInt(randMax);
+
+		// Let's get the event at that random position n
+		Event generatedEvent = context.getEvents().get(n);
+
+		// If we're tracing, let's record it (it's counted once it's returned, so it's the next one)
+		if (context.getTrace() != null) {
+			context.getTrace().writeGenerated(n, context.getGeneratedEventCount() + 1);
 		}
 
-		// Increment the fired event counter
-		firedEventCount++;
-		
-		return false;
+		// Return the randomly generated event
+		return generatedEvent;
 	}
 
 	// Private function to check if the system has finished its job
-	private static boolean checkFinished() {
-		// If the total number of generated events has hit 500
-		if (generatedEventCount == MAX_EVENTS) {
+	private static boolean checkFinished(SimulationContext context) {
+		// For the classic jobs, the system stops at 500 generated events, and it's finished once every job is in the "Done" state
+		// For a streamed workload, it stops once no process has gone "Done" in 500 generated events, and it's finished once every process has
+		boolean stalled = (context.getGeneratedEventCount() == MAX_EVENTS);
+		boolean finished = (TOTAL_NUM_JOBS == context.getStates().getProcessCount("Done"));
+
+		if (context.getWorkload() != null) {
+			stalled = (context.getEventsSinceProgress() == MAX_EVENTS);
+			finished = (context.getWorkload().hasNext() != true && context.getStates().getDoneCount() == context.getWorkload().getCreatedCount());
+		}
+
+		// If the total number of generated events has hit 500 (or we've gone that long without getting anywhere)
+		if (stalled) {
+			// If the simulation is keeping quiet, there's nothing to print
+			if (context.isQuiet()) {
+				return true;
+			}
+
 			// Let's print out the memory and state table
-			System.out.println("State and Memory at generated event #" + generatedEventCount);
-			outputMemoryTable();
-			outputStateTable();
+			outputTables(context, "State and Memory at generated event #" + context.getGeneratedEventCount());
 
 			// Only show if debugMode is on
-			if (debugMode || seeFinishConditions) {
-				System.out.println("STOPPING! The maximum number of events: " + MAX_EVENTS + " have been generated. We're not getting anywhere.");
+			if ((debugMode || seeFinishConditions) && context.getWorkload() != null) {
+				context.getRenderer().println("STOPPING! No process has gone \"Done\" in the last " + MAX_EVENTS + " generated events. We're not getting anywhere.");
+			}
+			else if (debugMode || seeFinishConditions) {
+				context.getRenderer().println("STOPPING! The maximum number of events: " + MAX_EVENTS + " have been generated. We're not getting anywhere.");
 			}
 
 			return true;
 		}
 
 		// If every job is in the "Done" state
-		if (TOTAL_NUM_JOBS == states.getProcessCount("Done")) {
+		if (finished) {
+			// The simulation made it
+			context.markCompleted();
+
+			// If the simulation is keeping quiet, there's nothing to print
+			if (context.isQuiet()) {
+				return true;
+			}
+
 			// Let's print out the memory and state table
-			System.out.println("State and Memory at generated event #" + generatedEventCount);
-			outputMemoryTable();
-			outputStateTable();
+			outputTables(context, "State and Memory at generated event #" + context.getGeneratedEventCount());
 
 			// Only show if debugMode is on
 			if (debugMode || seeFinishConditions) {
-				System.out.println("STOPPING! The OS is \"finished\". Every process is in the \"Done\" state.");
-				System.out.println("Finished by generating " + generatedEventCount + " events and successfully firing " + firedEventCount + " events.");
+				context.getRenderer().println("STOPPING! The OS is \"finished\". Every process is in the \"Done\" state.");
+				context.getRenderer().println("Finished by generating " + context.getGeneratedEventCount() + " events and successfully firing " + context.getFiredEventCount() + " events.");
 			}
 
 			return true;
@@ -520,141 +749,98 @@ public class Simulation {
 		return false;
 	}
 
-	// Private function to output the memory manager's memory table
-	public static void outputMemoryTable() {
-		// Let's set our column padding
-		int colPadding = 14;
-		String string;
+	// Private function to output how a run went: its paging, compaction, memory, fragmentation and cascade reports
+	private static void outputReport(SimulationContext context) {
+		MemoryManager memory = context.getMemory();
 
-		// Let's create a couple of new lines
-		System.out.println("\r\n");
+		// If the memory is paged, let's show how well the pages stayed loaded
+		PagedMemoryMap pagedMemory = memory.getPagedMemory();
+		if (pagedMemory != null) {
+			double hitRatio = 0;
+			if (pagedMemory.getReferences() > 0) {
+				hitRatio = 100.0 * (pagedMemory.getReferences() - pagedMemory.getPageFaults()) / pagedMemory.getReferences();
+			}
 
-		// Let's create our header
-		String[] colHeaders = {"Block", "Process", "Size"};
+			System.out.println("Paging (" + pagedMemory.getReplacementPolicy() + "): " + pagedMemory.getReferences() + " references, " + pagedMemory.getPageFaults() + " page faults, " + pagedMemory.getEvictions() + " evictions, " + String.format("%.2f", hitRatio) + "% hit ratio");
+		}
 
-		// Let's loop through and print our header
-		for (String header : colHeaders) {
-			// Let's create a string that's padded and centered
-			string = StringUtils.center(header, colPadding);
-			System.out.print(string);
+		// If we're compacting, let's show what it cost us
+		if ("Never".equals(memory.getCompactionPolicy()) != true) {
+			System.out.println("Compaction (" + memory.getCompactionPolicy() + "): " + memory.getCompactionCount() + " passes moved " + memory.getCompactedMemory() + "k, costing " + memory.getCompactionTime() + " CPU time units");
 		}
 
-		// Let's create a couple of new lines
-		System.out.println("\r\n");
-		
-		// Now, let's loop through our memory manager
-		int i = 0;
-		List<Process> systemMemory = memory.getMemoryArrayList();
-		for (Process process : systemMemory) {
-			// Let's print out the block number
-			string = StringUtils.center("" + i, colPadding);
-			System.out.print(string);
-
-			// If the process isn't dead
-			if (process.isProcessDead() != true) {
-				// Let's print out the process id
-				string = StringUtils.center("#" + process.getId(), colPadding);
-				System.out.print(string);
-			}
-			// Otherwise, just print out that its free
-			else {
-				string = StringUtils.center("--", colPadding);
-				System.out.print(string);
-			}
+		// Let's show how the memory algorithm performed, and what it cost
+		System.out.println("Memory (" + memory.getMemoryAlgorithm() + "): " + memory.getAllocationCount() + " allocations, " + memory.getAllocationFailures() + " failed, " + memory.getReleaseCount() + " freed, " + String.format("%.2f", memory.getProbesPerFit()) + " blocks probed per fit, " + memory.getMergeCount() + " merges");
+		System.out.println("Fragmentation (" + memory.getMemoryAlgorithm() + "): " + memory.getFreeBlockCount() + " free blocks (peak " + memory.getPeakFreeBlockCount() + "), largest free block " + memory.getLargestFreeBlock() + "k, " + String.format("%.2f", 100 * memory.getExternalFragmentation()) + "% external (peak " + String.format("%.2f", 100 * memory.getPeakExternalFragmentation()) + "%, mean " + String.format("%.2f", 100 * memory.getMeanExternalFragmentation()) + "%)");
 
-			// Let's print out the block's size
-			string = StringUtils.center(process.getSize() + "k", colPadding);
-			System.out.print(string);
+		// Let's show how much work each event set off
+		EventCascade cascade = context.getCascade();
+		System.out.println("Cascades: " + cascade.getCascadeCount() + " cascades fired " + cascade.getCascadeEventCount() + " events (" + String.format("%.2f", cascade.getMeanCascadeLength()) + " per cascade), longest " + cascade.getLongestCascade() + " events, deepest " + cascade.getDeepestCascade() + " levels, " + cascade.getCutOffEventCount() + " cut off");
 
-			// Let's end the line
-			System.out.println();
+		// If the simulation ran on the discrete-event engine, let's show what its clock got through
+		DiscreteEventEngine engine = context.getDiscreteEngine();
+		if (engine != null) {
+			System.out.println("Clock (" + engine.getQueueType() + " queue): stopped at time " + engine.getTime() + " after " + engine.getHandledEventCount() + " scheduled events (" + engine.getBurstCount() + " bursts finished, " + engine.getTimerExpiryCount() + " time slices ran out, " + engine.getIoCount() + " I/Os finished, " + engine.getCompactionDelayCount() + " bursts delayed by compaction, " + engine.getStaleEventCount() + " skipped), peak " + engine.getPeakPendingCount() + " pending");
+		}
 
-			// Increment i
-			i++;
+		// If the processes were streamed in, let's show how many made it through
+		WorkloadSource workload = context.getWorkload();
+		if (workload != null) {
+			System.out.println("Workload (" + workload.getDescription() + "): " + workload.getCreatedCount() + " processes arrived, " + context.getStates().getDoneCount() + " got \"Done\"");
 		}
 
-		// Finally, to finish, let's create a couple of new lines
-		System.out.println("\r\n");
-	}
+		// If there were several cores, let's show how busy they were (and how often memory left them waiting)
+		CpuCores cores = context.getCores();
+		if (cores != null) {
+			String utilizations = "";
 
-	// Private function to output the event manager's state table
-	private static void outputStateTable() {
-		// Let's set our column padding
-		int colPadding = 14;
-
-		// Let's create a couple of new lines
-		System.out.println("\r\n");
-
-		// Let's create our header
-		for (String state : STATE_NAMES) {
-			// skip the other suspend, so we can just merge them later
-			if (state != "Suspend_System" && state != "Suspend_User") {
-				// Let's create a string that's padded and centered
-				String string = StringUtils.center(state, colPadding);
-				System.out.print(string);
-			}
-			else if (state == "Suspend_System") {
-				// Let's create a string that's padded and centered
-				String string = StringUtils.center("Suspend_Sys", colPadding);
-				System.out.print(string);
-			}
-			else if (state == "Suspend_User") {
-				// Let's create a string that's padded and centered
-				String string = StringUtils.center("Suspend_Usr", colPadding);
-				System.out.print(string);
-			}
-		}
-
-		// Let's create a couple of new lines
-		System.out.println("\r\n");
-
-		// Let's create our body, now
-		// Let's create as many rows as their are the most amount of processes in one state
-		for (int i = 0; i < states.getMostFilledStateCount(); i++) {
-			// Loop through each state name
-			for (String state : STATE_NAMES) {
-				// Let's create a process
-				Process process = null;
-
-				// Let's get the process
-				process = states.getProcessAtIndex(state, i);
-
-				// We could get back a null process
-				if (process != null) {
-					// Let's create a string that's padded and centered
-					String string = StringUtils.center(process.toString(), colPadding);
-					System.out.print(string);
-				}
-				else {
-					// Let's create a string that's padded and centered
-					String string = StringUtils.center("", colPadding);
-					System.out.print(string);
-				}
+			for (int i = 0; i < cores.getCoreCount(); i++) {
+				utilizations += (i > 0 ? ", " : "") + String.format("%.2f%%", 100 * cores.getUtilization(i));
 			}
 
-			// Let's create a couple of new lines
-			System.out.println();
+			System.out.println("Cores (" + cores.getCoreCount() + "): " + String.format("%.2f", 100 * cores.getUtilization()) + "% busy over " + cores.getTickCount() + " ticks (" + utilizations + "), " + cores.getStealCount() + " processes stolen, " + String.format("%.2f", 100 * cores.getAdmissionStarvation()) + "% of core time idle waiting on memory to admit a process");
 		}
 
-		// Finally, to finish, let's create a couple of new lines
-		System.out.println("\r\n");
+		// If there was a CPU scheduler, let's show how well it served the processes
+		CpuScheduler scheduler = context.getScheduler();
+		if (scheduler != null) {
+			System.out.println("Scheduler (" + scheduler.getName() + "): " + scheduler.getFinishedCount() + " processes finished, " + scheduler.getKilledCount() + " killed, " + String.format("%.2f", scheduler.getThroughput()) + " finished per 100 time units, " + String.format("%.2f", scheduler.getMeanTurnaround()) + " average turnaround, " + String.format("%.2f", scheduler.getMeanWaiting()) + " average waiting (" + String.format("%.2f", scheduler.getMeanReadyWaiting()) + " of it in Ready), " + scheduler.getPreemptionCount() + " preemptions");
+		}
+	}
+
+	// Private function to output the memory and state tables (with a line above them), unless tables are turned off
+	private static void outputTables(SimulationContext context, String title) {
+		if (tableInterval > 0) {
+			context.getRenderer().renderTables(title, context);
+		}
 	}
 
 	// Private function to actually start the system
-	private static void startSystem() {
+	private static void startSystem(SimulationContext context) {
 		// Mark the system as running
-		systemRunning = true;
+		context.setSystemRunning(true);
 
 		// While the system is still running
-		while (systemRunning) {
+		while (context.isSystemRunning()) {
+			// If the processes are being streamed in, let's take in the ones that have arrived
+			if (context.getWorkload() != null) {
+				admitArrivals(context);
+			}
+
 			// First, let's run our process
-			runProcess();
+			runProcess(context);
 
 			// Let's generate a random event
-			Event generatedEvent = generateRandomEvent();
+			Event generatedEvent = generateRandomEvent(context);
+
+			// If we're replaying a trace, and it's run out, the system stops where the trace did
+			if (generatedEvent == null) {
+				context.setSystemRunning(false);
+				break;
+			}
 
 			// Let's increment the total number of events that have been generated
-			generatedEventCount++;
+			context.countGeneratedEvent();
 			
 			// Only show if debugMode is on
 			if (debugMode) {
@@ -662,7 +848,7 @@ public class Simulation {
 			}
 
 			// Let's actually fire the event that's been generated
-			boolean eventSucceeded = fireEvent(generatedEvent);
+			boolean eventSucceeded = context.getCascade().fire(generatedEvent);
 
 			// If the event succeeded
 			if (eventSucceeded) {
@@ -679,14 +865,153 @@ public class Simulation {
 			}
 
 			// Let's check to see if the system has finished its job
-			if (checkFinished()) {
-				systemRunning = false;
+			if (checkFinished(context)) {
+				context.setSystemRunning(false);
+			}
+			// Every so often (25 generated events, by default), we should output the memory and state table (unless the simulation is keeping quiet)
+			else if (tableInterval > 0 && (context.getGeneratedEventCount() % tableInterval) == 0 && context.isQuiet() != true) {
+				outputTables(context, "State and Memory at generated event #" + context.getGeneratedEventCount());
+			}
+
+			// If we've been asked for a checkpoint at this event (and we're still running), let's save one
+			if (context.isSystemRunning() && context.getGeneratedEventCount() == context.getCheckpointEvent()) {
+				try {
+					Checkpoint.saveFile(context, context.getCheckpointFile());
+				}
+				catch (IOException exception) {
+					System.out.println("Couldn't save the checkpoint file with exception: " + exception);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Private function to start the system on the discrete-event engine
+	 * Instead of a tick per generated event, the clock jumps to whatever's scheduled to happen next: an event from outside,
+	 * the running process's CPU burst finishing (or its time slice running out), or a blocked process's I/O finishing
+	 */
+	private static void startDiscreteSystem(SimulationContext context) {
+		DiscreteEventEngine engine = context.getDiscreteEngine();
+
+		// Mark the system as running
+		context.setSystemRunning(true);
+
+		// Let's get the clock started
+		engine.start();
+
+		// While the system is still running
+		while (context.isSystemRunning()) {
+			// Let's move the clock on to the next thing that happens
+			ScheduledEvent scheduledEvent = engine.next();
+
+			// If nothing else is ever going to happen, the system stops here
+			if (scheduledEvent == null) {
+				context.setSystemRunning(false);
+				break;
+			}
+
+			if (scheduledEvent.kind == ScheduledEvent.GENERATED) {
+				// Let's see what's happened from outside
+				Event generatedEvent = engine.generateEvent();
+
+				// Let's increment the total number of events that have been generated
+				context.countGeneratedEvent();
+
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("GENERATED Event " + generatedEvent.toString() + " firing at time " + engine.getTime());
+				}
+
+				// Let's actually fire the event that's been generated
+				boolean eventSucceeded = context.getCascade().fire(generatedEvent);
+
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println((eventSucceeded ? "Event succeeded: " : "Event failed: ") + generatedEvent.toString());
+				}
+			}
+			else if (scheduledEvent.kind == ScheduledEvent.IO_DONE) {
+				Process process = scheduledEvent.process;
+
+				// If the process is still waiting on this I/O, it's ready to run again
+				if (engine.finishIo(scheduledEvent)) {
+					// Only show if debugMode is on
+					if (debugMode) {
+						System.out.println("I/O finished at time " + engine.getTime() + " for process: " + process.toString());
+					}
+
+					// If there's no way into Ready, the I/O will have to finish again later
+					if (context.getCascade().fire(IO_DONE_EVENT) != true) {
+						engine.scheduleIo(process);
+					}
+				}
+			}
+			else if (engine.finishBurst(scheduledEvent)) {
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("Running process: " + scheduledEvent.process.toString() + " until time " + engine.getTime());
+				}
+
+				// If the process is "DONE" (its used time has reached its required time), we need to fire a Run->Done event
+				if (scheduledEvent.kind == ScheduledEvent.BURST_DONE) {
+					context.getCascade().fire(RUN_DONE_EVENT);
+
+					// Only show if debugMode is on
+					if (debugMode) {
+						System.out.println("Process finished after running");
+					}
+				}
+				// Otherwise its time slice has run out, so it has to make way for the next process
+				else {
+					context.getCascade().fire(TIMER_EXPIRED_EVENT);
+
+					// Only show if debugMode is on
+					if (debugMode) {
+						System.out.println("Time slice ran out");
+					}
+				}
+			}
+
+			// We're done with the event, so the engine can use it again
+			engine.release(scheduledEvent);
+
+			// If the processes are being streamed in, let's take in the ones that have arrived by now
+			if (context.getWorkload() != null) {
+				admitArrivals(context);
+			}
+
+			// We REALLY shouldn't let the OS just sit dormant for the user, so if nothing's running, let's fire a Ready->Run event
+			if (context.getStates().isStateEmpty(ProcessState.RUN)) {
+				context.getCascade().fire(READY_RUN_EVENT);
+			}
+
+			// Let's schedule whatever comes of what's just happened (a new process running, or one starting its I/O)
+			engine.update();
+
+			// If the CPU scheduler wants a process that's just gotten ready to take over, the running process goes back to Ready (once per event, so it can't go round in circles)
+			if (engine.shouldPreempt()) {
+				engine.preempt();
+
+				// Only show if debugMode is on
+				if (debugMode) {
+					System.out.println("Preempting the running process at time " + engine.getTime());
+				}
+
+				// If there's no way back into Ready, the process is suspended instead (just as if its time slice had run out)
+				if (context.getCascade().fire(PREEMPT_EVENT) != true) {
+					context.getCascade().fire(TIMER_EXPIRED_EVENT);
+				}
+
+				engine.update();
+			}
+
+			// Let's check to see if the system has finished its job
+			if (checkFinished(context)) {
+				context.setSystemRunning(false);
 			}
-			// Every 25 generated events, we should output the memory and state table
-			else if ((generatedEventCount % 25) == 0) {
-				System.out.println("State and Memory at generated event #" + generatedEventCount);
-				outputMemoryTable();
-				outputStateTable();
+			// Every so often (25 generated events, by default), we should output the memory and state table (unless the simulation is keeping quiet)
+			else if (scheduledEvent.kind == ScheduledEvent.GENERATED && tableInterval > 0 && (context.getGeneratedEventCount() % tableInterval) == 0 && context.isQuiet() != true) {
+				outputTables(context, "State and Memory at generated event #" + context.getGeneratedEventCount() + " (time " + engine.getTime() + ")");
 			}
 		}
 	}
@@ -708,31 +1033,163 @@ public class Simulation {
 		String shortCode = "-d";
 		String longCode = "--debug";
 		String description = "Enable a very verbose debug-style output";
-		System.out.format("%4s, %-14s%-40s\r\n", shortCode, longCode, description);
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
 
 		// Run Once
 		shortCode = "-r";
 		longCode = "--runonce";
 		description = "Set the simulation to only run once for each memory allocation algorithm";
-		System.out.format("%4s, %-14s%-40s\r\n", shortCode, longCode, description);
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
 
 		// See Finish
 		shortCode = "-f";
 		longCode = "--seefinish";
 		description = "See the finishing condition output. Automatically enabled with debug mode enabled.";
-		System.out.format("%4s, %-14s%-40s\r\n", shortCode, longCode, description);
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Memory Backend
+		shortCode = "-b";
+		longCode = "--backend";
+		description = "Set the memory map backend: \"List\" (default), \"Array\", \"Tree\" or \"Bitmap\". Not used by the \"Buddy\" or \"Paged\" algorithms";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Compaction
+		shortCode = "-c";
+		longCode = "--compaction";
+		description = "Set when to compact memory: \"Never\" (default), on admission \"Failure\", or past a fragmentation \"Threshold\"";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Compaction Threshold
+		shortCode = "";
+		longCode = "--threshold";
+		description = "Set the external fragmentation ratio (0 to 1) for the \"Threshold\" compaction policy. Defaults to 0.5";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Page Replacement
+		shortCode = "-p";
+		longCode = "--replacement";
+		description = "Set the page replacement policy for the \"Paged\" memory algorithm: \"FIFO\", \"LRU\" (default) or \"Clock\"";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Maximum Cascade Depth
+		shortCode = "";
+		longCode = "--maxcascade";
+		description = "Set how many events can be waiting on each other in one cascade before the next one is cut off. Defaults to " + EventCascade.DEFAULT_MAX_DEPTH;
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Engine
+		shortCode = "-e";
+		longCode = "--engine";
+		description = "Set how the simulation's time passes: a tick per generated event (\"Tick\", the default), or jumping from one scheduled event to the next (\"Discrete\"). Only ticking runs can be traced or checkpointed";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Event Queue
+		shortCode = "";
+		longCode = "--queue";
+		description = "Set the discrete-event engine's event queue: a binary \"Heap\" (default), or a \"Calendar\" queue for very many pending events";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// CPU Scheduler
+		shortCode = "-s";
+		longCode = "--scheduler";
+		description = "Run each memory algorithm with these CPU schedulers (comma separated, or \"all\"): \"RR\", \"SJF\", \"SRTF\", \"Priority\" or \"MLFQ\". Time slices and preemption need the \"Discrete\" engine";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Cores
+		shortCode = "-n";
+		longCode = "--cores";
+		description = "Run each memory algorithm on machines with these numbers of CPU cores (comma separated), each core with its own ready processes (idle cores steal them). Defaults to 1. Several cores need the \"Tick\" engine, and no CPU scheduler";
+		System.out.format("%4s, %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Jobs
+		shortCode = "";
+		longCode = "--jobs";
+		description = "Stream this many generated processes into Hold as they arrive (as many millions as you like), instead of the classic 13 jobs";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Distribution
+		shortCode = "";
+		longCode = "--distribution";
+		description = "Set the distribution the generated processes' sizes and times are drawn from: \"Uniform\" (default), \"Exponential\", \"Pareto\" or \"Bimodal\"";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Arrival Gap
+		shortCode = "";
+		longCode = "--arrival";
+		description = "Set the average time between the generated processes' arrivals. Defaults to 0 (they all arrive at the start)";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Job File
+		shortCode = "";
+		longCode = "--jobfile";
+		description = "Stream the processes in from a CSV job trace (\"arrival time,size,CPU time\" on each line), read a line at a time";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Table Interval
+		shortCode = "";
+		longCode = "--interval";
+		description = "Set the number of generated events between each memory and state table, or 0 to turn the tables off. Defaults to 25";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Trace
+		shortCode = "";
+		longCode = "--trace";
+		description = "Record each run's events to a binary trace file (named after the given file and the memory algorithm, holding its latest run)";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Replay
+		shortCode = "";
+		longCode = "--replay";
+		description = "Replay a trace file without any random numbers (with the memory options given), and report where it first differs";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Checkpoint
+		shortCode = "";
+		longCode = "--checkpoint";
+		description = "Save each run's full state to a checkpoint file (named after the given file and the memory algorithm) along the way";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Checkpoint Event
+		shortCode = "";
+		longCode = "--at";
+		description = "Set the generated event to save the checkpoint at. Defaults to 250";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Resume
+		shortCode = "";
+		longCode = "--resume";
+		description = "Resume a run from a checkpoint file, and run it to the end (with --seed, carry on with different random numbers)";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Batch
+		shortCode = "";
+		longCode = "--batch";
+		description = "Run every memory algorithm on this many seeds (without any tables or debug output), and report how each one did";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Threads
+		shortCode = "";
+		longCode = "--threads";
+		description = "Set the number of threads to run a batch on. Defaults to the number of processors";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
+
+		// Seed
+		shortCode = "";
+		longCode = "--seed";
+		description = "Set the master seed that a batch's seeds are drawn from, so the batch can be reproduced (or the seed a resumed run carries on with). Defaults to the current time";
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
 
 		// Help
 		shortCode = "";
 		longCode = "--help";
 		description = "Display this help and exit";
-		System.out.format("%4s  %-14s%-40s\r\n", shortCode, longCode, description);
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
 
 		// Version
 		shortCode = "";
 		longCode = "--version";
 		description = "Output version information and exit";
-		System.out.format("%4s  %-14s%-40s\r\n", shortCode, longCode, description);
+		System.out.format("%4s  %-16s%-40s\r\n", shortCode, longCode, description);
 	}
 
 	// Private function to print the version information to the screen
@@ -757,8 +1214,8 @@ public class Simulation {
 		System.out.println(organization + "\r\n");
 	}
 
-	// Private function to check the passed arguments
-	private static void checkArguments(String[] args) {
+	// Private function to check the passed arguments (returns false if they can't be used)
+	private static boolean checkArguments(String[] args) {
 		// Let's get all the arguments as an array
 		List<String> arguments = Arrays.asList(args);
 		
@@ -777,6 +1234,146 @@ public class Simulation {
 			seeFinishConditions = true;
 		}
 
+		// If a memory backend has been passed, lets use it
+		String backend = getArgumentValue(arguments, "-b", "--backend");
+		if (backend != null) {
+			memoryBackend = backend;
+		}
+
+		// If a compaction policy has been passed, lets use it
+		String policy = getArgumentValue(arguments, "-c", "--compaction");
+		if (policy != null) {
+			compactionPolicy = policy;
+		}
+
+		// If a compaction threshold has been passed, lets use it
+		String threshold = getArgumentValue(arguments, "--threshold", "--threshold");
+		if (threshold != null) {
+			compactionThreshold = Double.parseDouble(threshold);
+		}
+
+		// If a maximum cascade depth has been passed, lets use it
+		String cascadeDepth = getArgumentValue(arguments, "--maxcascade", "--maxcascade");
+		if (cascadeDepth != null) {
+			maxCascadeDepth = Integer.parseInt(cascadeDepth);
+		}
+
+		// If a page replacement policy has been passed, lets use it
+		String replacement = getArgumentValue(arguments, "-p", "--replacement");
+		if (replacement != null) {
+			replacementPolicy = replacement;
+		}
+
+		// If an engine has been passed, lets use it
+		String engine = getArgumentValue(arguments, "-e", "--engine");
+		if (engine != null) {
+			engineType = engine;
+		}
+
+		// If an event queue has been passed, lets use it
+		String queue = getArgumentValue(arguments, "--queue", "--queue");
+		if (queue != null) {
+			queueType = queue;
+		}
+
+		// If CPU schedulers have been passed, lets use them
+		String scheduler = getArgumentValue(arguments, "-s", "--scheduler");
+		if (scheduler != null && "all".equals(scheduler)) {
+			schedulerTypes = CpuScheduler.SCHEDULERS;
+		}
+		else if (scheduler != null) {
+			schedulerTypes = scheduler.split(",");
+		}
+
+		// If numbers of cores have been passed, lets use them
+		String cores = getArgumentValue(arguments, "-n", "--cores");
+		if (cores != null) {
+			String[] counts = cores.split(",");
+			coreCounts = new int[counts.length];
+
+			for (int i = 0; i < counts.length; i++) {
+				coreCounts[i] = Integer.parseInt(counts[i]);
+			}
+		}
+
+		// If a number of generated jobs has been passed, lets stream them in
+		String jobs = getArgumentValue(arguments, "--jobs", "--jobs");
+		if (jobs != null) {
+			workloadJobs = Long.parseLong(jobs);
+		}
+
+		// If a workload distribution has been passed, lets use it
+		String distribution = getArgumentValue(arguments, "--distribution", "--distribution");
+		if (distribution != null) {
+			workloadDistribution = distribution;
+		}
+
+		// If an arrival gap has been passed, lets use it
+		String arrival = getArgumentValue(arguments, "--arrival", "--arrival");
+		if (arrival != null) {
+			arrivalGap = Double.parseDouble(arrival);
+		}
+
+		// If a job file has been passed, lets stream the jobs in from it
+		String jobFileName = getArgumentValue(arguments, "--jobfile", "--jobfile");
+		if (jobFileName != null) {
+			jobFile = jobFileName;
+		}
+
+		// If a table interval has been passed, lets use it
+		String interval = getArgumentValue(arguments, "--interval", "--interval");
+		if (interval != null) {
+			tableInterval = Integer.parseInt(interval);
+		}
+
+		// If a trace file has been passed, lets record to it
+		String trace = getArgumentValue(arguments, "--trace", "--trace");
+		if (trace != null) {
+			traceFile = trace;
+		}
+
+		// If a trace file to replay has been passed, lets replay it
+		String replay = getArgumentValue(arguments, "--replay", "--replay");
+		if (replay != null) {
+			replayFile = replay;
+		}
+
+		// If a checkpoint file has been passed, lets save to it
+		String checkpoint = getArgumentValue(arguments, "--checkpoint", "--checkpoint");
+		if (checkpoint != null) {
+			checkpointFile = checkpoint;
+		}
+
+		// If a checkpoint event has been passed, lets use it
+		String checkpointAt = getArgumentValue(arguments, "--at", "--at");
+		if (checkpointAt != null) {
+			checkpointEvent = Integer.parseInt(checkpointAt);
+		}
+
+		// If a checkpoint file to resume has been passed, lets resume it
+		String resume = getArgumentValue(arguments, "--resume", "--resume");
+		if (resume != null) {
+			resumeFile = resume;
+		}
+
+		// If a batch size has been passed, lets enable batch mode
+		String batch = getArgumentValue(arguments, "--batch", "--batch");
+		if (batch != null) {
+			batchRuns = Integer.parseInt(batch);
+		}
+
+		// If a number of batch threads has been passed, lets use it
+		String threads = getArgumentValue(arguments, "--threads", "--threads");
+		if (threads != null) {
+			batchThreads = Integer.parseInt(threads);
+		}
+
+		// If a master seed has been passed, lets use it
+		String seed = getArgumentValue(arguments, "--seed", "--seed");
+		if (seed != null) {
+			masterSeed = Long.parseLong(seed);
+		}
+
 		// If help has been passed, lets enable it
 		if (arguments.contains("--help")) {
 			helpMode = true;
@@ -786,18 +1383,95 @@ public class Simulation {
 		if (arguments.contains("--version")) {
 			versionMode = true;
 		}
-		
+
+		// If we're going to run, let's make sure the options we were given can be used before any run starts
+		if (helpMode != true && versionMode != true) {
+			return checkOptions();
+		}
+
+		return true;
+	}
+
+	// Private function to check the options we were given, reporting the first one that can't be used (returns false if there is one)
+	private static boolean checkOptions() {
+		try {
+			// Creating a memory manager checks its options (the backend, the page replacement policy, and when to compact)
+			MemoryManager memory = new MemoryManager("Best", memoryBackend, replacementPolicy);
+			memory.setCompactionPolicy(compactionPolicy, compactionThreshold);
+
+			// The engine is just checked by name, but the event queue can be created on its own
+			if ("Tick".equals(engineType) != true && "Discrete".equals(engineType) != true) {
+				throw new IllegalArgumentException("Unknown engine: " + engineType);
+			}
+
+			DiscreteEventEngine.createQueue(queueType);
+
+			// The CPU schedulers are checked by name too (each one's created for its own simulation), and so is the workload's distribution
+			if (schedulerTypes != null) {
+				for (String scheduler : schedulerTypes) {
+					if (Arrays.asList(CpuScheduler.SCHEDULERS).contains(scheduler) != true) {
+						throw new IllegalArgumentException("Unknown CPU scheduler: " + scheduler);
+					}
+				}
+			}
+
+			WorkloadDistribution.forName(workloadDistribution);
+
+			// And several cores can't go with the discrete-event engine or a CPU scheduler (just as a simulation would refuse them, only before any run starts)
+			for (int coreCount : coreCounts) {
+				if (coreCount > 1 && ("Discrete".equals(engineType) || schedulerTypes != null)) {
+					throw new IllegalArgumentException("Multiple cores can only be simulated on the \"Tick\" engine, without a CPU scheduler");
+				}
+			}
+		}
+		catch (IllegalArgumentException exception) {
+			System.out.println("Couldn't use the options with exception: " + exception);
+
+			return false;
+		}
+
+		return true;
+	}
+
+	// Private function to get the value that follows an argument (like "--backend Array"), or null if it wasn't passed
+	private static String getArgumentValue(List<String> arguments, String shortCode, String longCode) {
+		// Let's find where the argument is
+		int index = arguments.indexOf(longCode);
+
+		if (index == -1) {
+			index = arguments.indexOf(shortCode);
+		}
+
+		// If it was passed AND it has a value after it, let's return that value
+		if (index > -1 && index + 1 < arguments.size()) {
+			return arguments.get(index + 1);
+		}
+
+		return null;
 	}
 
 	// Main function
 	public static void main(String[] args) {
-		// Let's check for arguments
-		checkArguments(args);
+		// Let's check for arguments (and stop here if they can't be used)
+		if (checkArguments(args) != true) {
+			return;
+		}
 
 		// If help mode hasn't been enabled, actually run the system
 		if (!helpMode && !versionMode) {
-			// Begin the simulation
-			run();
+			// Begin the simulation (or a whole batch of them)
+			if (resumeFile != null) {
+				runResume();
+			}
+			else if (replayFile != null) {
+				runReplay();
+			}
+			else if (batchRuns > 0) {
+				runBatch();
+			}
+			else {
+				run();
+			}
 		}
 		else if (helpMode) {
 			printHelp();
@@ -0,0 +1,301 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Simulation Context class
+ * Everything that belongs to one run of the simulation: its event and memory managers, random numbers, process ids and counters
+ * Nothing in a context is shared, so any number of simulations can run at once (even on different threads)
+ */
+class SimulationContext {
+	// Declare final variables (constants)
+	private static final int STREAMED_DONE_RETENTION = 16; // The number of the latest "Done" processes kept while a workload is streamed in
+
+	// Declare properties
+	private long randomSeed;
+	private SimulationRandom random;
+	private EventManager states;
+	private MemoryManager memory;
+	private EventCascade cascade;
+	private List<Event> events; // The events that can be randomly generated
+	private int numOfProcesses; // Use this so we can always have a UNIQUE identifier
+	private boolean systemRunning;
+	private int generatedEventCount;
+	private int firedEventCount;
+	private boolean quiet; // Whether the simulation should keep its tables (and finishing conditions) to itself
+	private boolean completed; // Whether every job made it to the "Done" state before the simulation stopped
+	private TableRenderer renderer; // Where the simulation's tables (and finishing conditions) get written
+	private TraceWriter trace; // Where everything that happens gets recorded (null if we're not tracing)
+	private TraceReplay replay; // The trace the simulation is being re-driven from (null if we're not replaying one)
+	private DiscreteEventEngine discreteEngine; // The clock that jumps from one scheduled event to the next (null if the simulation ticks along instead)
+	private CpuScheduler scheduler; // What decides which ready process runs next (null if it's just the first one in)
+	private CpuCores cores; // The cores of a multi-core machine (null if there's a single CPU)
+	private WorkloadSource workload; // Where the processes are streamed in from (null for the classic handful of jobs)
+	private long progressDoneCount; // The number of "Done" processes when one last went "Done"
+	private int progressEvent; // The generated event when a process last went "Done"
+	private int checkpointEvent = -1; // The generated event to save a checkpoint at (-1 if we're not saving one)
+	private String checkpointFile;
+
+	// Constructor
+	public SimulationContext(long randomSeed, MemoryManager memory) {
+		// Let's set some properties
+		this.randomSeed = randomSeed;
+		this.memory = memory;
+
+		// Let's create our own random numbers, event manager and event engine
+		this.random = new SimulationRandom(randomSeed);
+		this.states = new EventManager();
+		this.cascade = new EventCascade(this);
+
+		// Until we're given a renderer to share, let's write our tables straight out
+		this.renderer = new TableRenderer(false);
+	}
+
+	// Public function to get the random number seed
+	public long getRandomSeed() {
+		return this.randomSeed;
+	}
+
+	// Public function to get the simulation's random number generator
+	public SimulationRandom getRandom() {
+		return this.random;
+	}
+
+	// Public function to get the simulation's event manager
+	public EventManager getStates() {
+		return this.states;
+	}
+
+	// Public function to get the simulation's memory manager
+	public MemoryManager getMemory() {
+		return this.memory;
+	}
+
+	// Public function to get the simulation's event engine
+	public EventCascade getCascade() {
+		return this.cascade;
+	}
+
+	// Public function to get the events that can be randomly generated
+	public List<Event> getEvents() {
+		return this.events;
+	}
+
+	// Public function to set the events that can be randomly generated
+	public void setEvents(List<Event> events) {
+		this.events = events;
+	}
+
+	// Public function to hand out a new, unique process identifier
+	public int generateProcessId() {
+		return this.numOfProcesses++;
+	}
+
+	/*
+	 * Public function to create a process for a streamed workload
+	 * It re-uses a "Done" process that's been let go (and its id), if there is one, so the tables indexed by id never outgrow what's running,
+	 * and a long stream of processes doesn't create a new one for every process that arrives
+	 */
+	public Process createProcess(int size, int time) {
+		Process process = this.states.takeRetiredProcess();
+
+		if (process == null) {
+			return new Process(this, size, time);
+		}
+
+		process.reuse(this, size, time);
+
+		return process;
+	}
+
+	// Public function to get the number of processes that have been created
+	public int getNumOfProcesses() {
+		return this.numOfProcesses;
+	}
+
+	// Public function to check if the system is still running
+	public boolean isSystemRunning() {
+		return this.systemRunning;
+	}
+
+	// Public function to mark the system as running (or not)
+	public void setSystemRunning(boolean systemRunning) {
+		this.systemRunning = systemRunning;
+	}
+
+	// Public function to get where the simulation's tables get written
+	public TableRenderer getRenderer() {
+		return this.renderer;
+	}
+
+	// Public function to set where the simulation's tables get written
+	public void setRenderer(TableRenderer renderer) {
+		this.renderer = renderer;
+	}
+
+	// Public function to get where everything that happens gets recorded (or null if we're not tracing)
+	public TraceWriter getTrace() {
+		return this.trace;
+	}
+
+	// Public function to set where everything that happens gets recorded
+	public void setTrace(TraceWriter trace) {
+		this.trace = trace;
+	}
+
+	// Public function to get the trace the simulation is being re-driven from (or null if we're not replaying one)
+	public TraceReplay getReplay() {
+		return this.replay;
+	}
+
+	// Public function to re-drive the simulation from a trace, instead of its random numbers
+	public void setReplay(TraceReplay replay) {
+		this.replay = replay;
+	}
+
+	// Public function to get the discrete-event engine (or null if the simulation ticks along, one generated event per tick)
+	public DiscreteEventEngine getDiscreteEngine() {
+		return this.discreteEngine;
+	}
+
+	// Public function to run the simulation on a discrete-event engine (or, given null, to tick along)
+	public void setDiscreteEngine(DiscreteEventEngine discreteEngine) {
+		this.discreteEngine = discreteEngine;
+	}
+
+	// Public function to get the CPU scheduler (or null if the first process in Ready is always the next to run)
+	public CpuScheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	// Public function to set the CPU scheduler (the event manager consults it too, so it has to be set before any process is in Ready)
+	public void setScheduler(CpuScheduler scheduler) {
+		this.scheduler = scheduler;
+		this.states.setScheduler(scheduler);
+	}
+
+	// Public function to get the cores of a multi-core machine (or null if there's a single CPU)
+	public CpuCores getCores() {
+		return this.cores;
+	}
+
+	// Public function to set the cores of a multi-core machine (the event manager consults them too, so they have to be set before any process is in Ready)
+	public void setCores(CpuCores cores) {
+		this.cores = cores;
+		this.states.setCores(cores);
+	}
+
+	// Public function to get the workload the processes are streamed in from (or null for the classic handful of jobs)
+	public WorkloadSource getWorkload() {
+		return this.workload;
+	}
+
+	// Public function to stream the processes in from a workload (only the latest "Done" processes are kept, so it has to be set before any process is done)
+	public void setWorkload(WorkloadSource workload) {
+		this.workload = workload;
+
+		if (workload != null) {
+			this.states.setDoneRetention(STREAMED_DONE_RETENTION);
+		}
+		else {
+			this.states.setDoneRetention(EventManager.NO_LIMIT);
+		}
+	}
+
+	// Public function to get the number of generated events since a process last went "Done"
+	public int getEventsSinceProgress() {
+		if (this.states.getDoneCount() != this.progressDoneCount) {
+			this.progressDoneCount = this.states.getDoneCount();
+			this.progressEvent = this.generatedEventCount;
+		}
+
+		return this.generatedEventCount - this.progressEvent;
+	}
+
+	// Public function to get the simulated time: the discrete-event engine's clock, or (ticking along) a tick's worth of CPU time per generated event
+	public long getTime() {
+		if (this.discreteEngine != null) {
+			return this.discreteEngine.getTime();
+		}
+
+		return (long) this.generatedEventCount * Simulation.PROCESS_RUN_TIME;
+	}
+
+	// Public function to save a checkpoint of the simulation to the given file, once it's generated the given number of events
+	public void setCheckpoint(int checkpointEvent, String checkpointFile) {
+		this.checkpointEvent = checkpointEvent;
+		this.checkpointFile = checkpointFile;
+	}
+
+	// Public function to get the generated event to save a checkpoint at (or -1)
+	public int getCheckpointEvent() {
+		return this.checkpointEvent;
+	}
+
+	// Public function to get the file to save the checkpoint to
+	public String getCheckpointFile() {
+		return this.checkpointFile;
+	}
+
+	// Public function to check if the simulation should keep its output to itself
+	public boolean isQuiet() {
+		return this.quiet;
+	}
+
+	// Public function to set whether the simulation should keep its output to itself (like in a batch of runs)
+	public void setQuiet(boolean quiet) {
+		this.quiet = quiet;
+	}
+
+	// Public function to check if every job made it to the "Done" state
+	public boolean isCompleted() {
+		return this.completed;
+	}
+
+	// Public function to mark that every job made it to the "Done" state
+	public void markCompleted() {
+		this.completed = true;
+	}
+
+	// Public function to count a generated event
+	public void countGeneratedEvent() {
+		this.generatedEventCount++;
+	}
+
+	// Public function to get the number of events that have been generated
+	public int getGeneratedEventCount() {
+		return this.generatedEventCount;
+	}
+
+	// Public function to count an event that was fired, but didn't succeed
+	public void countFiredEvent() {
+		this.firedEventCount++;
+	}
+
+	// Public function to get the fired event count
+	public int getFiredEventCount() {
+		return this.firedEventCount;
+	}
+
+	// Public function to write the simulation's own state (its seed, random number position and counters) to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		out.writeLong(this.randomSeed);
+		out.writeLong(this.random.getState());
+		out.writeInt(this.numOfProcesses);
+		out.writeInt(this.generatedEventCount);
+		out.writeInt(this.firedEventCount);
+		out.writeBoolean(this.completed);
+	}
+
+	// Public function to read the simulation's own state back from a checkpoint
+	public void readState(DataInput in) throws IOException {
+		this.randomSeed = in.readLong();
+		this.random.setState(in.readLong());
+		this.numOfProcesses = in.readInt();
+		this.generatedEventCount = in.readInt();
+		this.firedEventCount = in.readInt();
+		this.completed = in.readBoolean();
+	}
+}
@@ -0,0 +1,47 @@
+// Imports (libraries and utilities)
+import java.util.Random;
+
+/*
+ * Simulation Random class
+ * Exactly the same random numbers as java.util.Random (the same 48-bit linear congruential generator), but with its position exposed
+ * That lets a checkpoint save where a simulation is in its random numbers, and pick up from there again
+ */
+class SimulationRandom extends Random {
+	// Declare final variables (constants)
+	private static final long serialVersionUID = 1L; // (Random is serializable, though a checkpoint saves the position itself)
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	// Declare properties
+	private long state; // Set by setSeed, which the Random constructor calls (so it mustn't have an initializer)
+
+	// Constructor
+	public SimulationRandom(long seed) {
+		super(seed);
+	}
+
+	// Public function to reset the generator from a seed (scrambled the same way java.util.Random does it)
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+
+		this.state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	// Protected function to generate the next random bits
+	protected int next(int bits) {
+		this.state = ((this.state * MULTIPLIER) + ADDEND) & MASK;
+
+		return (int) (this.state >>> (48 - bits));
+	}
+
+	// Public function to get the generator's position
+	public long getState() {
+		return this.state;
+	}
+
+	// Public function to move the generator to a position it was at
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+}
@@ -0,0 +1,216 @@
+// Imports (libraries and utilities)
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Table Renderer class
+ * Renders the memory and state tables a whole frame at a time into one reusable buffer, and writes each frame out in one go
+ * An asynchronous renderer takes a snapshot of the tables and hands it to its own writer thread, so the simulation never waits on the console
+ * Anything else the simulation prints while it runs goes through the same writer thread, so everything still comes out in order
+ */
+class TableRenderer {
+	// Declare final variables (constants)
+	private static final int COLUMN_PADDING = 14; // The width of each table column
+	private static final String NEW_LINE = System.lineSeparator();
+	private static final String SPACER = "\r\n" + NEW_LINE; // The gap around each table
+	private static final String[] STATE_HEADERS = {"Hold", "Ready", "Run", "Suspend_Sys", "Suspend_Usr", "Blocked", "Done"}; // Indexed by the state's ordinal
+
+	// Declare properties
+	private ExecutorService writer; // The thread that renders and writes (null if we're rendering synchronously)
+	private Future<?> lastWrite; // The last thing handed to the writer thread
+	private StringBuilder frame = new StringBuilder(8192); // The frame being rendered (only ever touched by one thread at a time)
+	private StringBuilder cell = new StringBuilder(32); // The cell being rendered, before it's centered into the frame
+
+	// Constructor
+	public TableRenderer(boolean asynchronous) {
+		// If we're rendering asynchronously, let's start our writer thread (as a daemon, so it never holds the program open)
+		if (asynchronous) {
+			this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Table Renderer");
+					thread.setDaemon(true);
+
+					return thread;
+				}
+			});
+		}
+	}
+
+	// Public function to check if the renderer writes on its own thread
+	public boolean isAsynchronous() {
+		return this.writer != null;
+	}
+
+	// Public function to render the memory and state tables of the given simulation (with a line above them, if the title isn't null)
+	public void renderTables(String title, SimulationContext context) {
+		final TableSnapshot snapshot = TableSnapshot.capture(title, context);
+
+		this.submit(new Runnable() {
+			public void run() {
+				writeTables(snapshot);
+			}
+		});
+	}
+
+	// Public function to print a line of text, in order with the tables
+	public void println(final String text) {
+		this.submit(new Runnable() {
+			public void run() {
+				System.out.println(text);
+			}
+		});
+	}
+
+	// Public function to wait until everything handed to the renderer has been written
+	public void flush() {
+		if (this.lastWrite == null) {
+			return;
+		}
+
+		try {
+			this.lastWrite.get();
+		}
+		catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException exception) {
+			throw new IllegalStateException("Table rendering failed", exception.getCause());
+		}
+
+		this.lastWrite = null;
+	}
+
+	// Public function to write everything that's left, and stop the writer thread
+	public void close() {
+		this.flush();
+
+		if (this.writer != null) {
+			this.writer.shutdown();
+		}
+	}
+
+	// Private function to run a write on the writer thread (or right away, if we're rendering synchronously)
+	private void submit(Runnable write) {
+		if (this.writer != null) {
+			this.lastWrite = this.writer.submit(write);
+		}
+		else {
+			write.run();
+		}
+	}
+
+	// Private function to render a snapshot's tables into the frame, and write it out
+	private void writeTables(TableSnapshot snapshot) {
+		// Let's reuse the frame buffer
+		this.frame.setLength(0);
+
+		if (snapshot.title != null) {
+			this.frame.append(snapshot.title).append(NEW_LINE);
+		}
+
+		this.renderMemoryTable(snapshot);
+		this.renderStateTable(snapshot);
+
+		// And write the whole thing at once
+		System.out.print(this.frame);
+		System.out.flush();
+	}
+
+	// Private function to render the memory table (or the frame table, if the memory is paged)
+	private void renderMemoryTable(TableSnapshot snapshot) {
+		this.frame.append(SPACER);
+
+		// Let's render our header
+		this.appendCentered(snapshot.paged ? "Frame" : "Block");
+		this.appendCentered("Process");
+		this.appendCentered(snapshot.paged ? "Page" : "Size");
+
+		this.frame.append(SPACER);
+
+		// Now, let's render each block (or frame)
+		for (int i = 0; i < snapshot.memoryIds.length; i++) {
+			// The block (or frame) number
+			this.cell.setLength(0);
+			this.appendCentered(this.cell.append(i));
+
+			// The process id, or a dash if it's free
+			this.cell.setLength(0);
+			if (snapshot.memoryIds[i] != TableSnapshot.FREE) {
+				this.appendCentered(this.cell.append('#').append(snapshot.memoryIds[i]));
+			}
+			else {
+				this.appendCentered("--");
+			}
+
+			// The block's size (or the frame's page, or a dash if the frame's free)
+			this.cell.setLength(0);
+			if (snapshot.paged != true) {
+				this.appendCentered(this.cell.append(snapshot.memoryValues[i]).append('k'));
+			}
+			else if (snapshot.memoryIds[i] != TableSnapshot.FREE) {
+				this.appendCentered(this.cell.append(snapshot.memoryValues[i]));
+			}
+			else {
+				this.appendCentered("--");
+			}
+
+			this.frame.append(NEW_LINE);
+		}
+
+		// The buddy system rounds every process up to a power-of-two block, so let's show how much that wastes
+		if (snapshot.internalFragmentation != -1) {
+			this.frame.append("\r\nInternal fragmentation: ").append(snapshot.internalFragmentation).append('k').append(NEW_LINE);
+		}
+
+		this.frame.append(SPACER);
+	}
+
+	// Private function to render the state table
+	private void renderStateTable(TableSnapshot snapshot) {
+		this.frame.append(SPACER);
+
+		// Let's render our header
+		for (String header : STATE_HEADERS) {
+			this.appendCentered(header);
+		}
+
+		this.frame.append(SPACER);
+
+		// Let's render as many rows as there are processes in the fullest state
+		for (int i = 0; i < snapshot.mostFilledStateCount; i++) {
+			for (int state = 0; state < STATE_HEADERS.length; state++) {
+				this.cell.setLength(0);
+
+				// Not every state has a process in every row
+				if (i < snapshot.stateIds[state].length) {
+					this.cell.append('#').append(snapshot.stateIds[state][i]).append('/').append(snapshot.stateSizes[state][i]).append("k/").append(snapshot.stateTimes[state][i]).append('t');
+				}
+
+				this.appendCentered(this.cell);
+			}
+
+			this.frame.append(NEW_LINE);
+		}
+
+		this.frame.append(SPACER);
+	}
+
+	// Private function to append a cell to the frame, centered in its column (like StringUtils.center, without the new strings)
+	private void appendCentered(CharSequence text) {
+		int padding = COLUMN_PADDING - text.length();
+		int leftPadding = padding / 2;
+
+		for (int i = 0; i < leftPadding; i++) {
+			this.frame.append(' ');
+		}
+
+		this.frame.append(text);
+
+		for (int i = leftPadding; i < padding; i++) {
+			this.frame.append(' ');
+		}
+	}
+}
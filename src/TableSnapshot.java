@@ -0,0 +1,100 @@
+// Imports (libraries and utilities)
+import java.util.List;
+
+/*
+ * Table Snapshot class
+ * A copy of everything the memory and state tables show at one moment of a simulation
+ * The simulation keeps running (and changing its processes) while the snapshot is rendered, so nothing in here points back into it
+ */
+class TableSnapshot {
+	// Declare final variables (constants)
+	public static final int FREE = -1; // The process id of a free block or frame
+
+	// Declare properties
+	public final String title; // The line to print above the tables (null if there isn't one)
+	public final boolean paged; // Whether the memory is shown as frames instead of blocks
+	public final int[] memoryIds; // The process id in each block (or frame), or FREE
+	public final int[] memoryValues; // The size of each block, or the page number in each frame
+	public final int internalFragmentation; // The memory wasted by rounding blocks up (or -1 if the algorithm doesn't)
+	public final int[][] stateIds; // The id of each process in each state, indexed by the state's ordinal
+	public final int[][] stateSizes; // The size of each process in each state, indexed by the state's ordinal
+	public final int[][] stateTimes; // The required time of each process in each state, indexed by the state's ordinal
+	public final int mostFilledStateCount; // The number of rows in the state table
+
+	// Constructor
+	private TableSnapshot(String title, SimulationContext context) {
+		// Set the properties
+		this.title = title;
+
+		// Let's copy the memory
+		PagedMemoryMap pagedMemory = context.getMemory().getPagedMemory();
+		this.paged = (pagedMemory != null);
+
+		if (this.paged) {
+			// Let's copy each frame's process and page
+			this.memoryIds = new int[pagedMemory.getFrameCount()];
+			this.memoryValues = new int[pagedMemory.getFrameCount()];
+
+			for (int frame = 0; frame < this.memoryIds.length; frame++) {
+				Process process = pagedMemory.getFrameProcess(frame); // May be null
+
+				this.memoryIds[frame] = (process != null) ? process.getId() : FREE;
+				this.memoryValues[frame] = pagedMemory.getFramePage(frame);
+			}
+		}
+		else {
+			// Let's copy each block's process and size
+			List<Process> systemMemory = context.getMemory().getMemoryArrayList();
+			this.memoryIds = new int[systemMemory.size()];
+			this.memoryValues = new int[systemMemory.size()];
+
+			for (int i = 0; i < this.memoryIds.length; i++) {
+				Process process = systemMemory.get(i);
+
+				this.memoryIds[i] = (process.isProcessDead() != true) ? process.getId() : FREE;
+				this.memoryValues[i] = process.getSize();
+			}
+		}
+
+		// The buddy system rounds every process up to a power-of-two block, so let's keep how much that wastes
+		if (this.paged != true && context.getMemory().getMemoryAlgorithm() == "Buddy") {
+			this.internalFragmentation = context.getMemory().getInternalFragmentation();
+		}
+		else {
+			this.internalFragmentation = -1;
+		}
+
+		// Now, let's copy each state's processes
+		EventManager states = context.getStates();
+		this.stateIds = new int[ProcessState.count()][];
+		this.stateSizes = new int[ProcessState.count()][];
+		this.stateTimes = new int[ProcessState.count()][];
+
+		for (ProcessState state : ProcessState.values()) {
+			int count = states.getProcessCount(state);
+			int[] ids = new int[count];
+			int[] sizes = new int[count];
+			int[] times = new int[count];
+
+			for (int i = 0; i < count; i++) {
+				Process process = states.getProcessAtIndex(state, i);
+
+				ids[i] = process.getId();
+				sizes[i] = process.getSize();
+				times[i] = process.getReqTime();
+			}
+
+			this.stateIds[state.ordinal()] = ids;
+			this.stateSizes[state.ordinal()] = sizes;
+			this.stateTimes[state.ordinal()] = times;
+		}
+
+		// Let's count the rows once, instead of on every one of them
+		this.mostFilledStateCount = states.getMostFilledStateCount();
+	}
+
+	// Public function to take a snapshot of the given simulation's tables
+	public static TableSnapshot capture(String title, SimulationContext context) {
+		return new TableSnapshot(title, context);
+	}
+}
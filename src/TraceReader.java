@@ -0,0 +1,176 @@
+// Imports (libraries and utilities)
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Trace Reader class
+ * Reads back a trace file written by the TraceWriter, one record at a time, straight out of a read-only mapping of the file
+ * Reading a record just moves along the mapping and fills in the reader's fields, so nothing is allocated per record
+ * A trace that was never closed (because its run went wrong) may have more records than its header counts, followed by zeros, so those are counted too
+ */
+class TraceReader {
+	// Declare properties
+	private MappedByteBuffer buffer;
+	private long randomSeed;
+	private long recordCount;
+	private long recordsRead;
+	private String memoryAlgorithm;
+	private String memoryBackend;
+	private byte type; // The fields of the last record read
+	private int first;
+	private int second;
+	private int third;
+	private int processId;
+	private int value;
+	private int generatedEventNumber;
+
+	// Constructor
+	public TraceReader(String fileName) throws IOException {
+		// Let's map the whole file (the mapping stays valid after the channel is closed)
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+
+		try {
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			channel.close();
+		}
+
+		// Let's make sure it's actually a trace we can read
+		if (this.buffer.capacity() < TraceWriter.HEADER_SIZE || this.buffer.getInt() != TraceWriter.MAGIC) {
+			throw new IOException("Not a simulation trace: " + fileName);
+		}
+		if (this.buffer.getInt() != TraceWriter.VERSION) {
+			throw new IOException("Unsupported simulation trace version: " + fileName);
+		}
+
+		// Let's read the rest of the header
+		this.randomSeed = this.buffer.getLong();
+		this.recordCount = this.buffer.getLong();
+		this.memoryAlgorithm = getName(this.buffer);
+		this.memoryBackend = getName(this.buffer);
+		this.buffer.position(TraceWriter.HEADER_SIZE);
+
+		// If the trace wasn't closed, its records go on past the header's count, up to the first record that was never written (its type is still zero)
+		long position = TraceWriter.HEADER_SIZE + (this.recordCount * TraceWriter.RECORD_SIZE);
+
+		while (position + TraceWriter.RECORD_SIZE <= this.buffer.capacity() && this.buffer.get((int) position) != 0) {
+			this.recordCount++;
+			position += TraceWriter.RECORD_SIZE;
+		}
+	}
+
+	// Public function to get the random number seed of the traced simulation
+	public long getRandomSeed() {
+		return this.randomSeed;
+	}
+
+	// Public function to get the number of records in the trace
+	public long getRecordCount() {
+		return this.recordCount;
+	}
+
+	// Public function to get the memory algorithm of the traced simulation (interned, since the simulation compares them by reference)
+	public String getMemoryAlgorithm() {
+		return this.memoryAlgorithm;
+	}
+
+	// Public function to get the memory backend of the traced simulation
+	public String getMemoryBackend() {
+		return this.memoryBackend;
+	}
+
+	// Public function to get the type of the next record, without reading it (or 0 if there aren't any left)
+	public byte peekType() {
+		if (this.recordsRead == this.recordCount) {
+			return 0;
+		}
+
+		return this.buffer.get(this.buffer.position());
+	}
+
+	// Public function to read the next record (returns false if there aren't any left)
+	public boolean next() {
+		if (this.recordsRead == this.recordCount) {
+			return false;
+		}
+
+		this.type = this.buffer.get();
+		this.first = this.buffer.get();
+		this.second = this.buffer.get();
+		this.third = this.buffer.get();
+		this.processId = this.buffer.getInt();
+		this.value = this.buffer.getInt();
+		this.generatedEventNumber = this.buffer.getInt();
+		this.recordsRead++;
+
+		return true;
+	}
+
+	// Public function to get the type of the last record read
+	public byte getType() {
+		return this.type;
+	}
+
+	// Public function to get the position in the events list of the last generated event read
+	public int getEventIndex() {
+		return this.first;
+	}
+
+	// Public function to get the from state's ordinal of the last fired event read
+	public int getFromOrdinal() {
+		return this.first;
+	}
+
+	// Public function to get the to state's ordinal of the last fired event read
+	public int getToOrdinal() {
+		return this.second;
+	}
+
+	// Public function to check if the last fired event read worked
+	public boolean hasSucceeded() {
+		return this.third != 0;
+	}
+
+	// Public function to get the process id of the last record read (-1 for a fired event without a process)
+	public int getProcessId() {
+		return this.processId;
+	}
+
+	// Public function to get the size of the last process read
+	public int getProcessSize() {
+		return this.value;
+	}
+
+	// Public function to get the memory block chosen by the last fired event read (or -1)
+	public int getMemoryBlock() {
+		return this.value;
+	}
+
+	// Public function to get the required time of the last process read
+	public int getProcessTime() {
+		return this.generatedEventNumber;
+	}
+
+	// Public function to get the generated event number of the last event read
+	public int getGeneratedEventNumber() {
+		return this.generatedEventNumber;
+	}
+
+	// Private function to read a padded name out of the header
+	private static String getName(MappedByteBuffer buffer) {
+		byte[] bytes = new byte[TraceWriter.NAME_SIZE];
+		buffer.get(bytes);
+
+		int length = 0;
+		while (length < bytes.length && bytes[length] != 0) {
+			length++;
+		}
+
+		return new String(bytes, 0, length, StandardCharsets.US_ASCII).intern();
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Trace Replay class
+ * Re-drives a simulation from a trace instead of its random numbers: the processes and generated events come out of the trace,
+ * and every event the simulation fires is checked against the one the trace says was fired
+ * Replaying a trace with a different memory backend (or algorithm) shows exactly where, if anywhere, it first does something different
+ */
+class TraceReplay {
+	// Declare properties
+	private TraceReader reader;
+	private boolean comparingBlocks; // Whether the memory blocks chosen should match (only if the memory is laid out the same way)
+	private int generatedEventCount; // The number of generated events handed out
+	private long matchedEventCount; // The number of fired events that matched the trace
+	private long divergentEventCount; // The number of fired events that didn't (or that the trace had, but weren't fired)
+	private int firstDivergence = -1; // The generated event number of the first fired event that didn't match (-1 if they all have)
+	private String firstDivergenceReason;
+
+	// Constructor
+	public TraceReplay(TraceReader reader, boolean comparingBlocks) {
+		// Set the properties
+		this.reader = reader;
+		this.comparingBlocks = comparingBlocks;
+	}
+
+	// Public function to create the next process in the trace
+	public Process nextProcess(SimulationContext context) {
+		// Let's skip to the next process (anything in the way wasn't fired this time)
+		while (this.reader.peekType() != TraceWriter.PROCESS_RECORD) {
+			if (this.reader.next() != true) {
+				throw new IllegalStateException("The trace has no more processes");
+			}
+
+			this.diverge(this.reader.getGeneratedEventNumber(), "event from the trace wasn't fired");
+		}
+
+		this.reader.next();
+
+		Process process = new Process(context, this.reader.getProcessSize(), this.reader.getProcessTime());
+
+		// The processes are numbered in the order they're created, so if we're in step, the ids will match
+		if (process.getId() != this.reader.getProcessId()) {
+			this.diverge(0, "process #" + process.getId() + " was #" + this.reader.getProcessId() + " in the trace");
+		}
+
+		return process;
+	}
+
+	// Public function to get the position in the events list of the next generated event (or -1 if the trace has run out)
+	public int nextGeneratedEvent() {
+		// Let's skip to the next generated event (anything in the way wasn't fired this time)
+		while (this.reader.peekType() != TraceWriter.GENERATED_RECORD) {
+			if (this.reader.next() != true) {
+				return -1;
+			}
+
+			this.diverge(this.reader.getGeneratedEventNumber(), "event from the trace wasn't fired");
+		}
+
+		this.reader.next();
+		this.generatedEventCount++;
+
+		return this.reader.getEventIndex();
+	}
+
+	// Public function to check a fired event against the next one in the trace
+	public void checkFired(Event event, int processId, boolean succeeded, int memoryBlock) {
+		// If the trace didn't fire another event here, this one is extra
+		if (this.reader.peekType() != TraceWriter.FIRED_RECORD) {
+			this.diverge(this.generatedEventCount, "extra event " + event + " was fired");
+
+			return;
+		}
+
+		this.reader.next();
+
+		if (event.fromState.ordinal() != this.reader.getFromOrdinal() || event.toState.ordinal() != this.reader.getToOrdinal()) {
+			this.diverge(this.reader.getGeneratedEventNumber(), "event " + event + " was fired instead of " + ProcessState.values()[this.reader.getFromOrdinal()] + " -> " + ProcessState.values()[this.reader.getToOrdinal()]);
+		}
+		else if (processId != this.reader.getProcessId()) {
+			this.diverge(this.reader.getGeneratedEventNumber(), "event " + event + " moved process #" + processId + " instead of #" + this.reader.getProcessId());
+		}
+		else if (succeeded != this.reader.hasSucceeded()) {
+			this.diverge(this.reader.getGeneratedEventNumber(), "event " + event + (succeeded ? " worked" : " failed") + " this time");
+		}
+		else if (this.comparingBlocks && memoryBlock != this.reader.getMemoryBlock()) {
+			this.diverge(this.reader.getGeneratedEventNumber(), "event " + event + " put process #" + processId + " in memory block " + memoryBlock + " instead of " + this.reader.getMemoryBlock());
+		}
+		else {
+			this.matchedEventCount++;
+		}
+	}
+
+	// Public function to get the number of generated events that were replayed
+	public int getGeneratedEventCount() {
+		return this.generatedEventCount;
+	}
+
+	// Public function to get the number of fired events that matched the trace
+	public long getMatchedEventCount() {
+		return this.matchedEventCount;
+	}
+
+	// Public function to get the number of fired events that didn't match the trace
+	public long getDivergentEventCount() {
+		return this.divergentEventCount;
+	}
+
+	// Public function to get the generated event number where the replay first didn't match the trace (or -1 if it always did)
+	public int getFirstDivergence() {
+		return this.firstDivergence;
+	}
+
+	// Public function to get what first didn't match the trace (or null if everything did)
+	public String getFirstDivergenceReason() {
+		return this.firstDivergenceReason;
+	}
+
+	// Private function to count something that didn't match the trace (and remember it, if it's the first)
+	private void diverge(int generatedEventNumber, String reason) {
+		this.divergentEventCount++;
+
+		if (this.firstDivergenceReason == null) {
+			this.firstDivergence = generatedEventNumber;
+			this.firstDivergenceReason = reason;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+// Imports (libraries and utilities)
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Trace Writer class
+ * Records everything that happens in a simulation as fixed-width binary records, written straight into a memory-mapped file
+ * The file is a header (what was simulated, and from what seed) followed by one 16 byte record for each:
+ *  - process created: its id, size and required time
+ *  - event generated: its position in the simulation's events list
+ *  - event fired (generated, or set off by another event): its states, its process, whether it worked, and the memory block it chose
+ * The file is mapped a chunk at a time as it grows, and trimmed down to the records that were written when it's closed
+ * The record count in the header is kept up to date every time a chunk is mapped, so a trace of a run that went wrong (and was never closed) can still be read
+ */
+class TraceWriter {
+	// Declare final variables (constants)
+	public static final int MAGIC = 0x4F535452; // "OSTR", at the start of every trace file
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 64; // The magic number, version, seed, record count, memory algorithm and memory backend (padded)
+	public static final int NAME_SIZE = 16; // The room for each name in the header
+	public static final int RECORD_COUNT_POSITION = 16; // Where the record count is in the header
+	public static final int RECORD_SIZE = 16;
+
+	public static final byte PROCESS_RECORD = 1; // [type, -, -, -][id][size][required time]
+	public static final byte GENERATED_RECORD = 2; // [type, event index, -, -][-][-][generated event number]
+	public static final byte FIRED_RECORD = 3; // [type, from state, to state, worked][process id][memory block][generated event number]
+
+	private static final int CHUNK_SIZE = 1 << 22; // The size of each piece of the file that's mapped at once (4MB)
+
+	// Declare properties
+	private FileChannel channel;
+	private MappedByteBuffer header; // The header, mapped on its own so the record count can be kept up to date
+	private MappedByteBuffer buffer; // The mapped chunk that records are being written into
+	private long chunkStart; // The position in the file of the mapped chunk
+	private long recordCount;
+
+	// Constructor
+	public TraceWriter(String fileName, SimulationContext context, String memoryBackend) throws IOException {
+		// Let's create (or empty out) the trace file
+		this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.mapChunk(0);
+		this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+		// Let's write the header (the record count is filled in as the file grows, and when we close)
+		this.buffer.putInt(MAGIC);
+		this.buffer.putInt(VERSION);
+		this.buffer.putLong(context.getRandomSeed());
+		this.buffer.putLong(0);
+		putName(this.buffer, context.getMemory().getMemoryAlgorithm());
+		putName(this.buffer, memoryBackend);
+		this.buffer.position(HEADER_SIZE);
+	}
+
+	// Public function to record a newly created process
+	public void writeProcess(Process process) {
+		this.startRecord(PROCESS_RECORD, 0, 0, 0);
+		this.buffer.putInt(process.getId());
+		this.buffer.putInt(process.getSize());
+		this.buffer.putInt(process.getReqTime());
+	}
+
+	// Public function to record a generated event (by its position in the events list)
+	public void writeGenerated(int eventIndex, int generatedEventNumber) {
+		this.startRecord(GENERATED_RECORD, eventIndex, 0, 0);
+		this.buffer.putInt(-1);
+		this.buffer.putInt(-1);
+		this.buffer.putInt(generatedEventNumber);
+	}
+
+	// Public function to record a fired event, with its process (or -1), whether it worked, and the memory block it chose (or -1)
+	public void writeFired(Event event, int processId, boolean succeeded, int memoryBlock, int generatedEventNumber) {
+		this.startRecord(FIRED_RECORD, event.fromState.ordinal(), event.toState.ordinal(), succeeded ? 1 : 0);
+		this.buffer.putInt(processId);
+		this.buffer.putInt(memoryBlock);
+		this.buffer.putInt(generatedEventNumber);
+	}
+
+	// Public function to get the number of records that have been written
+	public long getRecordCount() {
+		return this.recordCount;
+	}
+
+	// Public function to finish the trace: fill in the record count, and trim the file down to its records (it's safe to call more than once)
+	public void close() throws IOException {
+		if (this.channel.isOpen() != true) {
+			return;
+		}
+
+		this.buffer.force();
+		this.buffer = null;
+
+		this.header.putLong(RECORD_COUNT_POSITION, this.recordCount);
+		this.header.force();
+		this.channel.truncate(HEADER_SIZE + (this.recordCount * RECORD_SIZE));
+		this.channel.close();
+	}
+
+	// Private function to start a new record (mapping the next chunk of the file if this one's full)
+	private void startRecord(byte type, int first, int second, int third) {
+		if (this.buffer.remaining() < RECORD_SIZE) {
+			try {
+				this.mapChunk(this.chunkStart + this.buffer.position());
+			}
+			catch (IOException exception) {
+				throw new IllegalStateException("Couldn't grow the trace file", exception);
+			}
+		}
+
+		this.buffer.put(type);
+		this.buffer.put((byte) first);
+		this.buffer.put((byte) second);
+		this.buffer.put((byte) third);
+		this.recordCount++;
+	}
+
+	// Private function to map the chunk of the file that starts at the given position
+	private void mapChunk(long start) throws IOException {
+		if (this.buffer != null) {
+			this.buffer.force();
+
+			// Every record so far is safely written, so let's count them in the header
+			this.header.putLong(RECORD_COUNT_POSITION, this.recordCount);
+		}
+
+		this.chunkStart = start;
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, start, CHUNK_SIZE);
+	}
+
+	// Private function to write a name into the header, padded (or cut) to its room
+	private static void putName(MappedByteBuffer buffer, String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+
+		for (int i = 0; i < NAME_SIZE; i++) {
+			buffer.put(i < bytes.length ? bytes[i] : 0);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Transition class
+ * The compiled handler for one (from, to) state transition, with each of its steps declared up front:
+ *  - the event to fire first if the destination state is full (to make room in it)
+ *  - the events to try, in order, if the source state is empty (to refill it)
+ *  - what has to happen in memory: nothing, add the process, or remove it
+ *  - the event to fire after it works (like refilling the Run state)
+ * The simulation keeps these in a table indexed by the from and to states' ordinals, so finding an event's handler is a single lookup
+ */
+class Transition {
+	// The memory step of a transition
+	enum MemoryStep {
+		NONE,
+		ADD, // The process is added to memory (compacting first, if that's what it takes)
+		REMOVE // The process is removed from memory
+	}
+
+	// Declare properties
+	public final ProcessState from;
+	public final ProcessState to;
+	private Event clearEvent; // Fired first if the destination state is full (null if there isn't one)
+	private Event[] refillEvents; // Tried in order until one works, if the source state is empty (null if there aren't any)
+	private Event followUpEvent; // Fired after the transition works (null if there isn't one)
+	private MemoryStep memoryStep = MemoryStep.NONE;
+	private boolean movesLargest; // Whether the transition moves the source state's largest process instead of its first
+	private boolean allowsEmptySource; // Whether the transition may fire before there's a process in the source state
+	private boolean reportsSuccess; // Whether the transition announces that it worked (in debug mode)
+
+	// Constructor
+	public Transition(ProcessState from, ProcessState to) {
+		// Set the properties
+		this.from = from;
+		this.to = to;
+	}
+
+	// Public function to declare the event that makes room in a full destination state
+	public Transition clearingWith(Event clearEvent) {
+		this.clearEvent = clearEvent;
+
+		return this;
+	}
+
+	// Public function to declare the events that refill an empty source state (tried in order until one works)
+	public Transition refillingWith(Event... refillEvents) {
+		this.refillEvents = refillEvents;
+
+		return this;
+	}
+
+	// Public function to declare the event to fire after the transition works
+	public Transition followedBy(Event followUpEvent) {
+		this.followUpEvent = followUpEvent;
+
+		return this;
+	}
+
+	// Public function to declare what has to happen in memory
+	public Transition withMemoryStep(MemoryStep memoryStep) {
+		this.memoryStep = memoryStep;
+
+		return this;
+	}
+
+	// Public function to declare that the transition moves the largest process in the source state
+	public Transition movingLargest() {
+		this.movesLargest = true;
+
+		return this;
+	}
+
+	// Public function to declare that the transition may fire before there's a process in the source state
+	public Transition allowingEmptySource() {
+		this.allowsEmptySource = true;
+
+		return this;
+	}
+
+	// Public function to declare that the transition announces when it works
+	public Transition reportingSuccess() {
+		this.reportsSuccess = true;
+
+		return this;
+	}
+
+	// Public function to get the event that makes room in a full destination state (or null)
+	public Event getClearEvent() {
+		return this.clearEvent;
+	}
+
+	// Public function to get the events that refill an empty source state (or null)
+	public Event[] getRefillEvents() {
+		return this.refillEvents;
+	}
+
+	// Public function to get the event to fire after the transition works (or null)
+	public Event getFollowUpEvent() {
+		return this.followUpEvent;
+	}
+
+	// Public function to get what has to happen in memory
+	public MemoryStep getMemoryStep() {
+		return this.memoryStep;
+	}
+
+	// Public function to check if the transition moves the largest process in the source state
+	public boolean movesLargest() {
+		return this.movesLargest;
+	}
+
+	// Public function to check if the transition may fire before there's a process in the source state
+	public boolean allowsEmptySource() {
+		return this.allowsEmptySource;
+	}
+
+	// Public function to check if the transition announces when it works
+	public boolean reportsSuccess() {
+		return this.reportsSuccess;
+	}
+
+	// Public function to convert the transition into a string
+	public String toString() {
+		return this.from + " -> " + this.to;
+	}
+}
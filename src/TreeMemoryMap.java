@@ -0,0 +1,609 @@
+// Imports (libraries and utilities)
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// External imports
+import com.google.common.collect.*;
+
+/*
+ * Tree Memory Map class
+ * A balanced tree (treap) memory map, keyed by block address and built out of primitive arrays
+ * Each node also stores the largest empty block in its subtree, so first and next fit can walk straight down to the right block
+ * Best and worst fit use a FreeBlockIndex of the empty blocks, so every fit, split and merge is O(log n)
+ * Its block handles are the tree node numbers
+ */
+class TreeMemoryMap implements MemoryMap {
+	// Declare final variables (constants)
+	private static final int NONE = -1; // The "null" node reference, and the owner of an empty block
+	private static final int INITIAL_CAPACITY = 16; // The initial number of nodes to allocate room for
+
+	// Declare properties
+	private int[] blockStart;
+	private int[] blockSize;
+	private int[] blockOwner; // The id of the process that owns the block (NONE for empty blocks)
+	private int[] priority;
+	private int[] left;
+	private int[] right;
+	private int[] largestFree; // The size of the largest empty block in each node's subtree
+	private int root;
+	private int freeNode; // The head of the list of reusable nodes (linked through the "left" array)
+	private int nodeCount; // The number of nodes that have ever been used
+	private int blockCount; // The number of blocks currently in the tree
+	private int priorityCounter;
+	private int[] nodesById; // The node each process id occupies
+	private Process[] processesById; // The processes in memory, by id
+	private FreeBlockIndex freeBlocks; // The empty blocks, indexed by size and address
+	private int freeMemory; // The total amount of empty memory
+	private int roverAddress; // The "next fit" roving pointer: the address right after the last allocation
+	private long treeProbes; // The number of nodes looked at by first and next fit (the index counts the other fits)
+	private long merges;
+
+	// Constructor
+	public TreeMemoryMap(int memorySize) {
+		// Let's allocate our initial arrays
+		this.blockStart = new int[INITIAL_CAPACITY];
+		this.blockSize = new int[INITIAL_CAPACITY];
+		this.blockOwner = new int[INITIAL_CAPACITY];
+		this.priority = new int[INITIAL_CAPACITY];
+		this.left = new int[INITIAL_CAPACITY];
+		this.right = new int[INITIAL_CAPACITY];
+		this.largestFree = new int[INITIAL_CAPACITY];
+		this.nodesById = new int[INITIAL_CAPACITY];
+		this.processesById = new Process[INITIAL_CAPACITY];
+		this.freeBlocks = new FreeBlockIndex();
+		this.root = NONE;
+		this.freeNode = NONE;
+
+		// Let's start out with one completely empty block
+		int node = this.insertBlock(0, memorySize, NONE);
+		this.freeBlocks.insert(memorySize, 0, node);
+		this.freeMemory = memorySize;
+	}
+
+	// Public function to get the node of the smallest empty block the given size fits into
+	public int findBestFit(int size) {
+		return this.freeBlocks.findBest(size);
+	}
+
+	// Public function to get the node of the largest empty block, if the given size fits into it
+	public int findWorstFit(int size) {
+		return this.freeBlocks.findWorst(size);
+	}
+
+	// Public function to get the node of the lowest addressed empty block the given size fits into
+	public int findFirstFit(int size) {
+		return this.findFirstFrom(this.root, 0, size);
+	}
+
+	// Public function to get the node of the next empty block the given size fits into, starting from the roving pointer
+	public int findNextFit(int size) {
+		// Let's start at the block the roving pointer is in (it may be in the middle of a block that's since been merged)
+		int startNode = this.findContainingNode(this.roverAddress);
+		int startAddress = (startNode == NONE) ? 0 : this.blockStart[startNode];
+
+		int found = this.findFirstFrom(this.root, startAddress, size);
+
+		// If there's nothing after the roving pointer, let's wrap around to the beginning
+		if (found == NONE) {
+			found = this.findFirstFrom(this.root, 0, size);
+		}
+
+		return found;
+	}
+
+	// Public function to place a process at the start of the given empty node
+	public boolean allocate(int node, Process process) {
+		// Make sure we were given an empty block that's large enough
+		if (node < 0 || node >= this.nodeCount || this.blockOwner[node] != NONE || this.blockSize[node] < process.getSize()) {
+			return false;
+		}
+
+		// The empty block is about to change, so let's take it out of the index
+		int address = this.blockStart[node];
+		this.freeBlocks.remove(this.blockSize[node], address);
+
+		int processNode = node;
+
+		if (process.getSize() == this.blockSize[node]) {
+			// If the process fills the whole block, the process can just take the node over
+			this.blockOwner[node] = process.getId();
+			this.refreshPath(this.root, address);
+		}
+		else {
+			// Otherwise, let's shrink the empty block so that it starts right after the process
+			// (its key only moves up within its own range, so the tree stays in order)
+			this.blockStart[node] += process.getSize();
+			this.blockSize[node] -= process.getSize();
+			this.freeBlocks.insert(this.blockSize[node], this.blockStart[node], node);
+			this.refreshPath(this.root, this.blockStart[node]);
+
+			// And give the process a new node of its own in front of it
+			processNode = this.insertBlock(address, process.getSize(), process.getId());
+		}
+
+		// Let's remember where the process is
+		this.setProcessNode(process, processNode);
+		process.setAddress(address);
+		this.freeMemory -= process.getSize();
+
+		// Let's move the roving pointer to just after the process
+		this.roverAddress = address + process.getSize();
+
+		return true;
+	}
+
+	// Public function to free a process's block
+	public boolean free(Process process) {
+		// Let's find the process's node, and make sure it's really the process's
+		int id = process.getId();
+
+		if (id < 0 || id >= this.nodesById.length || this.processesById[id] != process) {
+			return false;
+		}
+
+		int node = this.nodesById[id];
+		int address = this.blockStart[node];
+		int size = this.blockSize[node];
+
+		// Let's forget about the process
+		this.processesById[id] = null;
+		this.freeMemory += size;
+		process.setAddress(-1);
+
+		// Let's find our neighbors
+		int previous = this.findContainingNode(address - 1);
+		int next = this.findContainingNode(address + size);
+
+		// If the right neighbor is empty, let's absorb it
+		if (next != NONE && this.blockOwner[next] == NONE) {
+			this.freeBlocks.remove(this.blockSize[next], this.blockStart[next]);
+			size += this.blockSize[next];
+			this.removeBlock(this.blockStart[next]);
+			this.merges++;
+		}
+
+		// If the left neighbor is empty, it absorbs us. Otherwise, our node becomes the empty block
+		if (previous != NONE && this.blockOwner[previous] == NONE) {
+			this.freeBlocks.remove(this.blockSize[previous], this.blockStart[previous]);
+			this.removeBlock(address);
+
+			address = this.blockStart[previous];
+			size += this.blockSize[previous];
+			node = previous;
+			this.merges++;
+		}
+
+		// Finally, let's update the (possibly merged) empty block and put it in the index
+		this.blockSize[node] = size;
+		this.blockOwner[node] = NONE;
+		this.refreshPath(this.root, address);
+		this.freeBlocks.insert(size, address, node);
+
+		return true;
+	}
+
+	// Public function to slide every process down to the lowest addresses, leaving a single empty block at the end
+	public int compact() {
+		// Let's collect the live processes in address order
+		Process[] processes = new Process[this.blockCount];
+		int processCount = this.collectProcesses(this.root, processes, 0);
+
+		// Now let's rebuild the tree with the processes packed together
+		int movedMemory = 0;
+		int address = 0;
+
+		this.root = NONE;
+		this.freeNode = NONE;
+		this.nodeCount = 0;
+		this.blockCount = 0;
+		this.freeBlocks.clear();
+
+		for (int i = 0; i < processCount; i++) {
+			Process process = processes[i];
+
+			// If the process has to move, its memory has to be copied
+			if (process.getAddress() != address) {
+				movedMemory += process.getSize();
+				process.setAddress(address);
+			}
+
+			this.setProcessNode(process, this.insertBlock(address, process.getSize(), process.getId()));
+			address += process.getSize();
+		}
+
+		// All of the empty memory becomes one block at the end
+		if (this.freeMemory > 0) {
+			int node = this.insertBlock(address, this.freeMemory, NONE);
+			this.freeBlocks.insert(this.freeMemory, address, node);
+		}
+
+		// The next allocation should start at the one empty block
+		this.roverAddress = address;
+
+		return movedMemory;
+	}
+
+	// Public function to get the total amount of empty memory
+	public int getFreeMemory() {
+		return this.freeMemory;
+	}
+
+	// Public function to get the size of the largest empty block
+	public int getLargestFreeBlock() {
+		return this.getLargestFree(this.root);
+	}
+
+	// Public function to get the number of empty blocks
+	public int getFreeBlockCount() {
+		return this.freeBlocks.size();
+	}
+
+	// Public function to get the total number of tree (and index) nodes the find functions have looked at
+	public long getProbeCount() {
+		return this.freeBlocks.getProbeCount() + this.treeProbes;
+	}
+
+	// Public function to get the total number of empty block merges
+	public long getMergeCount() {
+		return this.merges;
+	}
+
+	// Public function to get the internal fragmentation (variable partitions are always exactly the size of their process)
+	public int getInternalFragmentation() {
+		return 0;
+	}
+
+	// Public function to get an array list representation of the memory blocks
+	public ArrayList<Process> getMemoryArrayList() {
+		ArrayList<Process> memoryList = Lists.newArrayListWithCapacity(this.blockCount);
+
+		this.collectBlocks(this.root, memoryList);
+
+		return memoryList;
+	}
+
+	// Private recursive function to find the lowest addressed empty block at or after the given address that fits the given size
+	private int findFirstFrom(int node, int fromAddress, int size) {
+		// If nothing in this subtree is big enough, don't bother looking
+		if (node == NONE || this.largestFree[node] < size) {
+			return NONE;
+		}
+
+		this.treeProbes++;
+
+		// If this node is before the address, only its right subtree can be after it
+		if (this.blockStart[node] < fromAddress) {
+			return this.findFirstFrom(this.right[node], fromAddress, size);
+		}
+
+		// Otherwise, let's try the lower addresses first, then this node, then the higher addresses
+		int found = this.findFirstFrom(this.left[node], fromAddress, size);
+
+		if (found != NONE) {
+			return found;
+		}
+
+		if (this.blockOwner[node] == NONE && this.blockSize[node] >= size) {
+			return node;
+		}
+
+		return this.findFirstFrom(this.right[node], fromAddress, size);
+	}
+
+	// Private function to find the node of the block that contains the given address
+	private int findContainingNode(int address) {
+		int found = NONE;
+		int node = this.root;
+
+		// Let's find the last block that starts at or before the address
+		while (node != NONE) {
+			if (this.blockStart[node] <= address) {
+				found = node;
+				node = this.right[node];
+			}
+			else {
+				node = this.left[node];
+			}
+		}
+
+		// Make sure the address is actually inside of it
+		if (found == NONE || address >= this.blockStart[found] + this.blockSize[found]) {
+			return NONE;
+		}
+
+		return found;
+	}
+
+	// Private recursive function to collect the processes in a subtree, in address order
+	private int collectProcesses(int node, Process[] processes, int count) {
+		if (node != NONE) {
+			count = this.collectProcesses(this.left[node], processes, count);
+
+			if (this.blockOwner[node] != NONE) {
+				processes[count++] = this.processesById[this.blockOwner[node]];
+			}
+
+			count = this.collectProcesses(this.right[node], processes, count);
+		}
+
+		return count;
+	}
+
+	// Private recursive function to add the blocks in a subtree to a list, in address order
+	private void collectBlocks(int node, ArrayList<Process> memoryList) {
+		if (node != NONE) {
+			this.collectBlocks(this.left[node], memoryList);
+
+			if (this.blockOwner[node] == NONE) {
+				// Empty blocks are shown as dead processes
+				Process deadProcess = new Process(this.blockSize[node], true);
+				deadProcess.setAddress(this.blockStart[node]);
+
+				memoryList.add(deadProcess);
+			}
+			else {
+				memoryList.add(this.processesById[this.blockOwner[node]]);
+			}
+
+			this.collectBlocks(this.right[node], memoryList);
+		}
+	}
+
+	// Private function to remember the node a process occupies
+	private void setProcessNode(Process process, int node) {
+		// Make sure our id tables are large enough for the process id
+		if (process.getId() >= this.nodesById.length) {
+			int capacity = Math.max(process.getId() + 1, this.nodesById.length * 2);
+
+			this.nodesById = Arrays.copyOf(this.nodesById, capacity);
+			this.processesById = Arrays.copyOf(this.processesById, capacity);
+		}
+
+		this.nodesById[process.getId()] = node;
+		this.processesById[process.getId()] = process;
+	}
+
+	// Private function to add a block to the tree, returning its node
+	private int insertBlock(int start, int size, int owner) {
+		int node = this.createNode(start, size, owner);
+
+		this.root = this.insertNode(this.root, node);
+		this.blockCount++;
+
+		return node;
+	}
+
+	// Private function to remove the block starting at the given address from the tree
+	private void removeBlock(int start) {
+		this.root = this.removeNode(this.root, start);
+		this.blockCount--;
+	}
+
+	// Private recursive function to insert a node into a subtree, returning the subtree's new root
+	private int insertNode(int node, int newNode) {
+		if (node == NONE) {
+			return newNode;
+		}
+
+		if (this.blockStart[newNode] < this.blockStart[node]) {
+			this.left[node] = this.insertNode(this.left[node], newNode);
+
+			if (this.priority[this.left[node]] > this.priority[node]) {
+				node = this.rotateRight(node);
+			}
+		}
+		else {
+			this.right[node] = this.insertNode(this.right[node], newNode);
+
+			if (this.priority[this.right[node]] > this.priority[node]) {
+				node = this.rotateLeft(node);
+			}
+		}
+
+		this.update(node);
+
+		return node;
+	}
+
+	// Private recursive function to remove the node with the given address from a subtree, returning the subtree's new root
+	private int removeNode(int node, int start) {
+		if (node == NONE) {
+			throw new IllegalStateException("Memory block at " + start + " is not in the tree");
+		}
+
+		if (start < this.blockStart[node]) {
+			this.left[node] = this.removeNode(this.left[node], start);
+		}
+		else if (start > this.blockStart[node]) {
+			this.right[node] = this.removeNode(this.right[node], start);
+		}
+		else {
+			// We found it. If it has less than two children, we can just splice it out
+			if (this.left[node] == NONE || this.right[node] == NONE) {
+				int child = (this.left[node] == NONE) ? this.right[node] : this.left[node];
+
+				this.left[node] = this.freeNode;
+				this.freeNode = node;
+
+				return child;
+			}
+
+			// Otherwise, rotate it down towards the child with the higher priority and keep going
+			if (this.priority[this.left[node]] > this.priority[this.right[node]]) {
+				node = this.rotateRight(node);
+				this.right[node] = this.removeNode(this.right[node], start);
+			}
+			else {
+				node = this.rotateLeft(node);
+				this.left[node] = this.removeNode(this.left[node], start);
+			}
+		}
+
+		this.update(node);
+
+		return node;
+	}
+
+	// Private recursive function to recalculate the largest empty blocks along the path to the given address
+	private void refreshPath(int node, int start) {
+		if (node == NONE) {
+			return;
+		}
+
+		if (start < this.blockStart[node]) {
+			this.refreshPath(this.left[node], start);
+		}
+		else if (start > this.blockStart[node]) {
+			this.refreshPath(this.right[node], start);
+		}
+
+		this.update(node);
+	}
+
+	// Private function to rotate a subtree to the right
+	private int rotateRight(int node) {
+		int pivot = this.left[node];
+
+		this.left[node] = this.right[pivot];
+		this.right[pivot] = node;
+
+		this.update(node);
+		this.update(pivot);
+
+		return pivot;
+	}
+
+	// Private function to rotate a subtree to the left
+	private int rotateLeft(int node) {
+		int pivot = this.right[node];
+
+		this.right[node] = this.left[pivot];
+		this.left[pivot] = node;
+
+		this.update(node);
+		this.update(pivot);
+
+		return pivot;
+	}
+
+	// Private function to recalculate a node's largest empty block in its subtree
+	private void update(int node) {
+		int largest = (this.blockOwner[node] == NONE) ? this.blockSize[node] : 0;
+
+		largest = Math.max(largest, this.getLargestFree(this.left[node]));
+		largest = Math.max(largest, this.getLargestFree(this.right[node]));
+
+		this.largestFree[node] = largest;
+	}
+
+	// Private function to get the largest empty block in a subtree
+	private int getLargestFree(int node) {
+		if (node == NONE) {
+			return 0;
+		}
+
+		return this.largestFree[node];
+	}
+
+	// Private function to get a fresh node for the given block
+	private int createNode(int start, int size, int owner) {
+		int node;
+
+		// Let's reuse a released node if we have one
+		if (this.freeNode != NONE) {
+			node = this.freeNode;
+			this.freeNode = this.left[node];
+		}
+		else {
+			// Make sure we have room for another node
+			if (this.nodeCount == this.blockStart.length) {
+				this.grow();
+			}
+
+			node = this.nodeCount++;
+		}
+
+		this.blockStart[node] = start;
+		this.blockSize[node] = size;
+		this.blockOwner[node] = owner;
+		this.priority[node] = mix(++this.priorityCounter);
+		this.left[node] = NONE;
+		this.right[node] = NONE;
+		this.largestFree[node] = (owner == NONE) ? size : 0;
+
+		return node;
+	}
+
+	// Private function to double the capacity of the node arrays
+	private void grow() {
+		int capacity = this.blockStart.length * 2;
+
+		this.blockStart = Arrays.copyOf(this.blockStart, capacity);
+		this.blockSize = Arrays.copyOf(this.blockSize, capacity);
+		this.blockOwner = Arrays.copyOf(this.blockOwner, capacity);
+		this.priority = Arrays.copyOf(this.priority, capacity);
+		this.left = Arrays.copyOf(this.left, capacity);
+		this.right = Arrays.copyOf(this.right, capacity);
+		this.largestFree = Arrays.copyOf(this.largestFree, capacity);
+	}
+
+	// Private function to scramble a counter into a (deterministic) treap priority
+	private static int mix(int value) {
+		value ^= (value >>> 16);
+		value *= 0x85ebca6b;
+		value ^= (value >>> 13);
+		value *= 0xc2b2ae35;
+		value ^= (value >>> 16);
+
+		return value;
+	}
+
+	// Public function to write the memory map's whole state to a checkpoint
+	public void writeState(DataOutput out) throws IOException {
+		Checkpoint.writeInts(out, this.blockStart);
+		Checkpoint.writeInts(out, this.blockSize);
+		Checkpoint.writeInts(out, this.blockOwner);
+		Checkpoint.writeInts(out, this.priority);
+		Checkpoint.writeInts(out, this.left);
+		Checkpoint.writeInts(out, this.right);
+		Checkpoint.writeInts(out, this.largestFree);
+		out.writeInt(this.root);
+		out.writeInt(this.freeNode);
+		out.writeInt(this.nodeCount);
+		out.writeInt(this.blockCount);
+		out.writeInt(this.priorityCounter);
+		Checkpoint.writeInts(out, this.nodesById);
+		Checkpoint.writeProcesses(out, this.processesById);
+		this.freeBlocks.writeState(out);
+		out.writeInt(this.freeMemory);
+		out.writeInt(this.roverAddress);
+		out.writeLong(this.treeProbes);
+		out.writeLong(this.merges);
+	}
+
+	// Public function to read the memory map's whole state back from a checkpoint
+	public void readState(DataInput in, Process[] processesById) throws IOException {
+		this.blockStart = Checkpoint.readInts(in);
+		this.blockSize = Checkpoint.readInts(in);
+		this.blockOwner = Checkpoint.readInts(in);
+		this.priority = Checkpoint.readInts(in);
+		this.left = Checkpoint.readInts(in);
+		this.right = Checkpoint.readInts(in);
+		this.largestFree = Checkpoint.readInts(in);
+		this.root = in.readInt();
+		this.freeNode = in.readInt();
+		this.nodeCount = in.readInt();
+		this.blockCount = in.readInt();
+		this.priorityCounter = in.readInt();
+		this.nodesById = Checkpoint.readInts(in);
+		this.processesById = Checkpoint.readProcesses(in, processesById);
+		this.freeBlocks.readState(in);
+		this.freeMemory = in.readInt();
+		this.roverAddress = in.readInt();
+		this.treeProbes = in.readLong();
+		this.merges = in.readLong();
+	}
+}
@@ -0,0 +1,79 @@
+// Imports (libraries and utilities)
+import java.util.Random;
+
+/*
+ * Workload Distribution enum
+ * The shapes a generated workload's process sizes and CPU times can be drawn from, each over the same range (in the same steps) as the classic workload
+ * Uniform draws exactly the way the classic workload always has, so a uniform workload uses the same random numbers for the same processes
+ */
+enum WorkloadDistribution {
+	UNIFORM("Uniform"), // Every step of the range is as likely as the next
+	EXPONENTIAL("Exponential"), // Mostly small, thinning out towards the top of the range (with a mean a quarter of the way up)
+	PARETO("Pareto"), // Heavy-tailed: mostly the smallest, with a few up at the top of the range
+	BIMODAL("Bimodal"); // Mostly from the bottom quarter of the range, the rest from the top quarter
+
+	// Declare final variables (constants)
+	private static final WorkloadDistribution[] DISTRIBUTIONS = values(); // A single copy of the distributions (values() makes a new array every call)
+	private static final double PARETO_SHAPE = 1.5; // The Pareto distribution's tail index (the lower it is, the heavier the tail)
+	private static final double BIMODAL_LOW_SHARE = 0.8; // The share of the bimodal distribution's values from the bottom of the range
+
+	// Declare properties
+	private final String name;
+
+	// Constructor
+	private WorkloadDistribution(String name) {
+		this.name = name;
+	}
+
+	// Public function to get the distribution's name
+	public String getName() {
+		return this.name;
+	}
+
+	// Public function to get the distribution with the given name
+	public static WorkloadDistribution forName(String name) {
+		// There are only a handful of distributions, so let's just check each one
+		for (WorkloadDistribution distribution : DISTRIBUTIONS) {
+			if (distribution.name.equals(name)) {
+				return distribution;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown workload distribution: " + name);
+	}
+
+	// Public function to draw a value between min and max (both multiples of step), in steps of step
+	public int sample(Random random, int min, int max, int step) {
+		int steps = (max / step) - (min / step); // The number of steps above min there are in the range
+
+		if (this == UNIFORM) {
+			// Use a y-intercept style function of n to calculate the value within its constraints (just like the classic workload)
+			return (step * random.nextInt(steps + 1)) + min;
+		}
+		else if (this == EXPONENTIAL) {
+			double mean = steps / 4.0;
+
+			return (step * (int) Math.min(-mean * Math.log(1.0 - random.nextDouble()), steps)) + min;
+		}
+		else if (this == PARETO) {
+			// The value is min scaled up by a Pareto factor (at least 1), so let's count the steps it's over min
+			double value = min / Math.pow(1.0 - random.nextDouble(), 1.0 / PARETO_SHAPE);
+
+			return (step * (int) Math.min((value - min) / step, steps)) + min;
+		}
+
+		// Otherwise it's bimodal, so let's pick which end of the range to draw from, and draw uniformly from its quarter
+		int quarter = steps / 4;
+
+		if (random.nextDouble() < BIMODAL_LOW_SHARE) {
+			return (step * random.nextInt(quarter + 1)) + min;
+		}
+
+		return max - (step * random.nextInt(quarter + 1));
+	}
+
+	// Public function to convert the distribution into a string
+	public String toString() {
+		return this.name;
+	}
+}
@@ -0,0 +1,24 @@
+/*
+ * Workload Source interface
+ * Where a simulation's processes come from, instead of the classic handful of jobs: a stream of them, each with the time it arrives
+ * The processes are only created as they're taken, so a workload of any length takes the same memory to run
+ */
+interface WorkloadSource {
+	// Function to check if the source has another process
+	public boolean hasNext();
+
+	// Function to get the time the next process arrives (only meaningful if there is one)
+	public long peekArrivalTime();
+
+	// Function to create the next process, in the given simulation (or null, if there are no more)
+	public Process nextProcess(SimulationContext context);
+
+	// Function to get the number of processes the source has created
+	public long getCreatedCount();
+
+	// Function to describe the workload (for the run's report)
+	public String getDescription();
+
+	// Function to let go of anything the source has open (once the simulation is done with it)
+	public void close();
+}